@@ -7,9 +7,25 @@ repositories {
     mavenCentral()
 }
 
+sourceSets {
+    // JMH benchmarks, run them using the 'jmh' task
+    create("jmh") {
+        compileClasspath += sourceSets.main.get().output
+        runtimeClasspath += sourceSets.main.get().output
+    }
+}
+
+val jmhVersion = "1.37"
+
 dependencies {
     testImplementation("org.junit.jupiter:junit-jupiter-api:5.6.0")
     testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine")
+    // generated bindings of the @MoLangBinding test classes
+    testAnnotationProcessor(project(":processor"))
+
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:$jmhVersion")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:$jmhVersion")
+    "jmhAnnotationProcessor"(project(":processor"))
 }
 
 tasks {
@@ -20,6 +36,17 @@ tasks {
         useJUnitPlatform()
         dependsOn("generateExpectations")
     }
+    // runs the benchmarks, e.g. './gradlew jmh -Pjmh=ParserBenchmark'
+    // to run the benchmarks matching the given regex
+    create<JavaExec>("jmh") {
+        group = "benchmark"
+        classpath = sourceSets["jmh"].runtimeClasspath
+        mainClass.set("org.openjdk.jmh.Main")
+        args("-prof", "gc")
+        if (project.hasProperty("jmh")) {
+            args(project.property("jmh").toString())
+        }
+    }
 }
 
 java {
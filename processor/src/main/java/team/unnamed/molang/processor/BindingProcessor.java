@@ -0,0 +1,240 @@
+package team.unnamed.molang.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Annotation processor that generates a binding class for every
+ * class annotated with {@code @MoLangBinding}, exposing its
+ * {@code @MoLangProperty} methods
+ *
+ * <p>Generated bindings resolve property names to indices and
+ * dispatch reads with a switch on the index, so they use no
+ * reflection and spin no classes at runtime. Methods and names
+ * follow the same rules as {@code ObjectBinder}: methods without
+ * parameters are values, numeric methods with one to three double
+ * parameters are functions and names are lowercased, like script
+ * identifiers</p>
+ */
+public final class BindingProcessor extends AbstractProcessor {
+
+    static final String BINDING_ANNOTATION = "team.unnamed.molang.binding.MoLangBinding";
+    static final String PROPERTY_ANNOTATION = "team.unnamed.molang.binding.MoLangProperty";
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(BINDING_ANNOTATION);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment environment) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : environment.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.CLASS) {
+                    error(element, "@MoLangBinding can only be used on classes");
+                    continue;
+                }
+                process((TypeElement) element);
+            }
+        }
+        return true;
+    }
+
+    private void process(TypeElement type) {
+        if (!isAccessible(type)) {
+            error(type, "@MoLangBinding classes must not be private, and nested ones must be static");
+            return;
+        }
+
+        // subclass methods override the superclass ones
+        Map<String, BindingWriter.Property> properties = new LinkedHashMap<>();
+        boolean valid = true;
+        for (TypeElement clazz = type; clazz != null; clazz = superclassOf(clazz)) {
+            for (ExecutableElement method : ElementFilter.methodsIn(clazz.getEnclosedElements())) {
+                AnnotationMirror annotation = findAnnotation(method, PROPERTY_ANNOTATION);
+                if (annotation == null || method.getModifiers().contains(Modifier.STATIC)) {
+                    continue;
+                }
+                String name = nameOf(method, annotation);
+                if (properties.containsKey(name)) {
+                    continue;
+                }
+                BindingWriter.Property property = createProperty(name, method);
+                if (property == null) {
+                    valid = false;
+                } else {
+                    properties.put(name, property);
+                }
+            }
+        }
+        if (!valid) {
+            return;
+        }
+
+        BindingWriter writer = new BindingWriter(
+                processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString(),
+                bindingNameOf(type),
+                type.getQualifiedName().toString(),
+                new ArrayList<>(properties.values())
+        );
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(writer.getQualifiedName(), type);
+            try (Writer output = file.openWriter()) {
+                output.write(writer.write());
+            }
+        } catch (IOException e) {
+            error(type, "Couldn't write the binding: " + e.getMessage());
+        }
+    }
+
+    private BindingWriter.Property createProperty(String name, ExecutableElement method) {
+        if (method.getModifiers().contains(Modifier.PRIVATE)) {
+            error(method, "@MoLangProperty methods must not be private");
+            return null;
+        }
+        TypeMirror returnType = method.getReturnType();
+        List<? extends VariableElement> parameters = method.getParameters();
+        String methodName = method.getSimpleName().toString();
+        boolean returnsDouble = returnType.getKind() == TypeKind.DOUBLE;
+        if (parameters.isEmpty()) {
+            if (isNumeric(returnType)) {
+                return new BindingWriter.Property(name, methodName, BindingWriter.Kind.NUMBER, 0, returnsDouble);
+            } else if (returnType.getKind() == TypeKind.BOOLEAN) {
+                return new BindingWriter.Property(name, methodName, BindingWriter.Kind.BOOLEAN, 0, false);
+            } else if (returnType.getKind() != TypeKind.VOID) {
+                return new BindingWriter.Property(name, methodName, BindingWriter.Kind.OBJECT, 0, false);
+            }
+        } else if (isNumeric(returnType) && parameters.size() <= 3 && allDoubles(parameters)) {
+            return new BindingWriter.Property(name, methodName, BindingWriter.Kind.FUNCTION, parameters.size(), returnsDouble);
+        }
+        error(method, "Unsupported @MoLangProperty method, properties must be methods without"
+                + " parameters or numeric methods with up to 3 double parameters");
+        return null;
+    }
+
+    //#region Element utilities
+    private static boolean isAccessible(TypeElement type) {
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            TypeElement clazz = (TypeElement) element;
+            if (clazz.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            if (clazz.getNestingKind() == NestingKind.MEMBER && !clazz.getModifiers().contains(Modifier.STATIC)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static TypeElement superclassOf(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+        return element.getQualifiedName().contentEquals("java.lang.Object") ? null : element;
+    }
+
+    /**
+     * Returns the name of the generated binding, e.g. 'EntityBinding'
+     * for 'Entity' and 'Outer_EntityBinding' for 'Outer.Entity'
+     */
+    private static String bindingNameOf(TypeElement type) {
+        StringBuilder name = new StringBuilder("Binding");
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            if (element != type) {
+                name.insert(0, '_');
+            }
+            name.insert(0, element.getSimpleName());
+        }
+        return name.toString();
+    }
+
+    private static AnnotationMirror findAnnotation(Element element, String annotationType) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            TypeElement type = (TypeElement) annotation.getAnnotationType().asElement();
+            if (type.getQualifiedName().contentEquals(annotationType)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the lowercase property name of the given
+     * {@code method}, identifiers are case-insensitive
+     */
+    private static String nameOf(ExecutableElement method, AnnotationMirror annotation) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                : annotation.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals("value")) {
+                String name = entry.getValue().getValue().toString();
+                if (!name.isEmpty()) {
+                    return name.toLowerCase(Locale.ROOT);
+                }
+            }
+        }
+        return method.getSimpleName().toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isNumeric(TypeMirror type) {
+        switch (type.getKind()) {
+            case DOUBLE:
+            case FLOAT:
+            case LONG:
+            case INT:
+            case SHORT:
+            case BYTE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean allDoubles(List<? extends VariableElement> parameters) {
+        for (VariableElement parameter : parameters) {
+            if (parameter.asType().getKind() != TypeKind.DOUBLE) {
+                return false;
+            }
+        }
+        return true;
+    }
+    //#endregion
+
+    private void error(Element element, String message) {
+        Messager messager = processingEnv.getMessager();
+        messager.printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+}
@@ -0,0 +1,321 @@
+package team.unnamed.molang.processor;
+
+import java.util.List;
+
+/**
+ * Writes the source code of a generated binding class
+ */
+final class BindingWriter {
+
+    enum Kind {
+        NUMBER,
+        BOOLEAN,
+        OBJECT,
+        FUNCTION
+    }
+
+    /**
+     * A property of the generated binding, its index
+     * is its position in the properties list
+     */
+    static final class Property {
+
+        private final String name;
+        private final String method;
+        private final Kind kind;
+        private final int arity;
+
+        // whether the method returns a double, numbers
+        // of other types are cast before boxing them
+        private final boolean returnsDouble;
+
+        Property(String name, String method, Kind kind, int arity, boolean returnsDouble) {
+            this.name = name;
+            this.method = method;
+            this.kind = kind;
+            this.arity = arity;
+            this.returnsDouble = returnsDouble;
+        }
+
+    }
+
+    private static final String BINDING_PACKAGE = "team.unnamed.molang.binding";
+
+    private final String packageName;
+    private final String className;
+    private final String targetType;
+    private final List<Property> properties;
+
+    private final StringBuilder source = new StringBuilder();
+    private int indent;
+
+    BindingWriter(String packageName, String className, String targetType, List<Property> properties) {
+        this.packageName = packageName;
+        this.className = className;
+        this.targetType = targetType;
+        this.properties = properties;
+    }
+
+    String getQualifiedName() {
+        return packageName.isEmpty() ? className : packageName + '.' + className;
+    }
+
+    String write() {
+        if (!packageName.isEmpty()) {
+            line("package " + packageName + ";");
+            line("");
+        }
+        line("import " + BINDING_PACKAGE + ".ObjectBinding;");
+        line("import " + BINDING_PACKAGE + ".PropertyBinding;");
+        line("import " + BINDING_PACKAGE + ".PropertyHandle;");
+        line("");
+        line("/**");
+        line(" * Binding for {@link " + targetType + "}, generated by");
+        line(" * the MoLang binding processor, do not edit");
+        line(" */");
+        open("public final class " + className + " implements PropertyBinding {");
+        line("");
+
+        line("private static final PropertyHandle[] HANDLES = new PropertyHandle[" + properties.size() + "];");
+        line("");
+        open("static {");
+        open("for (int i = 0; i < HANDLES.length; i++) {");
+        line("HANDLES[i] = new Handle(i);");
+        close("}");
+        close("}");
+        line("");
+
+        line("private final " + targetType + " target;");
+        for (int i = 0; i < properties.size(); i++) {
+            Property property = properties.get(i);
+            if (property.kind == Kind.FUNCTION) {
+                line("private final " + BINDING_PACKAGE + ".DoubleFunction" + property.arity + " function" + i + ";");
+            }
+        }
+        line("");
+
+        open("public " + className + "(" + targetType + " target) {");
+        line("this.target = target;");
+        for (int i = 0; i < properties.size(); i++) {
+            if (properties.get(i).kind == Kind.FUNCTION) {
+                line("this.function" + i + " = new Function" + i + "(target);");
+            }
+        }
+        close("}");
+        line("");
+
+        writeAccessors();
+        writeIndexOf();
+        writeGet();
+        writeGetDouble();
+        writeHandle();
+        for (int i = 0; i < properties.size(); i++) {
+            if (properties.get(i).kind == Kind.FUNCTION) {
+                writeFunction(i, properties.get(i));
+            }
+        }
+        close("}");
+        return source.toString();
+    }
+
+    private void writeAccessors() {
+        open("public " + targetType + " getTarget() {");
+        line("return target;");
+        close("}");
+        line("");
+
+        line("@Override");
+        open("public Object getProperty(String name) {");
+        line("int index = indexOf(name);");
+        line("return index == -1 ? null : get(index);");
+        close("}");
+        line("");
+
+        line("@Override");
+        open("public void setProperty(String name, Object value) {");
+        close("}");
+        line("");
+
+        line("@Override");
+        open("public PropertyHandle getPropertyHandle(String name) {");
+        line("int index = indexOf(name);");
+        line("return index == -1 ? null : HANDLES[index];");
+        close("}");
+        line("");
+
+        line("@Override");
+        open("public Object getHandleKey() {");
+        line("return " + className + ".class;");
+        close("}");
+        line("");
+    }
+
+    private void writeIndexOf() {
+        open("private static int indexOf(String name) {");
+        open("switch (name) {");
+        for (int i = 0; i < properties.size(); i++) {
+            line("case \"" + escape(properties.get(i).name) + "\":");
+            line("    return " + i + ";");
+        }
+        line("default:");
+        line("    return -1;");
+        close("}");
+        close("}");
+        line("");
+    }
+
+    private void writeGet() {
+        open("public Object get(int index) {");
+        open("switch (index) {");
+        for (int i = 0; i < properties.size(); i++) {
+            Property property = properties.get(i);
+            line("case " + i + ":");
+            switch (property.kind) {
+                case NUMBER:
+                    line("    return " + (property.returnsDouble ? "" : "(double) ")
+                            + "target." + property.method + "();");
+                    break;
+                case FUNCTION:
+                    line("    return function" + i + ";");
+                    break;
+                default:
+                    line("    return target." + property.method + "();");
+                    break;
+            }
+        }
+        line("default:");
+        line("    return null;");
+        close("}");
+        close("}");
+        line("");
+    }
+
+    private void writeGetDouble() {
+        open("public double getDouble(int index) {");
+        open("switch (index) {");
+        boolean objects = false;
+        for (int i = 0; i < properties.size(); i++) {
+            Property property = properties.get(i);
+            switch (property.kind) {
+                case NUMBER:
+                    line("case " + i + ":");
+                    line("    return target." + property.method + "();");
+                    break;
+                case BOOLEAN:
+                    line("case " + i + ":");
+                    line("    return target." + property.method + "() ? 1 : 0;");
+                    break;
+                case OBJECT:
+                    objects = true;
+                    break;
+                default:
+                    // functions aren't numbers
+                    break;
+            }
+        }
+        if (objects) {
+            open("default: {");
+            line("Object value = get(index);");
+            open("if (value instanceof Boolean) {");
+            line("return ((Boolean) value) ? 1 : 0;");
+            indent--;
+            open("} else if (value instanceof Number) {");
+            line("return ((Number) value).doubleValue();");
+            indent--;
+            open("} else {");
+            line("return 0;");
+            close("}");
+            close("}");
+        } else {
+            line("default:");
+            line("    return 0;");
+        }
+        close("}");
+        close("}");
+        line("");
+    }
+
+    private void writeHandle() {
+        open("private static final class Handle implements PropertyHandle {");
+        line("");
+        line("private final int index;");
+        line("");
+        open("private Handle(int index) {");
+        line("this.index = index;");
+        close("}");
+        line("");
+        line("@Override");
+        open("public Object get(ObjectBinding binding) {");
+        line("return ((" + className + ") binding).get(index);");
+        close("}");
+        line("");
+        line("@Override");
+        open("public double getDouble(ObjectBinding binding) {");
+        line("return ((" + className + ") binding).getDouble(index);");
+        close("}");
+        line("");
+        line("@Override");
+        open("public void set(ObjectBinding binding, Object value) {");
+        close("}");
+        line("");
+        close("}");
+    }
+
+    private void writeFunction(int index, Property property) {
+        String functionType = BINDING_PACKAGE + ".DoubleFunction" + property.arity;
+        String[] parameters = {"a", "b", "c"};
+        StringBuilder declaration = new StringBuilder();
+        StringBuilder arguments = new StringBuilder();
+        for (int i = 0; i < property.arity; i++) {
+            if (i > 0) {
+                declaration.append(", ");
+                arguments.append(", ");
+            }
+            declaration.append("double ").append(parameters[i]);
+            arguments.append(parameters[i]);
+        }
+
+        line("");
+        open("private static final class Function" + index + " implements " + functionType + " {");
+        line("");
+        line("private final " + targetType + " target;");
+        line("");
+        open("private Function" + index + "(" + targetType + " target) {");
+        line("this.target = target;");
+        close("}");
+        line("");
+        line("@Override");
+        open("public double apply(" + declaration + ") {");
+        line("return target." + property.method + "(" + arguments + ");");
+        close("}");
+        line("");
+        close("}");
+    }
+
+    //#region Source writing
+    private void open(String line) {
+        line(line);
+        indent++;
+    }
+
+    private void close(String line) {
+        indent--;
+        line(line);
+    }
+
+    private void line(String line) {
+        if (!line.isEmpty()) {
+            for (int i = 0; i < indent; i++) {
+                source.append("    ");
+            }
+            source.append(line);
+        }
+        source.append('\n');
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+    //#endregion
+
+}
@@ -1,2 +1,4 @@
 rootProject.name = "molang"
 
+// generates bindings for @MoLangBinding classes at build time
+include("processor")
@@ -0,0 +1,84 @@
+package team.unnamed.molang;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.script.ScriptException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures how the evaluation of a script shared by every
+ * thread scales with the thread count, every thread uses its
+ * own entity scopes, so the throughput of the 4-thread runs
+ * should be close to 4 times the single-thread one
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrencyBenchmark {
+
+    private static final String SCRIPT = "temp.base = variable.id * 2;"
+            + "variable.count = (variable.count ?? 0) + 1;"
+            + "return math.clamp(temp.base + variable.count, 0, 1000000);";
+
+    private static final int ENTITIES_PER_THREAD = 64;
+
+    private final AtomicInteger threadIds = new AtomicInteger();
+    private Script script;
+
+    @Setup
+    public void setup() throws ScriptException {
+        script = MoLangEngine.createDefault().compile(SCRIPT);
+    }
+
+    @State(Scope.Thread)
+    public static class Entities {
+
+        private EntityScope[] scopes;
+        private int next;
+
+        @Setup
+        public void setup(ConcurrencyBenchmark benchmark) {
+            int thread = benchmark.threadIds.getAndIncrement();
+            MoLangEngine engine = benchmark.script.getEngine();
+            scopes = new EntityScope[ENTITIES_PER_THREAD];
+            for (int i = 0; i < scopes.length; i++) {
+                scopes[i] = engine.createScope();
+                scopes[i].getVariables().setProperty("id", thread * ENTITIES_PER_THREAD + i);
+            }
+        }
+
+        private EntityScope next() {
+            EntityScope scope = scopes[next];
+            next = (next + 1) % scopes.length;
+            return scope;
+        }
+
+    }
+
+    @Benchmark
+    @Threads(1)
+    public double eval1(Entities entities) {
+        return script.evalAsDouble(entities.next());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public double eval4(Entities entities) {
+        return script.evalAsDouble(entities.next());
+    }
+
+}
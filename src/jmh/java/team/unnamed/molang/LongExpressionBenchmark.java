@@ -0,0 +1,68 @@
+package team.unnamed.molang;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.script.ScriptException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the compilation and evaluation of generated
+ * expressions with thousands of terms, e.g. {@code v.x0 +
+ * v.x1 * 2 - v.x2 + ...}, they are parsed to flat chains
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LongExpressionBenchmark {
+
+    @Param({ "10000" })
+    private int terms;
+
+    private MoLangEngine engine;
+    private String source;
+    private Script script;
+
+    @Setup
+    public void setup() throws ScriptException {
+        StringBuilder builder = new StringBuilder("variable.x0");
+        for (int i = 1; i < terms; i++) {
+            builder.append(i % 2 == 0 ? " + " : " - ")
+                    .append("variable.x").append(i % 100)
+                    .append(" * ").append(i % 10);
+        }
+        source = builder.toString();
+
+        engine = MoLangEngine.builder()
+                .withDefaultBindings()
+                .withoutScriptCache()
+                .build();
+        script = engine.compile(source);
+        for (int i = 0; i < 100; i++) {
+            engine.getDefaultScope().getVariables().setProperty("x" + i, i * 0.5);
+        }
+    }
+
+    @Benchmark
+    public Script compile() throws ScriptException {
+        return engine.compile(source);
+    }
+
+    @Benchmark
+    public double evalAsDouble() {
+        return script.evalAsDouble();
+    }
+
+}
@@ -0,0 +1,104 @@
+package team.unnamed.molang;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import team.unnamed.molang.compiler.CompiledScript;
+import team.unnamed.molang.compiler.ScriptCompiler;
+
+import javax.script.ScriptException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the evaluation of arithmetic-heavy, binding-heavy,
+ * call-heavy and comparison-heavy scripts (e.g. animation
+ * controller conditions), using the interpreter (boxed and
+ * unboxed) and the bytecode compiler
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScriptBenchmark {
+
+    private static final String ARITHMETIC = "(1.5 + variable.x) * 2 - variable.x / 3"
+            + " + (variable.x * variable.x - 4) * 0.5 - -variable.x";
+    private static final String BINDING = "variable.a = variable.b + variable.x;"
+            + " temp.t = variable.a * 2;"
+            + " variable.b = temp.t - variable.x;"
+            + " return variable.a + variable.b + temp.t;";
+    private static final String CALL = "math.sin(variable.x) + math.cos(variable.x * 2)"
+            + " + math.clamp(variable.x, 0, 1) + math.sqrt(math.abs(variable.x))"
+            + " + math.pow(variable.x, 2)";
+    private static final String CONDITION = "variable.x > 0.5 && variable.b >= 1"
+            + " || variable.x < 0.1 && !(variable.b <= 0)"
+            + " || variable.x >= 0.7 && variable.b < 2 && !(variable.x <= variable.b)";
+
+    @Param({ "arithmetic", "binding", "call", "condition" })
+    private String kind;
+
+    private MoLangEngine engine;
+    private String source;
+    private Script script;
+    private CompiledScript compiled;
+    private EntityScope scope;
+
+    @Setup
+    public void setup() throws ScriptException {
+        switch (kind) {
+            case "arithmetic":
+                source = ARITHMETIC;
+                break;
+            case "binding":
+                source = BINDING;
+                break;
+            case "call":
+                source = CALL;
+                break;
+            case "condition":
+                source = CONDITION;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown script kind: " + kind);
+        }
+
+        engine = MoLangEngine.createDefault();
+        script = engine.compile(source);
+        compiled = new ScriptCompiler().compile(script);
+        scope = engine.createScope();
+        scope.getVariables().setProperty("x", 0.75);
+        scope.getVariables().setProperty("b", 1);
+    }
+
+    @Benchmark
+    public Object engineEval() throws ScriptException {
+        // includes the script cache lookup
+        return engine.eval(source, scope);
+    }
+
+    @Benchmark
+    public Object eval() {
+        return script.eval(scope);
+    }
+
+    @Benchmark
+    public double evalAsDouble() {
+        return script.evalAsDouble(scope);
+    }
+
+    @Benchmark
+    public double compiled() {
+        return compiled.evaluate(scope);
+    }
+
+}
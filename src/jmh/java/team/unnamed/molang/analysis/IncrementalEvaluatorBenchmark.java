@@ -0,0 +1,62 @@
+package team.unnamed.molang.analysis;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import team.unnamed.molang.EntityScope;
+import team.unnamed.molang.MoLangEngine;
+import team.unnamed.molang.Script;
+
+import javax.script.ScriptException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the evaluation of a script for an idle entity,
+ * whose inputs don't change, evaluating it every time and
+ * skipping unchanged evaluations
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IncrementalEvaluatorBenchmark {
+
+    private static final String SOURCE = "math.sin(v.angle) * math.cos(v.angle * 2) * v.scale"
+            + " + math.clamp(math.pow(v.scale, 3), 0, 10) + math.sqrt(math.abs(v.angle))";
+
+    private Script script;
+    private EntityScope scope;
+    private IncrementalEvaluator evaluator;
+    private IncrementalEvaluator.State state;
+
+    @Setup
+    public void setup() throws ScriptException {
+        MoLangEngine engine = MoLangEngine.createDefault();
+        script = engine.compile(SOURCE);
+        scope = engine.createScope();
+        scope.getVariables().setProperty("angle", 30);
+        scope.getVariables().setProperty("scale", 1.5);
+        evaluator = new IncrementalEvaluator(script);
+        state = evaluator.createState(scope);
+    }
+
+    @Benchmark
+    public double evaluateEveryTime() {
+        return script.evalAsDouble(scope);
+    }
+
+    @Benchmark
+    public double skipUnchanged() {
+        return evaluator.evalAsDouble(state);
+    }
+
+}
@@ -0,0 +1,103 @@
+package team.unnamed.molang.binding;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time to create the first binding of a class and
+ * read its properties in a fresh JVM, for bindings generated at
+ * build time, bindings created by an {@link ObjectBinder} and
+ * manually registered bindings, like {@link QueryBinding}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class BindingStartupBenchmark {
+
+    private final Entity entity = new Entity();
+
+    @Benchmark
+    public double generated() {
+        return read(new BindingStartupBenchmark_EntityBinding(entity));
+    }
+
+    @Benchmark
+    public double binder() {
+        return read(ObjectBinder.of(Entity.class).bind(entity));
+    }
+
+    @Benchmark
+    public double manual() {
+        return read(new ManualBinding(entity));
+    }
+
+    private static double read(ObjectBinding binding) {
+        return (Double) binding.getProperty("anim_time")
+                + (Double) binding.getProperty("health")
+                + ((DoubleFunction2) binding.getProperty("distance")).apply(3, 4);
+    }
+
+    @MoLangBinding
+    public static class Entity {
+
+        @MoLangProperty("anim_time")
+        public double getAnimTime() {
+            return 1.5;
+        }
+
+        @MoLangProperty
+        public double health() {
+            return 20;
+        }
+
+        @MoLangProperty
+        public double distance(double x, double y) {
+            return Math.sqrt(x * x + y * y);
+        }
+
+    }
+
+    // registers the properties as lambdas, like QueryBinding does
+    private static final class ManualBinding implements ObjectBinding {
+
+        private final Map<String, Object> bindings = new HashMap<>();
+        private final Entity entity;
+
+        private ManualBinding(Entity entity) {
+            this.entity = entity;
+            bindings.put("distance", (DoubleFunction2) entity::distance);
+        }
+
+        @Override
+        public Object getProperty(String name) {
+            switch (name) {
+                case "anim_time":
+                    return entity.getAnimTime();
+                case "health":
+                    return entity.health();
+                default:
+                    return bindings.get(name);
+            }
+        }
+
+        @Override
+        public void setProperty(String name, Object value) {
+        }
+
+    }
+
+}
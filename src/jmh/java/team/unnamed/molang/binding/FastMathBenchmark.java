@@ -0,0 +1,132 @@
+package team.unnamed.molang.binding;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the standard math functions against their
+ * {@link FastMath} approximations over an array of
+ * inputs, each operation evaluates the whole array
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FastMathBenchmark {
+
+    private static final int SIZE = 1024;
+
+    private final double[] degrees = new double[SIZE];
+    private final double[] values = new double[SIZE];
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        for (int i = 0; i < SIZE; i++) {
+            degrees[i] = random.nextDouble() * 720 - 360;
+            values[i] = random.nextDouble() * 20 - 10;
+        }
+    }
+
+    //#region Strict
+    @Benchmark
+    public double sin() {
+        double sum = 0;
+        for (double value : degrees) sum += MathBinding.sin(value);
+        return sum;
+    }
+
+    @Benchmark
+    public double cos() {
+        double sum = 0;
+        for (double value : degrees) sum += MathBinding.cos(value);
+        return sum;
+    }
+
+    @Benchmark
+    public double atan() {
+        double sum = 0;
+        for (double value : values) sum += MathBinding.atan(value);
+        return sum;
+    }
+
+    @Benchmark
+    public double atan2() {
+        double sum = 0;
+        for (int i = 0; i < SIZE; i++) sum += MathBinding.atan2(values[i], degrees[i]);
+        return sum;
+    }
+
+    @Benchmark
+    public double exp() {
+        double sum = 0;
+        for (double value : values) sum += Math.exp(value);
+        return sum;
+    }
+
+    @Benchmark
+    public double pow() {
+        double sum = 0;
+        for (int i = 0; i < SIZE; i++) sum += Math.pow(Math.abs(degrees[i]), values[i]);
+        return sum;
+    }
+    //#endregion
+
+    //#region Fast
+    @Benchmark
+    public double fastSin() {
+        double sum = 0;
+        for (double value : degrees) sum += FastMath.sin(value);
+        return sum;
+    }
+
+    @Benchmark
+    public double fastCos() {
+        double sum = 0;
+        for (double value : degrees) sum += FastMath.cos(value);
+        return sum;
+    }
+
+    @Benchmark
+    public double fastAtan() {
+        double sum = 0;
+        for (double value : values) sum += FastMath.atan(value);
+        return sum;
+    }
+
+    @Benchmark
+    public double fastAtan2() {
+        double sum = 0;
+        for (int i = 0; i < SIZE; i++) sum += FastMath.atan2(values[i], degrees[i]);
+        return sum;
+    }
+
+    @Benchmark
+    public double fastExp() {
+        double sum = 0;
+        for (double value : values) sum += FastMath.exp(value);
+        return sum;
+    }
+
+    @Benchmark
+    public double fastPow() {
+        double sum = 0;
+        for (int i = 0; i < SIZE; i++) sum += FastMath.pow(Math.abs(degrees[i]), values[i]);
+        return sum;
+    }
+    //#endregion
+
+}
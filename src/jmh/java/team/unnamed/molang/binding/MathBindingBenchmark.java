@@ -0,0 +1,62 @@
+package team.unnamed.molang.binding;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link MathBinding} function calls, including
+ * the function lookup and the argument boxing done by
+ * call expressions
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MathBindingBenchmark {
+
+    private final MathBinding math = new MathBinding();
+    private CallableBinding sin;
+    private CallableBinding clamp;
+    private CallableBinding pow;
+    private double x = 0.5;
+
+    @Setup
+    public void setup() {
+        sin = (CallableBinding) math.getProperty("sin");
+        clamp = (CallableBinding) math.getProperty("clamp");
+        pow = (CallableBinding) math.getProperty("pow");
+    }
+
+    @Benchmark
+    public Object sin() {
+        return sin.call(x);
+    }
+
+    @Benchmark
+    public Object clamp() {
+        return clamp.call(x, 0D, 1D);
+    }
+
+    @Benchmark
+    public Object pow() {
+        return pow.call(x, 2D);
+    }
+
+    @Benchmark
+    public Object lookupAndCallSin() {
+        return ((CallableBinding) math.getProperty("sin")).call(x);
+    }
+
+}
@@ -0,0 +1,121 @@
+package team.unnamed.molang.binding;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import team.unnamed.molang.MoLangEngine;
+import team.unnamed.molang.Script;
+
+import javax.script.ScriptException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures an animation controller tick that reads the same
+ * expensive queries in many transitions, using memoized
+ * query providers and a binding that computes every read
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemoizedQueryBenchmark {
+
+    // transition conditions of a controller, evaluated every tick
+    private static final String[] TRANSITIONS = {
+            "q.is_moving && q.speed > 0.5",
+            "q.is_moving && q.speed <= 0.5",
+            "!q.is_moving",
+            "q.is_moving && q.speed > 2",
+            "q.speed > 0.1 && q.speed < 0.2",
+            "!q.is_moving && q.speed <= 0",
+            "q.is_moving ? q.speed * 2 : 0",
+            "q.speed * q.speed > 4",
+            "q.is_moving && q.speed > 1",
+            "q.is_moving || q.speed > 3"
+    };
+
+    private static final QueryProviders<Entity> PROVIDERS = QueryProviders.<Entity>builder()
+            .withProperty("speed", Entity::computeSpeed)
+            .withFlag("is_moving", entity -> entity.computeSpeed() > 0)
+            .build();
+
+    private final Entity entity = new Entity();
+    private final QueryFrame frame = new QueryFrame();
+    private Script[] memoized;
+    private Script[] computed;
+
+    @Setup
+    public void setup() throws ScriptException {
+        memoized = compile(PROVIDERS.bind(entity, frame));
+        computed = compile(new ObjectBinding() {
+            @Override
+            public Object getProperty(String name) {
+                switch (name) {
+                    case "speed":
+                        return entity.computeSpeed();
+                    case "is_moving":
+                        return entity.computeSpeed() > 0;
+                    default:
+                        return null;
+                }
+            }
+
+            @Override
+            public void setProperty(String name, Object value) {
+            }
+        });
+    }
+
+    private static Script[] compile(ObjectBinding query) throws ScriptException {
+        MoLangEngine engine = MoLangEngine.builder()
+                .withDefaultBindings()
+                .withBinding("query", query)
+                .build();
+        Script[] scripts = new Script[TRANSITIONS.length];
+        for (int i = 0; i < scripts.length; i++) {
+            scripts[i] = engine.compile(TRANSITIONS[i]);
+        }
+        return scripts;
+    }
+
+    @Benchmark
+    public void tickMemoized(Blackhole blackhole) {
+        frame.advance();
+        for (Script script : memoized) {
+            blackhole.consume(script.evalAsDouble());
+        }
+    }
+
+    @Benchmark
+    public void tickComputed(Blackhole blackhole) {
+        for (Script script : computed) {
+            blackhole.consume(script.evalAsDouble());
+        }
+    }
+
+    private static final class Entity {
+
+        private final double[] velocity = { 0.3, 0, 0.4 };
+
+        // stands for expensive host code
+        private double computeSpeed() {
+            double sum = 0;
+            for (int i = 0; i < 64; i++) {
+                sum += Math.sqrt(velocity[0] * velocity[0] + velocity[1] * velocity[1] + velocity[2] * velocity[2]);
+            }
+            return sum / 64;
+        }
+
+    }
+
+}
@@ -0,0 +1,92 @@
+package team.unnamed.molang.binding;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import team.unnamed.molang.ast.binary.AccessExpression;
+import team.unnamed.molang.ast.simple.IdentifierExpression;
+import team.unnamed.molang.context.EvalContext;
+
+import javax.script.SimpleBindings;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the property reads of bindings created by an
+ * {@link ObjectBinder} and of a hand-written binding
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObjectBinderBenchmark {
+
+    private final AccessExpression bound = new AccessExpression(new IdentifierExpression("bound"), "anim_time");
+    private final AccessExpression handWritten = new AccessExpression(new IdentifierExpression("hand_written"), "anim_time");
+    private final Entity entity = new Entity();
+    private EvalContext context;
+
+    @Setup
+    public void setup() {
+        SimpleBindings bindings = new SimpleBindings();
+        bindings.put("bound", ObjectBinder.of(Entity.class).bind(entity));
+        bindings.put("hand_written", new ObjectBinding() {
+            @Override
+            public Object getProperty(String name) {
+                switch (name) {
+                    case "anim_time":
+                        return entity.getAnimTime();
+                    case "health":
+                        return entity.getHealth();
+                    default:
+                        return null;
+                }
+            }
+
+            @Override
+            public void setProperty(String name, Object value) {
+            }
+        });
+        context = new EvalContext(bindings);
+    }
+
+    @Benchmark
+    public double readBound() {
+        return bound.evalAsDouble(context);
+    }
+
+    @Benchmark
+    public double readHandWritten() {
+        return handWritten.evalAsDouble(context);
+    }
+
+    @Benchmark
+    public double readDirect() {
+        return entity.getAnimTime();
+    }
+
+    public static class Entity {
+
+        private double animTime = 1.5;
+
+        @MoLangProperty("anim_time")
+        public double getAnimTime() {
+            return animTime;
+        }
+
+        @MoLangProperty("health")
+        public double getHealth() {
+            return 20;
+        }
+
+    }
+
+}
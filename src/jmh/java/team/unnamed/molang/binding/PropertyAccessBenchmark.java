@@ -0,0 +1,71 @@
+package team.unnamed.molang.binding;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import team.unnamed.molang.ast.binary.AccessExpression;
+import team.unnamed.molang.ast.simple.IdentifierExpression;
+import team.unnamed.molang.context.EvalContext;
+
+import javax.script.SimpleBindings;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures property accesses of access expressions, cached
+ * by their inline caches and looked up by name
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyAccessBenchmark {
+
+    private final AccessExpression cached = new AccessExpression(new IdentifierExpression("storage"), "x");
+    private final AccessExpression math = new AccessExpression(new IdentifierExpression("math"), "pi");
+    private final StorageBinding storage = new StorageBinding();
+    private EvalContext context;
+
+    @Setup
+    public void setup() {
+        // some other properties, so lookups aren't trivial
+        for (int i = 0; i < 16; i++) {
+            storage.setProperty("property_" + i, i);
+        }
+        storage.setProperty("x", 1.5);
+
+        SimpleBindings bindings = new SimpleBindings();
+        bindings.put("storage", storage);
+        bindings.put("math", Bind.MATH_BINDING);
+        context = new EvalContext(bindings);
+    }
+
+    @Benchmark
+    public double storageCached() {
+        return cached.evalAsDouble(context);
+    }
+
+    @Benchmark
+    public Object storageByName() {
+        return storage.getProperty("x");
+    }
+
+    @Benchmark
+    public double mathCached() {
+        return math.evalAsDouble(context);
+    }
+
+    @Benchmark
+    public Object mathByName() {
+        return Bind.MATH_BINDING.getProperty("pi");
+    }
+
+}
@@ -0,0 +1,69 @@
+package team.unnamed.molang.binding;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how the random functions scale across threads,
+ * compared to a {@link Random} shared by every thread, the
+ * throughput of the per-thread streams should grow with
+ * the thread count while the shared one doesn't
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomBenchmark {
+
+    private final Random shared = new Random();
+
+    @Benchmark
+    @Threads(1)
+    public double sharedRandom1() {
+        return shared.nextDouble();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public double sharedRandom4() {
+        return shared.nextDouble();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public double random1() {
+        return MathBinding.random(0, 1);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public double random4() {
+        return MathBinding.random(0, 1);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public double dieRollInteger1() {
+        return MathBinding.dieRollInteger(3, 1, 6);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public double dieRollInteger4() {
+        return MathBinding.dieRollInteger(3, 1, 6);
+    }
+
+}
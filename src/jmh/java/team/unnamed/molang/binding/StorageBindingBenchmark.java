@@ -0,0 +1,62 @@
+package team.unnamed.molang.binding;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reads and writes of {@link StorageBinding}
+ * values, by slot (like linked scripts do) and by name
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StorageBindingBenchmark {
+
+    private final StorageBinding storage = new StorageBinding();
+    private int slot;
+    private double value;
+
+    @Setup
+    public void setup() {
+        // some other properties, so lookups aren't trivial
+        for (int i = 0; i < 16; i++) {
+            storage.setProperty("property_" + i, i);
+        }
+        storage.setProperty("x", 1.5);
+        slot = storage.getLayout().find("x");
+    }
+
+    @Benchmark
+    public double readDoubleBySlot() {
+        return storage.getDouble(slot);
+    }
+
+    @Benchmark
+    public void writeDoubleBySlot() {
+        storage.setDouble(slot, value++);
+    }
+
+    @Benchmark
+    public Object readByName() {
+        return storage.getProperty("x");
+    }
+
+    @Benchmark
+    public void writeByName() {
+        storage.setProperty("x", value++);
+    }
+
+}
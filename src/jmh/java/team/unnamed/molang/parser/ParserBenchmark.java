@@ -0,0 +1,72 @@
+package team.unnamed.molang.parser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import team.unnamed.molang.ast.Expression;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time taken to parse expressions
+ * of growing size, from a single term to 10000,
+ * from the supported inputs
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+    private static final String TERM = "query.anim_time * 2.5 + math.sin(variable.x) - temp.y / 3";
+
+    @Param({ "1", "10", "100", "1000", "10000" })
+    private int terms;
+
+    private final MoLangParser parser = new StandardMoLangParser();
+    private String source;
+    private ByteBuffer bytes;
+
+    @Setup
+    public void setup() {
+        StringBuilder builder = new StringBuilder(TERM);
+        for (int i = 1; i < terms; i++) {
+            builder.append(" + ").append(TERM);
+        }
+        source = builder.toString();
+
+        byte[] encoded = source.getBytes(StandardCharsets.UTF_8);
+        bytes = ByteBuffer.allocateDirect(encoded.length);
+        bytes.put(encoded).flip();
+    }
+
+    @Benchmark
+    public List<Expression> parse() throws ParseException {
+        return parser.parse(source);
+    }
+
+    @Benchmark
+    public List<Expression> parseReader() throws ParseException {
+        return parser.parse(new StringReader(source));
+    }
+
+    @Benchmark
+    public List<Expression> parseByteBuffer() throws ParseException {
+        return parser.parse(bytes);
+    }
+
+}
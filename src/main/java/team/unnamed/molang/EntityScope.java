@@ -0,0 +1,63 @@
+package team.unnamed.molang;
+
+import team.unnamed.molang.binding.StorageBinding;
+import team.unnamed.molang.binding.StorageLayout;
+
+import java.util.SplittableRandom;
+
+/**
+ * Holds the state of a single entity across evaluations,
+ * i.e. the values of its 'variable' binding
+ *
+ * <p>Scopes are created by {@link MoLangEngine#createScope()}
+ * and passed to {@link Script#eval(EntityScope)}, so a single
+ * engine, with its compiled scripts and global bindings, can
+ * be shared by many entities. Only the variable values are
+ * stored per entity, in slots of the engine variable layout</p>
+ *
+ * <p>A scope may also be seeded, so the random functions
+ * (e.g. {@code math.random}) evaluated with it use its own
+ * random stream and the same evaluations replay the same
+ * results</p>
+ */
+public final class EntityScope {
+
+    private final StorageBinding variables;
+    private SplittableRandom random;
+
+    EntityScope(StorageLayout variableLayout) {
+        this.variables = new StorageBinding(variableLayout);
+    }
+
+    /**
+     * Returns the 'variable' binding of this
+     * entity scope, never null
+     */
+    public StorageBinding getVariables() {
+        return variables;
+    }
+
+    /**
+     * Seeds the random functions evaluated using this
+     * scope, the random stream is restarted, so the
+     * following evaluations can be replayed by setting
+     * the same seed again
+     *
+     * @param seed The random stream seed
+     */
+    public void setSeed(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Returns the random stream of this scope, or null if
+     * it isn't seeded, in which case the random functions
+     * use the stream of the evaluating thread
+     *
+     * @see team.unnamed.molang.binding.RandomSource
+     */
+    public SplittableRandom getRandom() {
+        return random;
+    }
+
+}
@@ -1,68 +1,328 @@
 package team.unnamed.molang;
 
 import team.unnamed.molang.binding.Bind;
+import team.unnamed.molang.binding.RandomSource;
 import team.unnamed.molang.binding.StorageBinding;
+import team.unnamed.molang.binding.StorageLayout;
 import team.unnamed.molang.context.EvalContext;
+import team.unnamed.molang.context.RootLayout;
 import team.unnamed.molang.ast.Expression;
+import team.unnamed.molang.linker.ScriptLinker;
+import team.unnamed.molang.optimizer.ScriptOptimizer;
 import team.unnamed.molang.parser.MoLangParser;
 import team.unnamed.molang.parser.StandardMoLangParser;
 
-import javax.script.Bindings;
 import javax.script.ScriptException;
-import javax.script.SimpleBindings;
 import java.io.IOException;
 import java.io.Reader;
-import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.SplittableRandom;
 
+/**
+ * Entry point of the library, it parses, optimizes and
+ * links MoLang scripts and evaluates them
+ *
+ * <p><b>Thread safety:</b> engines are safe to use from
+ * multiple threads. Compiled {@link Script}s, the global
+ * bindings and the storage layouts are shared and never
+ * modified during evaluation, the per-evaluation state
+ * (the evaluation context and the 'temp' storage) is
+ * confined to the calling thread, and evaluating a
+ * compiled script takes no locks.</p>
+ *
+ * <p>Variables and the random streams of seeded scopes are
+ * the only state shared across evaluations, unseeded random
+ * functions use a stream per thread, see {@link RandomSource}.
+ * An {@link EntityScope} must not be used
+ * by multiple threads at the same time. This includes
+ * the default scope, used when no scope is specified,
+ * concurrent evaluations should always specify their
+ * own scope.</p>
+ */
 public class MoLangEngine {
 
     private final MoLangParser parser = new StandardMoLangParser();
-    private final StorageBinding variable = new StorageBinding();
+
+    // storage slots are resolved when scripts are linked
+    private final StorageLayout variableLayout = new StorageLayout();
+    private final StorageLayout tempLayout = new StorageLayout();
+
+    // used when no entity scope is specified
+    private final EntityScope defaultScope = new EntityScope(variableLayout);
+
+    // reused by the evaluations of every thread, cleared after them
+    private final ThreadLocal<EvalState> evalState = ThreadLocal.withInitial(EvalState::new);
 
     private final Map<String, Object> globalBindings;
+    private final RootLayout rootLayout;
+    // the global root values, copied by every new context
+    private final Object[] rootValues;
+    private final ScriptCache scriptCache;
+    private final ScriptOptimizer optimizer;
+    private final ScriptLinker linker;
 
     private MoLangEngine(Builder builder) {
-        this.globalBindings = builder.bindings;
+        this.globalBindings = new HashMap<>(builder.bindings);
+        if (builder.fastMath && globalBindings.get("math") == Bind.MATH_BINDING) {
+            globalBindings.put("math", Bind.FAST_MATH_BINDING);
+        }
+        this.rootLayout = new RootLayout(globalBindings.keySet());
+        this.rootValues = rootLayout.createValues(globalBindings);
+        this.scriptCache = builder.scriptCache;
+        this.optimizer = builder.optimize
+                ? new ScriptOptimizer(globalBindings)
+                : null;
+        this.linker = new ScriptLinker(rootLayout, variableLayout, tempLayout, globalBindings);
+    }
+
+    /**
+     * Returns the cache used to avoid parsing the same
+     * source multiple times, or null if disabled
+     */
+    public ScriptCache getScriptCache() {
+        return scriptCache;
+    }
+
+    /**
+     * Returns the bindings available to every script
+     * compiled by this engine (e.g. 'query' and 'math'),
+     * the returned map is unmodifiable
+     */
+    public Map<String, Object> getGlobalBindings() {
+        return Collections.unmodifiableMap(globalBindings);
+    }
+
+    /**
+     * Returns the layout of the root bindings of the
+     * scripts compiled by this engine, never null
+     */
+    public RootLayout getRootLayout() {
+        return rootLayout;
+    }
+
+    /**
+     * Parses the given {@code script} to a {@link Script} that
+     * can be evaluated multiple times without being parsed again,
+     * the script is taken from the {@link ScriptCache} if enabled
+     *
+     * @throws ScriptException If the script has syntax errors
+     */
+    public Script compile(String script) throws ScriptException {
+        if (scriptCache == null) {
+            return compileSource(script);
+        }
+
+        Script compiled = scriptCache.get(script);
+        if (compiled == null) {
+            compiled = compileSource(script);
+            scriptCache.put(script, compiled);
+        }
+        return compiled;
+    }
+
+    private Script compileSource(String script) throws ScriptException {
+        try {
+            return compile(parser.parse(script));
+        } catch (IOException e) {
+            throw new ScriptException(e);
+        }
+    }
+
+    /**
+     * Parses the remaining UTF-8 encoded bytes of the given
+     * {@code buffer} (e.g. a memory-mapped script file) to a
+     * {@link Script}, the bytes are decoded while parsing,
+     * without copying them. The script cache isn't used
+     *
+     * @throws ScriptException If the script has syntax errors
+     * @see MoLangParser#parse(ByteBuffer)
+     */
+    public Script compile(ByteBuffer buffer) throws ScriptException {
+        try {
+            return compile(parser.parse(buffer));
+        } catch (IOException e) {
+            throw new ScriptException(e);
+        }
+    }
+
+    /**
+     * Parses the data from the given {@code reader} to a
+     * {@link Script} that can be evaluated multiple times
+     * without being parsed again, the parsed expressions
+     * are optimized unless optimizations are disabled
+     *
+     * <strong>Note that this method won't close
+     * the given {@code reader}</strong>
+     *
+     * @throws ScriptException If read failed or there are
+     * syntax errors in the script
+     */
+    public Script compile(Reader reader) throws ScriptException {
+        try {
+            return compile(parser.parse(reader));
+        } catch (IOException e) {
+            throw new ScriptException(e);
+        }
+    }
+
+    private Script compile(List<Expression> expressions) {
+        if (optimizer != null) {
+            expressions = optimizer.optimize(expressions);
+        }
+        expressions = linker.link(expressions);
+        return new Script(this, expressions);
     }
 
     public Object eval(String script) throws ScriptException {
-        return eval(new StringReader(script));
+        return compile(script).eval();
     }
 
     public Object eval(Reader reader) throws ScriptException {
+        return compile(reader).eval();
+    }
+
+    /**
+     * Evaluates the given {@code script} using the variables
+     * of the given entity {@code scope}
+     *
+     * @see EntityScope
+     */
+    public Object eval(String script, EntityScope scope) throws ScriptException {
+        return compile(script).eval(scope);
+    }
+
+    /**
+     * Creates a new entity scope, with its own variables,
+     * to evaluate scripts compiled by this engine
+     *
+     * @see EntityScope
+     */
+    public EntityScope createScope() {
+        return new EntityScope(variableLayout);
+    }
+
+    /**
+     * Creates a new entity scope, with its own variables and
+     * a random stream seeded with the given {@code seed}
+     *
+     * @see EntityScope#setSeed(long)
+     */
+    public EntityScope createScope(long seed) {
+        EntityScope scope = createScope();
+        scope.setSeed(seed);
+        return scope;
+    }
+
+    /**
+     * Returns the entity scope used when no
+     * scope is specified, never null
+     */
+    public EntityScope getDefaultScope() {
+        return defaultScope;
+    }
+
+    /**
+     * Creates a new evaluation context using this
+     * engine bindings and a new temporal storage
+     */
+    public EvalContext createContext() {
+        return createContext(defaultScope);
+    }
+
+    /**
+     * Creates a new evaluation context using this engine
+     * bindings, the variables of the given entity {@code scope}
+     * and a new temporal storage
+     */
+    public EvalContext createContext(EntityScope scope) {
+        return createContext(scope, new StorageBinding(tempLayout));
+    }
+
+    private EvalContext createContext(EntityScope scope, StorageBinding temp) {
+        Object[] values = rootValues.clone();
+        values[RootLayout.VARIABLE] = scope.getVariables();
+
+        // temporal storage
+        values[RootLayout.TEMP] = temp;
+
+        return new EvalContext(rootLayout, values);
+    }
+
+    /**
+     * Evaluates the given {@code script} using this
+     * engine bindings and the given entity {@code scope}
+     */
+    Object eval(Script script, EntityScope scope) {
+        EvalState evalState = this.evalState.get();
+        EvalContext context = evalState.acquire(scope);
+        SplittableRandom random = scope.getRandom();
+        SplittableRandom previousRandom = random == null ? null : RandomSource.use(random);
         try {
-            Bindings bindings = new SimpleBindings();
-            bindings.put("variable", variable);
-
-            // temporal storage
-            StorageBinding temp = new StorageBinding();
-            bindings.put("temp", temp);
-
-            // temporal
-            List<Expression> expressions = parser.parse(reader);
-
-            EvalContext context = new EvalContext(bindings);
-            Object lastResult = 0;
-
-            for (Expression expression : expressions) {
-                lastResult = expression.eval(context);
-                Object returnValue = context.popReturnValue();
-                if (returnValue != null) {
-                    lastResult = returnValue;
-                    break;
-                }
+            return script.eval(context);
+        } finally {
+            evalState.release(context);
+            if (random != null) {
+                RandomSource.use(previousRandom);
             }
-            temp.clear();
+        }
+    }
 
-            return lastResult;
-        } catch (IOException e) {
-            throw new ScriptException(e);
+    /**
+     * Evaluates the given {@code script} as a double using
+     * this engine bindings and the given entity {@code scope}
+     */
+    double evalAsDouble(Script script, EntityScope scope) {
+        EvalState evalState = this.evalState.get();
+        EvalContext context = evalState.acquire(scope);
+        SplittableRandom random = scope.getRandom();
+        SplittableRandom previousRandom = random == null ? null : RandomSource.use(random);
+        try {
+            return script.evalAsDouble(context);
+        } finally {
+            evalState.release(context);
+            if (random != null) {
+                RandomSource.use(previousRandom);
+            }
         }
     }
 
+    /**
+     * The evaluation context and 'temp' storage of a thread,
+     * evaluations nested in another evaluation (e.g. evaluations
+     * started by a function binding) use new ones
+     */
+    private final class EvalState {
+
+        private final StorageBinding temp = new StorageBinding(tempLayout);
+        private final EvalContext context = createContext(defaultScope, temp);
+        private boolean active;
+
+        private EvalContext acquire(EntityScope scope) {
+            if (active) {
+                // nested evaluation
+                return createContext(scope, new StorageBinding(tempLayout));
+            }
+            active = true;
+            context.setBinding(RootLayout.VARIABLE, scope.getVariables());
+            return context;
+        }
+
+        private void release(EvalContext context) {
+            if (context == this.context) {
+                temp.clear();
+                context.popReturnValue();
+                // don't retain the scope
+                context.setBinding(RootLayout.VARIABLE, null);
+                active = false;
+            }
+        }
+
+    }
+
     public static Builder builder() {
         return new Builder();
     }
@@ -79,12 +339,80 @@ public class MoLangEngine {
 
     public static class Builder {
 
+        private static final int DEFAULT_CACHE_MAX_ENTRIES = 1024;
+        private static final long DEFAULT_CACHE_MAX_WEIGHT = 8L * 1024 * 1024;
+
         private final Map<String, Object> bindings = new HashMap<>();
+        private ScriptCache scriptCache = new ScriptCache(
+                DEFAULT_CACHE_MAX_ENTRIES,
+                DEFAULT_CACHE_MAX_WEIGHT
+        );
+        private boolean optimize = true;
+        private boolean fastMath = false;
 
         public Builder withDefaultBindings() {
             bindings.put("query", Bind.QUERY_BINDING);
             bindings.put("math", Bind.MATH_BINDING);
-            bindings.put("variable", new StorageBinding());
+            return this;
+        }
+
+        /**
+         * Adds a global binding, available to every script
+         * compiled by the engine, e.g. a 'context' binding.
+         * The 'variable' and 'temp' bindings are always
+         * set by the engine
+         *
+         * @param name The binding name
+         * @param value The binding value
+         */
+        public Builder withBinding(String name, Object value) {
+            bindings.put(name, value);
+            return this;
+        }
+
+        /**
+         * Sets the bounds of the cache used to avoid parsing the same
+         * source multiple times, it's enabled by default and bounded to
+         * 1024 entries and 8 MiB of estimated retained memory
+         *
+         * @param maxEntries The maximum amount of cached scripts
+         * @param maxWeight The maximum estimated amount of bytes
+         *                  retained by the cached scripts
+         */
+        public Builder withScriptCache(int maxEntries, long maxWeight) {
+            this.scriptCache = new ScriptCache(maxEntries, maxWeight);
+            return this;
+        }
+
+        /**
+         * Disables the script cache, sources are
+         * parsed every time they are evaluated
+         */
+        public Builder withoutScriptCache() {
+            this.scriptCache = null;
+            return this;
+        }
+
+        /**
+         * Disables the optimization pass executed after parsing,
+         * compiled scripts will keep the parsed expressions as-is
+         *
+         * @see ScriptOptimizer
+         */
+        public Builder withoutOptimizations() {
+            this.optimize = false;
+            return this;
+        }
+
+        /**
+         * Enables fast-math mode, the default 'math' binding will
+         * use fast approximations for sin, cos, atan, atan2, exp
+         * and pow, with small errors
+         *
+         * @see team.unnamed.molang.binding.FastMath
+         */
+        public Builder withFastMath() {
+            this.fastMath = true;
             return this;
         }
 
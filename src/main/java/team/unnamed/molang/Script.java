@@ -0,0 +1,162 @@
+package team.unnamed.molang;
+
+import team.unnamed.molang.ast.Expression;
+import team.unnamed.molang.context.EvalContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents a compiled MoLang script, it holds the
+ * already parsed expressions so they can be evaluated
+ * multiple times without parsing the source again
+ *
+ * <p>Script instances are immutable and can be safely
+ * shared across threads, they are created using
+ * {@link MoLangEngine#compile(String)}</p>
+ */
+public final class Script {
+
+    private final MoLangEngine engine;
+    private final List<Expression> expressions;
+
+    // the expressions, as an array to avoid iterators
+    private final Expression[] expressionArray;
+
+    Script(MoLangEngine engine, List<Expression> expressions) {
+        this.engine = engine;
+        this.expressions = Collections.unmodifiableList(new ArrayList<>(expressions));
+        this.expressionArray = expressions.toArray(new Expression[0]);
+    }
+
+    /**
+     * Returns the engine that compiled this
+     * script, never null
+     */
+    public MoLangEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Returns the parsed expressions of this script,
+     * the returned list is unmodifiable
+     */
+    public List<Expression> getExpressions() {
+        return expressions;
+    }
+
+    /**
+     * Evaluates this script using the bindings
+     * of the engine that compiled it
+     *
+     * @return The evaluation result
+     */
+    public Object eval() {
+        return engine.eval(this, engine.getDefaultScope());
+    }
+
+    /**
+     * Evaluates this script using the bindings of the
+     * engine that compiled it and the variables of the
+     * given entity {@code scope}
+     *
+     * @param scope The entity scope
+     * @return The evaluation result
+     */
+    public Object eval(EntityScope scope) {
+        return engine.eval(this, scope);
+    }
+
+    /**
+     * Evaluates this script using the given
+     * {@code context}
+     *
+     * @param context The evaluation context
+     * @return The evaluation result, the value of the
+     * first return statement or the value of the last
+     * evaluated expression
+     */
+    public Object eval(EvalContext context) {
+        Expression[] expressions = expressionArray;
+        int last = expressions.length - 1;
+        for (int i = 0; i < last; i++) {
+            // eval expression, ignore result
+            expressions[i].evalAsDouble(context);
+            Object returnValue = context.popReturnValue();
+            if (returnValue != null) {
+                return returnValue;
+            }
+        }
+
+        Object lastResult = expressions[last].eval(context);
+        Object returnValue = context.popReturnValue();
+        return returnValue == null ? lastResult : returnValue;
+    }
+
+    /**
+     * Evaluates this script using the given {@code context}
+     * and converts the result to a double, returns zero if
+     * not possible. The result is never boxed unless it's
+     * returned by a return statement
+     *
+     * @param context The evaluation context
+     * @return The evaluation result
+     */
+    public double evalAsDouble(EvalContext context) {
+        Expression[] expressions = expressionArray;
+        double lastResult = 0;
+        for (int i = 0; i < expressions.length; i++) {
+            lastResult = expressions[i].evalAsDouble(context);
+            Object returnValue = context.popReturnValue();
+            if (returnValue != null) {
+                return toDouble(returnValue);
+            }
+        }
+        return lastResult;
+    }
+
+    /**
+     * Evaluates this script using the bindings of the engine
+     * that compiled it and converts the result to a double,
+     * returns zero if not possible
+     */
+    public double evalAsDouble() {
+        return engine.evalAsDouble(this, engine.getDefaultScope());
+    }
+
+    /**
+     * Evaluates this script using the bindings of the engine
+     * that compiled it and the variables of the given entity
+     * {@code scope}, converts the result to a double, returns
+     * zero if not possible
+     */
+    public double evalAsDouble(EntityScope scope) {
+        return engine.evalAsDouble(this, scope);
+    }
+
+    /**
+     * Evaluates this script using the bindings of the engine
+     * that compiled it and converts the result to a float,
+     * returns zero if not possible
+     */
+    public float evalAsFloat() {
+        return (float) evalAsDouble();
+    }
+
+    @Override
+    public String toString() {
+        return "Script(" + expressions + ")";
+    }
+
+    private static double toDouble(Object value) {
+        if (value instanceof Boolean) {
+            return ((Boolean) value) ? 1 : 0;
+        } else if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        } else {
+            return 0;
+        }
+    }
+
+}
@@ -0,0 +1,227 @@
+package team.unnamed.molang;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of compiled {@link Script} instances
+ * keyed by their source text, used by {@link MoLangEngine}
+ * so repeated sources aren't parsed again
+ *
+ * <p>The cache is bounded by its entry count and by the
+ * estimated amount of bytes retained by the cached scripts,
+ * the least recently used entries are evicted when any of
+ * the bounds is exceeded.</p>
+ *
+ * <p>This class is thread-safe, all the operations are
+ * synchronized on the cache instance, parsing is done by
+ * the callers, outside the lock.</p>
+ */
+public final class ScriptCache {
+
+    /**
+     * Estimated fixed amount of bytes retained by
+     * every entry: the map node, the {@link Script}
+     * and its expression list
+     */
+    private static final long ENTRY_OVERHEAD = 128;
+
+    /**
+     * Estimated amount of bytes retained by the parsed
+     * expressions for every source character, there is
+     * roughly one AST node every two characters
+     */
+    private static final long AST_BYTES_PER_CHAR = 16;
+
+    private final int maxEntries;
+    private final long maxWeight;
+
+    // access-ordered, the first entry is always the eldest
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75F, true);
+    private long weight;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public ScriptCache(int maxEntries, long maxWeight) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("maxEntries must not be negative: " + maxEntries);
+        }
+        if (maxWeight < 0) {
+            throw new IllegalArgumentException("maxWeight must not be negative: " + maxWeight);
+        }
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Returns the cached script for the given
+     * {@code source}, or null if not present
+     */
+    public synchronized Script get(String source) {
+        Entry entry = entries.get(source);
+        if (entry == null) {
+            misses++;
+            return null;
+        } else {
+            hits++;
+            return entry.script;
+        }
+    }
+
+    /**
+     * Caches the given {@code script} compiled from the given
+     * {@code source}, evicting the least recently used entries
+     * if needed. Scripts bigger than the maximum weight are
+     * never cached
+     */
+    public synchronized void put(String source, Script script) {
+        long entryWeight = weigh(source);
+        if (entryWeight > maxWeight || maxEntries == 0) {
+            return;
+        }
+
+        Entry previous = entries.put(source, new Entry(script, entryWeight));
+        if (previous != null) {
+            weight -= previous.weight;
+        }
+        weight += entryWeight;
+
+        Iterator<Entry> iterator = entries.values().iterator();
+        while ((entries.size() > maxEntries || weight > maxWeight) && iterator.hasNext()) {
+            Entry eldest = iterator.next();
+            iterator.remove();
+            weight -= eldest.weight;
+            evictions++;
+        }
+    }
+
+    /**
+     * Removes all the cached scripts, the
+     * statistics are not reset
+     */
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    /**
+     * Returns a snapshot of the current
+     * statistics of this cache
+     */
+    public synchronized Stats getStats() {
+        return new Stats(hits, misses, evictions, entries.size(), weight);
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * Estimates the amount of bytes retained by caching
+     * a script compiled from the given {@code source}
+     */
+    static long weigh(String source) {
+        // the source is retained as key (two bytes per char)
+        return ENTRY_OVERHEAD + (2 + AST_BYTES_PER_CHAR) * source.length();
+    }
+
+    private static final class Entry {
+
+        private final Script script;
+        private final long weight;
+
+        private Entry(Script script, long weight) {
+            this.script = script;
+            this.weight = weight;
+        }
+
+    }
+
+    /**
+     * Immutable snapshot of the statistics
+     * of a {@link ScriptCache}
+     */
+    public static final class Stats {
+
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final int size;
+        private final long weight;
+
+        private Stats(long hits, long misses, long evictions, int size, long weight) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.size = size;
+            this.weight = weight;
+        }
+
+        /**
+         * Returns the number of lookups that
+         * returned a cached script
+         */
+        public long getHits() {
+            return hits;
+        }
+
+        /**
+         * Returns the number of lookups that
+         * didn't find a cached script
+         */
+        public long getMisses() {
+            return misses;
+        }
+
+        /**
+         * Returns the number of entries removed
+         * to keep the cache within its bounds
+         */
+        public long getEvictions() {
+            return evictions;
+        }
+
+        /**
+         * Returns the number of cached scripts
+         */
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * Returns the estimated amount of bytes
+         * retained by the cached scripts
+         */
+        public long getWeight() {
+            return weight;
+        }
+
+        /**
+         * Returns the ratio of lookups that returned
+         * a cached script, or one if there were no
+         * lookups yet
+         */
+        public double getHitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 1D : (double) hits / requests;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats(hits=" + hits
+                    + ", misses=" + misses
+                    + ", evictions=" + evictions
+                    + ", size=" + size
+                    + ", weight=" + weight + ")";
+        }
+
+    }
+
+}
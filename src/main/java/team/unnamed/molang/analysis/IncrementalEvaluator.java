@@ -0,0 +1,195 @@
+package team.unnamed.molang.analysis;
+
+import team.unnamed.molang.EntityScope;
+import team.unnamed.molang.Script;
+import team.unnamed.molang.ast.binary.AccessExpression;
+import team.unnamed.molang.context.EvalContext;
+
+import java.util.List;
+
+/**
+ * Evaluates a script only if its inputs changed since its last
+ * evaluation for the same entity, otherwise the previous result
+ * is returned, see {@link ScriptDependencies}
+ *
+ * <p>Every entity has its own {@link State}, holding the input
+ * values and the result of the last evaluation. Scripts that
+ * aren't {@link ScriptDependencies#isCacheable() cacheable},
+ * e.g. scripts that assign variables or call random functions,
+ * are always evaluated</p>
+ *
+ * <p>Evaluators can be shared by multiple threads, states
+ * must not be used by multiple threads at the same time</p>
+ */
+public final class IncrementalEvaluator {
+
+    // the value of unset inputs
+    private static final Object UNSET = new Object();
+
+    private final Script script;
+    private final ScriptDependencies dependencies;
+    private final AccessExpression[] inputs;
+
+    public IncrementalEvaluator(Script script) {
+        this.script = script;
+        this.dependencies = ScriptDependencies.analyze(script);
+        List<AccessExpression> inputs = dependencies.getInputs();
+        this.inputs = inputs.toArray(new AccessExpression[0]);
+    }
+
+    /**
+     * Returns the evaluated script, never null
+     */
+    public Script getScript() {
+        return script;
+    }
+
+    /**
+     * Returns the inputs of the evaluated script
+     */
+    public ScriptDependencies getDependencies() {
+        return dependencies;
+    }
+
+    /**
+     * Creates the evaluation state of the given entity
+     * {@code scope}, the first evaluation using it always
+     * evaluates the script
+     */
+    public State createState(EntityScope scope) {
+        return new State(scope, script.getEngine().createContext(scope), inputs.length);
+    }
+
+    /**
+     * Evaluates the script for the entity of the given
+     * {@code state}, if any of the inputs changed since the
+     * last evaluation, otherwise the last result is returned
+     */
+    public Object eval(State state) {
+        if (!changed(state) && state.result != null) {
+            return state.result;
+        }
+        Object result = script.eval(state.scope);
+        state.result = result;
+        state.hasDouble = false;
+        return result;
+    }
+
+    /**
+     * Evaluates the script as a double for the entity of
+     * the given {@code state}, if any of the inputs changed
+     * since the last evaluation, otherwise the last result
+     * is returned
+     */
+    public double evalAsDouble(State state) {
+        if (!changed(state) && state.hasDouble) {
+            return state.doubleResult;
+        }
+        double result = script.evalAsDouble(state.scope);
+        state.doubleResult = result;
+        state.hasDouble = true;
+        state.result = null;
+        return result;
+    }
+
+    /**
+     * Reads the current input values and stores them in the
+     * given {@code state}, returns true if any of them changed
+     * or if the script isn't cacheable
+     *
+     * <p>Numbers are read and compared without boxing them,
+     * inputs are only read as objects if they weren't numbers
+     * or if they are zero, which is also the double value of
+     * unset inputs and other values. Like in scripts, a number
+     * that becomes a boolean with the same double value, e.g.
+     * 1 and true, isn't a change</p>
+     */
+    private boolean changed(State state) {
+        if (!dependencies.isCacheable()) {
+            return true;
+        }
+        boolean changed = !state.initialized;
+        double[] numbers = state.numbers;
+        Object[] objects = state.objects;
+        for (int i = 0; i < inputs.length; i++) {
+            double number = inputs[i].evalAsDouble(state.context);
+            if (number == 0 || objects[i] != null) {
+                Object value = inputs[i].eval(state.context);
+                if (value == null) {
+                    // unset inputs aren't zero, e.g. for 'variable.x ?? 1'
+                    value = UNSET;
+                }
+                if (!(value instanceof Number)) {
+                    if (!value.equals(objects[i])) {
+                        objects[i] = value;
+                        changed = true;
+                    }
+                    continue;
+                } else if (objects[i] != null) {
+                    // now a number
+                    objects[i] = null;
+                    changed = true;
+                }
+            }
+            if (Double.doubleToRawLongBits(number) != Double.doubleToRawLongBits(numbers[i])) {
+                numbers[i] = number;
+                changed = true;
+            }
+        }
+        if (changed) {
+            state.initialized = true;
+            state.result = null;
+            state.hasDouble = false;
+        }
+        return changed;
+    }
+
+    /**
+     * The inputs and last result of the evaluations
+     * of a script for a single entity
+     */
+    public static final class State {
+
+        private final EntityScope scope;
+        // used to read the inputs
+        private final EvalContext context;
+        // the input values, values that aren't numbers are
+        // stored in 'objects', which is null for numbers
+        private final double[] numbers;
+        private final Object[] objects;
+        private boolean initialized;
+
+        // null if the last evaluation wasn't
+        // an object evaluation
+        private Object result;
+        private double doubleResult;
+        private boolean hasDouble;
+
+        private State(EntityScope scope, EvalContext context, int inputs) {
+            this.scope = scope;
+            this.context = context;
+            this.numbers = new double[inputs];
+            this.objects = new Object[inputs];
+        }
+
+        /**
+         * Returns the entity scope used to
+         * evaluate the script, never null
+         */
+        public EntityScope getScope() {
+            return scope;
+        }
+
+        /**
+         * Forgets the last result, so the next
+         * evaluation evaluates the script
+         */
+        public void invalidate() {
+            initialized = false;
+            result = null;
+            hasDouble = false;
+        }
+
+    }
+
+}
@@ -0,0 +1,264 @@
+package team.unnamed.molang.analysis;
+
+import team.unnamed.molang.Script;
+import team.unnamed.molang.ast.Expression;
+import team.unnamed.molang.ast.ExpressionTransformer;
+import team.unnamed.molang.ast.binary.AccessExpression;
+import team.unnamed.molang.ast.binary.AssignExpression;
+import team.unnamed.molang.ast.composite.CallExpression;
+import team.unnamed.molang.ast.simple.DoubleExpression;
+import team.unnamed.molang.ast.simple.IdentifierExpression;
+import team.unnamed.molang.ast.simple.StringExpression;
+import team.unnamed.molang.binding.Bind;
+import team.unnamed.molang.binding.MathBinding;
+import team.unnamed.molang.context.RootLayout;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The inputs a script depends on, found by a static analysis
+ * of its expressions: the 'query' and 'variable' properties it
+ * reads and the random 'math' functions it uses
+ *
+ * <p>The analysis is conservative, scripts whose inputs can't
+ * be fully known (e.g. reads of other bindings or computed
+ * objects) or that have side effects (assignments to anything
+ * but 'temp', or calls to functions other than 'math' ones)
+ * are never {@link ScriptDependencies#isCacheable() cacheable}.
+ * 'temp' values are cleared after every evaluation, so they
+ * aren't inputs</p>
+ */
+public final class ScriptDependencies {
+
+    // resolves the aliases of the root names, e.g. 'q'
+    private static final RootLayout ROOT_NAMES = new RootLayout(Collections.emptySet());
+
+    private final Set<String> queries;
+    private final Set<String> variables;
+    private final Set<String> randomFunctions;
+    private final boolean sideEffects;
+    private final boolean unknownInputs;
+
+    // the first access of every input, by qualified name
+    private final List<AccessExpression> inputs;
+
+    private ScriptDependencies(Analyzer analyzer) {
+        this.queries = Collections.unmodifiableSet(analyzer.queries);
+        this.variables = Collections.unmodifiableSet(analyzer.variables);
+        this.randomFunctions = Collections.unmodifiableSet(analyzer.randomFunctions);
+        this.sideEffects = analyzer.sideEffects;
+        this.unknownInputs = analyzer.unknownInputs;
+        this.inputs = Collections.unmodifiableList(new ArrayList<>(analyzer.inputs.values()));
+    }
+
+    /**
+     * Analyzes the given script expressions, assuming
+     * they are evaluated with the standard 'math' binding
+     */
+    public static ScriptDependencies analyze(List<Expression> expressions) {
+        return analyze(expressions, (MathBinding) Bind.MATH_BINDING);
+    }
+
+    /**
+     * Analyzes the expressions of the given {@code script},
+     * using the 'math' binding of its engine. If it isn't a
+     * standard math binding, its properties are unknown inputs
+     */
+    public static ScriptDependencies analyze(Script script) {
+        Object math = script.getEngine().getGlobalBindings().get("math");
+        return analyze(
+                script.getExpressions(),
+                math != null && math.getClass() == MathBinding.class ? (MathBinding) math : null
+        );
+    }
+
+    private static ScriptDependencies analyze(List<Expression> expressions, MathBinding math) {
+        Analyzer analyzer = new Analyzer(math);
+        analyzer.transform(expressions);
+        return new ScriptDependencies(analyzer);
+    }
+
+    /**
+     * Returns the names of the 'query' properties
+     * read by the script, e.g. 'anim_time'
+     */
+    public Set<String> getQueries() {
+        return queries;
+    }
+
+    /**
+     * Returns the names of the 'variable'
+     * properties read by the script
+     */
+    public Set<String> getVariables() {
+        return variables;
+    }
+
+    /**
+     * Returns the names of the random 'math' functions
+     * used by the script, e.g. 'random'
+     */
+    public Set<String> getRandomFunctions() {
+        return randomFunctions;
+    }
+
+    /**
+     * Determines whether the script may have side effects,
+     * i.e. assignments to bindings other than 'temp' or
+     * calls to functions other than 'math' ones
+     */
+    public boolean hasSideEffects() {
+        return sideEffects;
+    }
+
+    /**
+     * Determines whether the script may read inputs
+     * not listed by this analysis, e.g. properties of
+     * other bindings or of computed objects
+     */
+    public boolean hasUnknownInputs() {
+        return unknownInputs;
+    }
+
+    /**
+     * Determines whether the script result only depends on the
+     * listed 'query' and 'variable' properties, so evaluating it
+     * again with the same values returns the same result
+     */
+    public boolean isCacheable() {
+        return !sideEffects && !unknownInputs && randomFunctions.isEmpty();
+    }
+
+    /**
+     * Returns the expressions reading the listed inputs,
+     * one per input, used to check whether they changed
+     */
+    List<AccessExpression> getInputs() {
+        return inputs;
+    }
+
+    @Override
+    public String toString() {
+        return "ScriptDependencies(queries=" + queries
+                + ", variables=" + variables
+                + ", randomFunctions=" + randomFunctions
+                + ", sideEffects=" + sideEffects
+                + ", unknownInputs=" + unknownInputs + ")";
+    }
+
+    /**
+     * Returns the canonical root name of the given {@code object}
+     * expression, or null if it isn't a root identifier
+     */
+    private static String rootNameOf(Expression object) {
+        if (!(object instanceof IdentifierExpression)) {
+            return null;
+        }
+        int index = ROOT_NAMES.indexOf(((IdentifierExpression) object).getIdentifier());
+        return index == -1 ? null : ROOT_NAMES.getName(index);
+    }
+
+    // walks the whole tree without changing it
+    private static final class Analyzer extends ExpressionTransformer {
+
+        // null if 'math' isn't the standard math binding
+        private final MathBinding math;
+
+        private final Set<String> queries = new LinkedHashSet<>();
+        private final Set<String> variables = new LinkedHashSet<>();
+        private final Set<String> randomFunctions = new LinkedHashSet<>();
+        private final Map<String, AccessExpression> inputs = new LinkedHashMap<>();
+        private boolean sideEffects;
+        private boolean unknownInputs;
+
+        private Analyzer(MathBinding math) {
+            this.math = math;
+        }
+
+        @Override
+        public Expression visit(Expression expression) {
+            if (!(expression instanceof DoubleExpression) && !(expression instanceof StringExpression)) {
+                // unknown expression type
+                unknownInputs = true;
+                sideEffects = true;
+            }
+            return expression;
+        }
+
+        @Override
+        public Expression visitIdentifier(IdentifierExpression expression) {
+            // a whole binding used as a value, or an unknown name
+            unknownInputs = true;
+            return expression;
+        }
+
+        @Override
+        public Expression visitAccess(AccessExpression expression) {
+            String root = rootNameOf(expression.getObject());
+            if (root == null) {
+                // e.g. 'variable.x.y', the accessed object isn't known
+                unknownInputs = true;
+                return super.visitAccess(expression);
+            }
+
+            String property = expression.getProperty();
+            switch (root) {
+                case "query":
+                    queries.add(property);
+                    inputs.putIfAbsent("query." + property, expression);
+                    break;
+                case "variable":
+                    variables.add(property);
+                    inputs.putIfAbsent("variable." + property, expression);
+                    break;
+                case "temp":
+                    // cleared after every evaluation
+                    break;
+                case "math":
+                    if (math == null) {
+                        unknownInputs = true;
+                    } else if (math.isRandom(property)) {
+                        randomFunctions.add(property);
+                    }
+                    break;
+                default:
+                    unknownInputs = true;
+                    break;
+            }
+            return expression;
+        }
+
+        @Override
+        public Expression visitAssign(AssignExpression expression) {
+            Expression variable = expression.getVariable();
+            if (!(variable instanceof AccessExpression)
+                    || !"temp".equals(rootNameOf(((AccessExpression) variable).getObject()))) {
+                sideEffects = true;
+            }
+            transform(expression.getValue());
+            return expression;
+        }
+
+        @Override
+        public Expression visitCall(CallExpression expression) {
+            Expression function = expression.getFunction();
+            if (!(function instanceof AccessExpression)
+                    || !"math".equals(rootNameOf(((AccessExpression) function).getObject()))) {
+                // host functions may have side effects
+                sideEffects = true;
+                unknownInputs = true;
+            }
+            transform(function);
+            transform(expression.getArguments());
+            return expression;
+        }
+
+    }
+
+}
@@ -1,5 +1,8 @@
 package team.unnamed.molang.ast;
 
+import team.unnamed.molang.ast.binary.InfixExpression;
+import team.unnamed.molang.ast.composite.InfixChainExpression;
+import team.unnamed.molang.ast.simple.DoubleExpression;
 import team.unnamed.molang.context.EvalContext;
 
 /**
@@ -20,20 +23,37 @@ public interface Expression {
     /**
      * Evaluates the expression using
      * the given {@code context} and
-     * trying to convert it to a float,
+     * trying to convert it to a double,
      * returns zero if not possible
+     *
+     * <p>Numeric expressions should override this
+     * method to compute their value without boxing
+     * it, {@link Expression#eval} should only be
+     * used when the result may not be a number</p>
      */
-    default float evalAsFloat(EvalContext context) {
+    default double evalAsDouble(EvalContext context) {
         Object result = eval(context);
         if (result instanceof Boolean) {
             return ((Boolean) result) ? 1 : 0;
         } else if (!(result instanceof Number)) {
             return 0;
         } else {
-            return ((Number) result).floatValue();
+            return ((Number) result).doubleValue();
         }
     }
 
+    /**
+     * Evaluates the expression using
+     * the given {@code context} and
+     * trying to convert it to a float,
+     * returns zero if not possible
+     *
+     * @see Expression#evalAsDouble
+     */
+    default float evalAsFloat(EvalContext context) {
+        return (float) evalAsDouble(context);
+    }
+
     /**
      * Evaluates the expression using the
      * given {@code context} and trying to
@@ -56,6 +76,18 @@ public interface Expression {
         }
     }
 
+    /**
+     * Accepts the given {@code visitor}, calling the
+     * visit method for this expression type
+     *
+     * @param visitor The expression visitor
+     * @param <R> The visit result type
+     * @return The visit result
+     */
+    default <R> R accept(ExpressionVisitor<R> visitor) {
+        return visitor.visit(this);
+    }
+
     /**
      * Returns the expression as source string,
      *
@@ -67,4 +99,20 @@ public interface Expression {
      */
     String toSource();
 
+    /**
+     * Determines whether the given {@code expression} is
+     * always evaluated to a number, so its value can be
+     * computed with {@link Expression#evalAsDouble} and
+     * used without boxing it
+     */
+    static boolean isNumeric(Expression expression) {
+        if (expression instanceof WrappedExpression) {
+            return isNumeric(((WrappedExpression) expression).getExpression());
+        }
+        return expression instanceof DoubleExpression
+                || expression instanceof InfixExpression
+                || expression instanceof InfixChainExpression
+                || expression instanceof NegationExpression;
+    }
+
 }
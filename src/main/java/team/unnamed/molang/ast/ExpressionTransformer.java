@@ -0,0 +1,164 @@
+package team.unnamed.molang.ast;
+
+import team.unnamed.molang.ast.binary.AccessExpression;
+import team.unnamed.molang.ast.binary.AssignExpression;
+import team.unnamed.molang.ast.binary.ConditionalExpression;
+import team.unnamed.molang.ast.binary.InfixExpression;
+import team.unnamed.molang.ast.binary.NullCoalescingExpression;
+import team.unnamed.molang.ast.composite.CallExpression;
+import team.unnamed.molang.ast.composite.ExecutionScopeExpression;
+import team.unnamed.molang.ast.composite.InfixChainExpression;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base {@link ExpressionVisitor} for passes that rewrite
+ * expression trees, it transforms the children of every
+ * expression and only creates a new expression if any of
+ * them changed, leaf expressions are returned as-is
+ *
+ * <p>Subclasses override the visit methods of the
+ * expressions they rewrite, usually calling the super
+ * method first to transform the children</p>
+ */
+public class ExpressionTransformer implements ExpressionVisitor<Expression> {
+
+    /**
+     * Transforms the given {@code expression}
+     */
+    public Expression transform(Expression expression) {
+        return expression.accept(this);
+    }
+
+    /**
+     * Transforms all the given {@code expressions}, returns
+     * the same list instance if none of them changed
+     */
+    public List<Expression> transform(List<Expression> expressions) {
+        List<Expression> transformed = null;
+        for (int i = 0; i < expressions.size(); i++) {
+            Expression expression = expressions.get(i);
+            Expression result = transform(expression);
+            if (transformed == null && result != expression) {
+                transformed = new ArrayList<>(expressions.subList(0, i));
+            }
+            if (transformed != null) {
+                transformed.add(result);
+            }
+        }
+        return transformed == null ? expressions : transformed;
+    }
+
+    @Override
+    public Expression visit(Expression expression) {
+        // leaf or unknown expression
+        return expression;
+    }
+
+    @Override
+    public Expression visitAccess(AccessExpression expression) {
+        Expression object = transform(expression.getObject());
+        return object == expression.getObject()
+                ? expression
+                : new AccessExpression(object, expression.getProperty());
+    }
+
+    @Override
+    public Expression visitAssign(AssignExpression expression) {
+        Expression variable = transform(expression.getVariable());
+        Expression value = transform(expression.getValue());
+        return variable == expression.getVariable() && value == expression.getValue()
+                ? expression
+                : new AssignExpression(variable, value);
+    }
+
+    @Override
+    public Expression visitConditional(ConditionalExpression expression) {
+        Expression condition = transform(expression.getCondition());
+        Expression predicate = transform(expression.getPredicate());
+        return condition == expression.getCondition() && predicate == expression.getPredicate()
+                ? expression
+                : new ConditionalExpression(condition, predicate);
+    }
+
+    @Override
+    public Expression visitInfix(InfixExpression expression) {
+        Expression left = transform(expression.getLeft());
+        Expression right = transform(expression.getRight());
+        return left == expression.getLeft() && right == expression.getRight()
+                ? expression
+                : InfixExpression.create(expression.getCode(), left, right);
+    }
+
+    @Override
+    public Expression visitInfixChain(InfixChainExpression expression) {
+        List<Expression> terms = transform(expression.getTerms());
+        return terms == expression.getTerms()
+                ? expression
+                : new InfixChainExpression(terms, expression.getCodes());
+    }
+
+    @Override
+    public Expression visitNullCoalescing(NullCoalescingExpression expression) {
+        Expression value = transform(expression.getValue());
+        Expression fallback = transform(expression.getFallback());
+        return value == expression.getValue() && fallback == expression.getFallback()
+                ? expression
+                : new NullCoalescingExpression(value, fallback);
+    }
+
+    @Override
+    public Expression visitCall(CallExpression expression) {
+        Expression function = transform(expression.getFunction());
+        List<Expression> arguments = transform(expression.getArguments());
+        return function == expression.getFunction() && arguments == expression.getArguments()
+                ? expression
+                : new CallExpression(function, arguments);
+    }
+
+    @Override
+    public Expression visitExecutionScope(ExecutionScopeExpression expression) {
+        List<Expression> expressions = transform(expression.getExpressions());
+        return expressions == expression.getExpressions()
+                ? expression
+                : new ExecutionScopeExpression(expressions);
+    }
+
+    @Override
+    public Expression visitNegation(NegationExpression expression) {
+        Expression negated = transform(expression.getExpression());
+        return negated == expression.getExpression()
+                ? expression
+                : new NegationExpression(negated, expression.getToken());
+    }
+
+    @Override
+    public Expression visitReturn(ReturnExpression expression) {
+        Expression value = transform(expression.getValue());
+        return value == expression.getValue()
+                ? expression
+                : new ReturnExpression(value);
+    }
+
+    @Override
+    public Expression visitTernaryConditional(TernaryConditionalExpression expression) {
+        Expression conditional = transform(expression.getConditional());
+        Expression trueExpression = transform(expression.getTrueExpression());
+        Expression falseExpression = transform(expression.getFalseExpression());
+        return conditional == expression.getConditional()
+                && trueExpression == expression.getTrueExpression()
+                && falseExpression == expression.getFalseExpression()
+                ? expression
+                : new TernaryConditionalExpression(conditional, trueExpression, falseExpression);
+    }
+
+    @Override
+    public Expression visitWrapped(WrappedExpression expression) {
+        Expression wrapped = transform(expression.getExpression());
+        return wrapped == expression.getExpression()
+                ? expression
+                : new WrappedExpression(wrapped);
+    }
+
+}
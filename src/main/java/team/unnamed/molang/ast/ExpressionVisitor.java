@@ -0,0 +1,96 @@
+package team.unnamed.molang.ast;
+
+import team.unnamed.molang.ast.binary.AccessExpression;
+import team.unnamed.molang.ast.binary.AssignExpression;
+import team.unnamed.molang.ast.binary.ConditionalExpression;
+import team.unnamed.molang.ast.binary.InfixExpression;
+import team.unnamed.molang.ast.binary.NullCoalescingExpression;
+import team.unnamed.molang.ast.composite.CallExpression;
+import team.unnamed.molang.ast.composite.ExecutionScopeExpression;
+import team.unnamed.molang.ast.composite.InfixChainExpression;
+import team.unnamed.molang.ast.simple.DoubleExpression;
+import team.unnamed.molang.ast.simple.IdentifierExpression;
+import team.unnamed.molang.ast.simple.StringExpression;
+
+/**
+ * Visitor for {@link Expression} trees, used by the
+ * passes that analyze or transform parsed scripts
+ *
+ * <p>Every specific visit method delegates to
+ * {@link ExpressionVisitor#visit} by default, so
+ * implementations only have to override the methods
+ * for the expressions they are interested in</p>
+ *
+ * @param <R> The visit result type
+ * @see Expression#accept
+ */
+public interface ExpressionVisitor<R> {
+
+    /**
+     * Visits the given {@code expression}, called for
+     * every expression whose specific visit method isn't
+     * overridden, including unknown expression types
+     */
+    R visit(Expression expression);
+
+    default R visitDouble(DoubleExpression expression) {
+        return visit(expression);
+    }
+
+    default R visitString(StringExpression expression) {
+        return visit(expression);
+    }
+
+    default R visitIdentifier(IdentifierExpression expression) {
+        return visit(expression);
+    }
+
+    default R visitAccess(AccessExpression expression) {
+        return visit(expression);
+    }
+
+    default R visitAssign(AssignExpression expression) {
+        return visit(expression);
+    }
+
+    default R visitConditional(ConditionalExpression expression) {
+        return visit(expression);
+    }
+
+    default R visitInfix(InfixExpression expression) {
+        return visit(expression);
+    }
+
+    default R visitInfixChain(InfixChainExpression expression) {
+        return visit(expression);
+    }
+
+    default R visitNullCoalescing(NullCoalescingExpression expression) {
+        return visit(expression);
+    }
+
+    default R visitCall(CallExpression expression) {
+        return visit(expression);
+    }
+
+    default R visitExecutionScope(ExecutionScopeExpression expression) {
+        return visit(expression);
+    }
+
+    default R visitNegation(NegationExpression expression) {
+        return visit(expression);
+    }
+
+    default R visitReturn(ReturnExpression expression) {
+        return visit(expression);
+    }
+
+    default R visitTernaryConditional(TernaryConditionalExpression expression) {
+        return visit(expression);
+    }
+
+    default R visitWrapped(WrappedExpression expression) {
+        return visit(expression);
+    }
+
+}
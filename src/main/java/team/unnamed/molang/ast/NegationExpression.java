@@ -27,19 +27,41 @@ public class NegationExpression
         return expression;
     }
 
+    /**
+     * Returns the negation token, {@link Tokens#HYPHEN}
+     * for numeric negation or {@link Tokens#EXCLAMATION}
+     * for boolean negation
+     */
+    public char getToken() {
+        return token;
+    }
+
     @Override
-    public float evalAsFloat(EvalContext context) {
-        return -expression.evalAsFloat(context);
+    public double evalAsDouble(EvalContext context) {
+        if (token == Tokens.EXCLAMATION) {
+            return expression.evalAsBoolean(context) ? 0 : 1;
+        } else {
+            return -expression.evalAsDouble(context);
+        }
     }
 
     @Override
     public boolean evalAsBoolean(EvalContext context) {
-        return !expression.evalAsBoolean(context);
+        if (token == Tokens.EXCLAMATION) {
+            return !expression.evalAsBoolean(context);
+        } else {
+            return expression.evalAsDouble(context) != 0;
+        }
     }
 
     @Override
     public Object eval(EvalContext context) {
-        return evalAsFloat(context);
+        return evalAsDouble(context);
+    }
+
+    @Override
+    public <R> R accept(ExpressionVisitor<R> visitor) {
+        return visitor.visitNegation(this);
     }
 
     @Override
@@ -31,6 +31,17 @@ public class ReturnExpression implements Expression {
         return 0;
     }
 
+    @Override
+    public double evalAsDouble(EvalContext context) {
+        context.setReturnValue(this.value.eval(context));
+        return 0;
+    }
+
+    @Override
+    public <R> R accept(ExpressionVisitor<R> visitor) {
+        return visitor.visitReturn(this);
+    }
+
     @Override
     public String toSource() {
         return "return " + this.value.toSource();
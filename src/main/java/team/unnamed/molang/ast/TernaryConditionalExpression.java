@@ -61,6 +61,25 @@ public class TernaryConditionalExpression implements Expression {
                 : falseExpression.eval(context);
     }
 
+    @Override
+    public double evalAsDouble(EvalContext context) {
+        return conditional.evalAsBoolean(context)
+                ? trueExpression.evalAsDouble(context)
+                : falseExpression.evalAsDouble(context);
+    }
+
+    @Override
+    public boolean evalAsBoolean(EvalContext context) {
+        return conditional.evalAsBoolean(context)
+                ? trueExpression.evalAsBoolean(context)
+                : falseExpression.evalAsBoolean(context);
+    }
+
+    @Override
+    public <R> R accept(ExpressionVisitor<R> visitor) {
+        return visitor.visitTernaryConditional(this);
+    }
+
     @Override
     public String toSource() {
         return conditional.toSource()
@@ -32,8 +32,18 @@ public class WrappedExpression implements Expression {
     }
 
     @Override
-    public float evalAsFloat(EvalContext context) {
-        return expression.evalAsFloat(context);
+    public double evalAsDouble(EvalContext context) {
+        return expression.evalAsDouble(context);
+    }
+
+    @Override
+    public boolean evalAsBoolean(EvalContext context) {
+        return expression.evalAsBoolean(context);
+    }
+
+    @Override
+    public <R> R accept(ExpressionVisitor<R> visitor) {
+        return visitor.visitWrapped(this);
     }
 
     @Override
@@ -1,19 +1,41 @@
 package team.unnamed.molang.ast.binary;
 
 import team.unnamed.molang.ast.Expression;
+import team.unnamed.molang.ast.ExpressionVisitor;
 import team.unnamed.molang.ast.Tokens;
 import team.unnamed.molang.binding.ObjectBinding;
+import team.unnamed.molang.binding.PropertyBinding;
+import team.unnamed.molang.binding.PropertyHandle;
 import team.unnamed.molang.context.EvalContext;
 
 /**
  * {@link Expression} implementation for
  * representing property accessing
+ *
+ * <p>Accesses to {@link PropertyBinding}s use an inline cache:
+ * the property handles are cached by the key of the accessed
+ * binding, so repeated evaluations don't look up the property
+ * name. Up to {@link AccessExpression#MAX_POLYMORPHISM} keys
+ * are cached, sites that access more bindings fall back to
+ * {@link ObjectBinding#getProperty}</p>
  */
 public class AccessExpression implements Expression {
 
+    /**
+     * The maximum amount of handles cached by an access site
+     */
+    static final int MAX_POLYMORPHISM = 4;
+
+    // marks sites that exceeded the maximum polymorphism
+    private static final CacheEntry MEGAMORPHIC = new CacheEntry(null, null, null, 0);
+
     private final Expression object;
     private final String property;
 
+    // null if nothing is cached yet, entries are immutable, so
+    // evaluations in other threads see complete entries
+    private CacheEntry cache;
+
     public AccessExpression(
             Expression object,
             String property
@@ -22,23 +44,107 @@ public class AccessExpression implements Expression {
         this.property = property;
     }
 
+    /**
+     * Returns the expression evaluated to the
+     * accessed object binding
+     */
+    public Expression getObject() {
+        return object;
+    }
+
+    /**
+     * Returns the name of the accessed
+     * property, never null
+     */
+    public String getProperty() {
+        return property;
+    }
+
     @Override
     public Object eval(EvalContext context) {
         Object binding = object.eval(context);
+        if (binding instanceof PropertyBinding) {
+            PropertyHandle handle = getHandle((PropertyBinding) binding);
+            if (handle != null) {
+                return handle.get((ObjectBinding) binding);
+            }
+        }
         if (binding instanceof ObjectBinding) {
             return ((ObjectBinding) binding).getProperty(property);
         }
         return null;
     }
 
+    @Override
+    public double evalAsDouble(EvalContext context) {
+        Object binding = object.eval(context);
+        if (binding instanceof PropertyBinding) {
+            PropertyHandle handle = getHandle((PropertyBinding) binding);
+            if (handle != null) {
+                // numeric handles don't box the value
+                return handle.getDouble((ObjectBinding) binding);
+            }
+        }
+        if (binding instanceof ObjectBinding) {
+            Object value = ((ObjectBinding) binding).getProperty(property);
+            if (value instanceof Boolean) {
+                return ((Boolean) value) ? 1 : 0;
+            } else if (value instanceof Number) {
+                return ((Number) value).doubleValue();
+            }
+        }
+        return 0;
+    }
+
     @Override
     public void setValue(EvalContext context, Object value) {
         Object binding = object.eval(context);
+        if (binding instanceof PropertyBinding) {
+            PropertyHandle handle = getHandle((PropertyBinding) binding);
+            if (handle != null) {
+                handle.set((ObjectBinding) binding, value);
+                return;
+            }
+        }
         if (binding instanceof ObjectBinding) {
             ((ObjectBinding) binding).setProperty(property, value);
         }
     }
 
+    /**
+     * Returns the cached handle for the property in the given
+     * {@code binding}, resolving and caching it if needed, or
+     * null if it must be accessed by name
+     */
+    private PropertyHandle getHandle(PropertyBinding binding) {
+        CacheEntry cache = this.cache;
+        if (cache == MEGAMORPHIC) {
+            return null;
+        }
+        Object key = binding.getHandleKey();
+        for (CacheEntry entry = cache; entry != null; entry = entry.next) {
+            if (entry.key == key) {
+                return entry.handle;
+            }
+        }
+
+        // miss, the handle is resolved once per key
+        PropertyHandle handle = binding.getPropertyHandle(property);
+        if (handle == null) {
+            return null;
+        }
+        int depth = cache == null ? 1 : cache.depth + 1;
+        this.cache = depth > MAX_POLYMORPHISM
+                ? MEGAMORPHIC
+                : new CacheEntry(key, handle, cache, depth);
+        return handle;
+    }
+
+    @Override
+    public <R> R accept(ExpressionVisitor<R> visitor) {
+        return visitor.visitAccess(this);
+    }
+
     @Override
     public String toSource() {
         return object.toSource() + Tokens.DOT + property;
@@ -49,4 +155,20 @@ public class AccessExpression implements Expression {
         return "Access(" + object + ", " + property + ")";
     }
 
+    private static final class CacheEntry {
+
+        private final Object key;
+        private final PropertyHandle handle;
+        private final CacheEntry next;
+        private final int depth;
+
+        private CacheEntry(Object key, PropertyHandle handle, CacheEntry next, int depth) {
+            this.key = key;
+            this.handle = handle;
+            this.next = next;
+            this.depth = depth;
+        }
+
+    }
+
 }
@@ -0,0 +1,20 @@
+package team.unnamed.molang.ast.binary;
+
+import team.unnamed.molang.ast.Expression;
+import team.unnamed.molang.context.EvalContext;
+
+/**
+ * {@link InfixExpression} implementation for additions, {@code a + b}
+ */
+public final class AddExpression extends InfixExpression {
+
+    public AddExpression(Expression left, Expression right) {
+        super(ADD, left, right);
+    }
+
+    @Override
+    public double evalAsDouble(EvalContext context) {
+        return getLeft().evalAsDouble(context) + getRight().evalAsDouble(context);
+    }
+
+}
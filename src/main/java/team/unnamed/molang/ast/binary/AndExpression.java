@@ -0,0 +1,26 @@
+package team.unnamed.molang.ast.binary;
+
+import team.unnamed.molang.ast.Expression;
+import team.unnamed.molang.context.EvalContext;
+
+/**
+ * {@link InfixExpression} implementation for logical conjunctions, {@code a && b},
+ * the right operand is only evaluated if the left one is true
+ */
+public final class AndExpression extends InfixExpression {
+
+    public AndExpression(Expression left, Expression right) {
+        super(AND, left, right);
+    }
+
+    @Override
+    public double evalAsDouble(EvalContext context) {
+        return evalAsBoolean(context) ? 1 : 0;
+    }
+
+    @Override
+    public boolean evalAsBoolean(EvalContext context) {
+        return getLeft().evalAsBoolean(context) && getRight().evalAsBoolean(context);
+    }
+
+}
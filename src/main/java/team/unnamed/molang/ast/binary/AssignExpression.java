@@ -1,6 +1,7 @@
 package team.unnamed.molang.ast.binary;
 
 import team.unnamed.molang.ast.Expression;
+import team.unnamed.molang.ast.ExpressionVisitor;
 import team.unnamed.molang.context.EvalContext;
 
 public class AssignExpression implements Expression {
@@ -8,21 +9,61 @@ public class AssignExpression implements Expression {
     private final Expression variable;
     private final Expression value;
 
+    // true if the value is always a number and can be
+    // stored without boxing it
+    private final boolean unboxed;
+
     public AssignExpression(
             Expression variable,
             Expression value
     ) {
         this.variable = variable;
         this.value = value;
+        this.unboxed = variable instanceof StorageAccessExpression
+                && Expression.isNumeric(value);
+    }
+
+    /**
+     * Returns the expression being assigned,
+     * e.g. {@code variable.x}
+     */
+    public Expression getVariable() {
+        return variable;
+    }
+
+    /**
+     * Returns the expression evaluated
+     * to the assigned value
+     */
+    public Expression getValue() {
+        return value;
     }
 
     @Override
     public Object eval(EvalContext context) {
+        if (unboxed) {
+            return evalAsDouble(context);
+        }
         Object val = value.eval(context);
         variable.setValue(context, val);
         return val;
     }
 
+    @Override
+    public double evalAsDouble(EvalContext context) {
+        if (unboxed) {
+            double val = value.evalAsDouble(context);
+            ((StorageAccessExpression) variable).setDouble(context, val);
+            return val;
+        }
+        return Expression.super.evalAsDouble(context);
+    }
+
+    @Override
+    public <R> R accept(ExpressionVisitor<R> visitor) {
+        return visitor.visitAssign(this);
+    }
+
     @Override
     public String toSource() {
         return variable.toSource() + " = " + value.toSource();
@@ -1,6 +1,7 @@
 package team.unnamed.molang.ast.binary;
 
 import team.unnamed.molang.ast.Expression;
+import team.unnamed.molang.ast.ExpressionVisitor;
 import team.unnamed.molang.context.EvalContext;
 
 /**
@@ -26,6 +27,23 @@ public class ConditionalExpression implements Expression {
         this.predicate = predicate;
     }
 
+    /**
+     * Returns the condition of this expression, if it's
+     * evaluated to {@code true}, the {@code predicate}
+     * is evaluated
+     */
+    public Expression getCondition() {
+        return condition;
+    }
+
+    /**
+     * Returns the expression evaluated when the
+     * {@code condition} is evaluated to {@code true}
+     */
+    public Expression getPredicate() {
+        return predicate;
+    }
+
     @Override
     public Object eval(EvalContext context) {
         if (condition.evalAsBoolean(context)) {
@@ -35,6 +53,18 @@ public class ConditionalExpression implements Expression {
         }
     }
 
+    @Override
+    public double evalAsDouble(EvalContext context) {
+        return condition.evalAsBoolean(context)
+                ? predicate.evalAsDouble(context)
+                : 0;
+    }
+
+    @Override
+    public <R> R accept(ExpressionVisitor<R> visitor) {
+        return visitor.visitConditional(this);
+    }
+
     @Override
     public String toSource() {
         return condition.toSource() + " ? " + predicate.toSource();
@@ -0,0 +1,23 @@
+package team.unnamed.molang.ast.binary;
+
+import team.unnamed.molang.ast.Expression;
+import team.unnamed.molang.context.EvalContext;
+
+/**
+ * {@link InfixExpression} implementation for divisions, {@code a / b},
+ * dividing by zero results in zero
+ */
+public final class DivideExpression extends InfixExpression {
+
+    public DivideExpression(Expression left, Expression right) {
+        super(DIVIDE, left, right);
+    }
+
+    @Override
+    public double evalAsDouble(EvalContext context) {
+        double dividend = getLeft().evalAsDouble(context);
+        double divisor = getRight().evalAsDouble(context);
+        return divisor == 0 ? 0 : dividend / divisor;
+    }
+
+}
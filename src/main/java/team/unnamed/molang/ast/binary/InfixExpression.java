@@ -1,13 +1,22 @@
 package team.unnamed.molang.ast.binary;
 
 import team.unnamed.molang.ast.Expression;
+import team.unnamed.molang.ast.ExpressionVisitor;
 import team.unnamed.molang.context.EvalContext;
 
 /**
  * Represents any binary expression that operates two
  * expressions, they can be arithmetic or boolean
+ *
+ * <p>Every operator has its own final subclass, e.g.
+ * {@link AddExpression}, so evaluation call sites see a
+ * single implementation per node, and logical operators
+ * short-circuit, the right operand of {@code &&} and
+ * {@code ||} is only evaluated if needed. Use
+ * {@link InfixExpression#create} to create them from
+ * an operator code</p>
  */
-public class InfixExpression implements Expression {
+public abstract class InfixExpression implements Expression {
 
     private static final String[] NAMES = {
             "And", "Or", "LessThan", "LessThanOrEqual", "GreaterThan", "GreaterThanOrEqual",
@@ -17,18 +26,6 @@ public class InfixExpression implements Expression {
             "&&", "||", "<", "<=", ">", ">=",
             "+", "-", "*", "/"
     };
-    private static final Evaluator[] EVALUATORS = {
-            bool((a, b) -> a && b),
-            bool((a, b) -> a || b),
-            compare((a, b) -> a < b),
-            compare((a, b) -> a <= b),
-            compare((a, b) -> a > b),
-            compare((a, b) -> a >= b),
-            arithmetic(Float::sum),
-            arithmetic((a, b) -> a - b),
-            arithmetic((a, b) -> a * b),
-            arithmetic((a, b) -> b == 0 ? 0 : (a / b))
-    };
 
     public static final int AND = 0;
     public static final int OR = 1;
@@ -45,7 +42,7 @@ public class InfixExpression implements Expression {
     private final Expression left;
     private final Expression right;
 
-    public InfixExpression(
+    protected InfixExpression(
             int code,
             Expression left,
             Expression right
@@ -55,49 +52,102 @@ public class InfixExpression implements Expression {
         this.right = right;
     }
 
-    @Override
-    public Object eval(EvalContext context) {
-        return EVALUATORS[code].eval(context, left, right);
+    /**
+     * Creates the expression for the given operator
+     * {@code code}, one of the constants defined in
+     * this class, e.g. {@link InfixExpression#ADD}
+     *
+     * @throws IllegalArgumentException If the code is unknown
+     */
+    public static InfixExpression create(int code, Expression left, Expression right) {
+        switch (code) {
+            case AND:
+                return new AndExpression(left, right);
+            case OR:
+                return new OrExpression(left, right);
+            case LESS_THAN:
+                return new LessThanExpression(left, right);
+            case LESS_THAN_OR_EQUAL:
+                return new LessThanOrEqualExpression(left, right);
+            case GREATER_THAN:
+                return new GreaterThanExpression(left, right);
+            case GREATER_THAN_OR_EQUAL:
+                return new GreaterThanOrEqualExpression(left, right);
+            case ADD:
+                return new AddExpression(left, right);
+            case SUBTRACT:
+                return new SubtractExpression(left, right);
+            case MULTIPLY:
+                return new MultiplyExpression(left, right);
+            case DIVIDE:
+                return new DivideExpression(left, right);
+            default:
+                throw new IllegalArgumentException("Unknown operator code: " + code);
+        }
     }
 
-    @Override
-    public String toSource() {
-        return left.toSource() + " "
-                + SYMBOLS[code]
-                + " " + right.toSource();
+    /**
+     * Returns the source symbol of the given
+     * operator {@code code}, e.g. '+'
+     */
+    public static String getSymbol(int code) {
+        return SYMBOLS[code];
     }
 
-    @Override
-    public String toString() {
-        return NAMES[code] + "(" + left + ", " + right + ")";
+    /**
+     * Returns the name of the given operator {@code code}
+     * used by {@link Object#toString()}, e.g. 'Add'
+     */
+    public static String getName(int code) {
+        return NAMES[code];
     }
 
-    private interface Evaluator {
-        Object eval(EvalContext ctx, Expression a, Expression b);
+    /**
+     * Returns the operator code of this expression,
+     * one of the constants defined in this class,
+     * e.g. {@link InfixExpression#ADD}
+     */
+    public final int getCode() {
+        return code;
     }
 
-    private static Evaluator bool(BooleanOperator op) {
-        return (ctx, a, b) -> op.operate(a.evalAsBoolean(ctx), b.evalAsBoolean(ctx)) ? 1F : 0F;
+    /**
+     * Returns the left operand, never null
+     */
+    public final Expression getLeft() {
+        return left;
     }
 
-    private static Evaluator compare(Comparator comp) {
-        return (ctx, a, b) -> comp.compare(a.evalAsFloat(ctx), b.evalAsFloat(ctx)) ? 1F : 0F;
+    /**
+     * Returns the right operand, never null
+     */
+    public final Expression getRight() {
+        return right;
     }
 
-    private static Evaluator arithmetic(ArithmeticOperator op) {
-        return (ctx, a, b) -> op.operate(a.evalAsFloat(ctx), b.evalAsFloat(ctx));
+    @Override
+    public Object eval(EvalContext context) {
+        return evalAsDouble(context);
     }
 
-    private interface BooleanOperator {
-        boolean operate(boolean a, boolean b);
+    @Override
+    public abstract double evalAsDouble(EvalContext context);
+
+    @Override
+    public <R> R accept(ExpressionVisitor<R> visitor) {
+        return visitor.visitInfix(this);
     }
 
-    private interface Comparator {
-        boolean compare(float a, float b);
+    @Override
+    public String toSource() {
+        return left.toSource() + " "
+                + SYMBOLS[code]
+                + " " + right.toSource();
     }
 
-    private interface ArithmeticOperator {
-        float operate(float a, float b);
+    @Override
+    public String toString() {
+        return NAMES[code] + "(" + left + ", " + right + ")";
     }
 
 }
@@ -0,0 +1,25 @@
+package team.unnamed.molang.ast.binary;
+
+import team.unnamed.molang.ast.Expression;
+import team.unnamed.molang.context.EvalContext;
+
+/**
+ * {@link InfixExpression} implementation for comparisons, {@code a <= b}
+ */
+public final class LessThanOrEqualExpression extends InfixExpression {
+
+    public LessThanOrEqualExpression(Expression left, Expression right) {
+        super(LESS_THAN_OR_EQUAL, left, right);
+    }
+
+    @Override
+    public double evalAsDouble(EvalContext context) {
+        return evalAsBoolean(context) ? 1 : 0;
+    }
+
+    @Override
+    public boolean evalAsBoolean(EvalContext context) {
+        return getLeft().evalAsDouble(context) <= getRight().evalAsDouble(context);
+    }
+
+}
@@ -0,0 +1,20 @@
+package team.unnamed.molang.ast.binary;
+
+import team.unnamed.molang.ast.Expression;
+import team.unnamed.molang.context.EvalContext;
+
+/**
+ * {@link InfixExpression} implementation for multiplications, {@code a * b}
+ */
+public final class MultiplyExpression extends InfixExpression {
+
+    public MultiplyExpression(Expression left, Expression right) {
+        super(MULTIPLY, left, right);
+    }
+
+    @Override
+    public double evalAsDouble(EvalContext context) {
+        return getLeft().evalAsDouble(context) * getRight().evalAsDouble(context);
+    }
+
+}
@@ -1,6 +1,7 @@
 package team.unnamed.molang.ast.binary;
 
 import team.unnamed.molang.ast.Expression;
+import team.unnamed.molang.ast.ExpressionVisitor;
 import team.unnamed.molang.context.EvalContext;
 
 /**
@@ -25,6 +26,22 @@ public class NullCoalescingExpression implements Expression {
         this.fallback = fallback;
     }
 
+    /**
+     * Returns the expression evaluated
+     * to the value to check
+     */
+    public Expression getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the expression evaluated when the
+     * {@code value} is evaluated to null
+     */
+    public Expression getFallback() {
+        return fallback;
+    }
+
     @Override
     public Object eval(EvalContext context) {
         Object val = value.eval(context);
@@ -35,6 +52,11 @@ public class NullCoalescingExpression implements Expression {
         }
     }
 
+    @Override
+    public <R> R accept(ExpressionVisitor<R> visitor) {
+        return visitor.visitNullCoalescing(this);
+    }
+
     @Override
     public String toSource() {
         return value.toSource() + " ?? "
@@ -0,0 +1,26 @@
+package team.unnamed.molang.ast.binary;
+
+import team.unnamed.molang.ast.Expression;
+import team.unnamed.molang.context.EvalContext;
+
+/**
+ * {@link InfixExpression} implementation for logical disjunctions, {@code a || b},
+ * the right operand is only evaluated if the left one is false
+ */
+public final class OrExpression extends InfixExpression {
+
+    public OrExpression(Expression left, Expression right) {
+        super(OR, left, right);
+    }
+
+    @Override
+    public double evalAsDouble(EvalContext context) {
+        return evalAsBoolean(context) ? 1 : 0;
+    }
+
+    @Override
+    public boolean evalAsBoolean(EvalContext context) {
+        return getLeft().evalAsBoolean(context) || getRight().evalAsBoolean(context);
+    }
+
+}
@@ -0,0 +1,107 @@
+package team.unnamed.molang.ast.binary;
+
+import team.unnamed.molang.ast.simple.IdentifierExpression;
+import team.unnamed.molang.binding.ObjectBinding;
+import team.unnamed.molang.binding.StorageBinding;
+import team.unnamed.molang.binding.StorageLayout;
+import team.unnamed.molang.context.EvalContext;
+
+/**
+ * {@link AccessExpression} implementation for properties of
+ * storage bindings (e.g. {@code variable.x} or {@code temp.x})
+ * whose slot was resolved when the script was linked
+ *
+ * <p>If the accessed binding is a {@link StorageBinding} using
+ * the same {@link StorageLayout}, the value is read or written
+ * by slot, without hashing the property name. Otherwise, it
+ * behaves like a normal access expression</p>
+ */
+public class StorageAccessExpression extends AccessExpression {
+
+    private final IdentifierExpression storage;
+    private final StorageLayout layout;
+    private final int slot;
+
+    public StorageAccessExpression(
+            IdentifierExpression storage,
+            String property,
+            StorageLayout layout
+    ) {
+        super(storage, property);
+        this.storage = storage;
+        this.layout = layout;
+        this.slot = layout.slotOf(property);
+    }
+
+    /**
+     * Returns the layout used to resolve
+     * the property slot
+     */
+    public StorageLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Returns the resolved property slot
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    private Object getBinding(EvalContext context) {
+        return storage.eval(context);
+    }
+
+    @Override
+    public Object eval(EvalContext context) {
+        Object binding = getBinding(context);
+        if (binding instanceof StorageBinding
+                && ((StorageBinding) binding).getLayout() == layout) {
+            return ((StorageBinding) binding).get(slot);
+        } else if (binding instanceof ObjectBinding) {
+            return ((ObjectBinding) binding).getProperty(getProperty());
+        }
+        return null;
+    }
+
+    @Override
+    public double evalAsDouble(EvalContext context) {
+        Object binding = getBinding(context);
+        if (binding instanceof StorageBinding
+                && ((StorageBinding) binding).getLayout() == layout) {
+            return ((StorageBinding) binding).getDouble(slot);
+        }
+        return super.evalAsDouble(context);
+    }
+
+    @Override
+    public void setValue(EvalContext context, Object value) {
+        Object binding = getBinding(context);
+        if (binding instanceof StorageBinding
+                && ((StorageBinding) binding).getLayout() == layout) {
+            ((StorageBinding) binding).set(slot, value);
+        } else if (binding instanceof ObjectBinding) {
+            ((ObjectBinding) binding).setProperty(getProperty(), value);
+        }
+    }
+
+    /**
+     * Sets the value of this property to the
+     * given number without boxing it, if possible
+     */
+    public void setDouble(EvalContext context, double value) {
+        Object binding = getBinding(context);
+        if (binding instanceof StorageBinding
+                && ((StorageBinding) binding).getLayout() == layout) {
+            ((StorageBinding) binding).setDouble(slot, value);
+        } else if (binding instanceof ObjectBinding) {
+            ((ObjectBinding) binding).setProperty(getProperty(), value);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "StorageAccess(" + storage + ", " + getProperty() + ", " + slot + ")";
+    }
+
+}
@@ -1,7 +1,13 @@
 package team.unnamed.molang.ast.composite;
 
 import team.unnamed.molang.ast.Expression;
+import team.unnamed.molang.ast.ExpressionVisitor;
 import team.unnamed.molang.binding.CallableBinding;
+import team.unnamed.molang.binding.DoubleFunction0;
+import team.unnamed.molang.binding.DoubleFunction1;
+import team.unnamed.molang.binding.DoubleFunction2;
+import team.unnamed.molang.binding.DoubleFunction3;
+import team.unnamed.molang.binding.DoubleFunctionN;
 import team.unnamed.molang.context.EvalContext;
 
 import java.util.Iterator;
@@ -10,6 +16,11 @@ import java.util.List;
 /**
  * Expression implementation for MoLang 1.17 function
  * call expression
+ *
+ * <p>If the called function is a primitive variant of
+ * {@link CallableBinding} with the same arity as the call
+ * (e.g. a {@link DoubleFunction1} called with one argument),
+ * it's called without boxing the arguments or the result</p>
  */
 public class CallExpression
         implements Expression {
@@ -17,9 +28,13 @@ public class CallExpression
     private final Expression function;
     private final List<Expression> arguments;
 
+    // the arguments, as an array to avoid iterators
+    private final Expression[] argumentArray;
+
     public CallExpression(Expression function, List<Expression> arguments) {
         this.function = function;
         this.arguments = arguments;
+        this.argumentArray = arguments.toArray(new Expression[0]);
     }
 
     /**
@@ -41,18 +56,109 @@ public class CallExpression
     @Override
     public Object eval(EvalContext context) {
         Object binding = function.eval(context);
+        if (isDoubleFunction(binding)) {
+            return applyDouble(binding, context);
+        }
+        return call(binding, context);
+    }
+
+    @Override
+    public double evalAsDouble(EvalContext context) {
+        Object binding = function.eval(context);
+        if (isDoubleFunction(binding)) {
+            return applyDouble(binding, context);
+        }
+
+        Object result = call(binding, context);
+        if (result instanceof Boolean) {
+            return ((Boolean) result) ? 1 : 0;
+        } else if (result instanceof Number) {
+            return ((Number) result).doubleValue();
+        } else {
+            return 0;
+        }
+    }
+
+    private Object call(Object binding, EvalContext context) {
         if (!(binding instanceof CallableBinding)) {
             // TODO: This isn't fail-fast, check this in specification
             return 0;
         }
 
-        Object[] evaluatedArguments = new Object[arguments.size()];
-        for (int i = 0; i < arguments.size(); i++) {
-            evaluatedArguments[i] = arguments.get(i).eval(context);
+        Object[] evaluatedArguments = new Object[argumentArray.length];
+        for (int i = 0; i < argumentArray.length; i++) {
+            evaluatedArguments[i] = argumentArray[i].eval(context);
         }
         return ((CallableBinding) binding).call(evaluatedArguments);
     }
 
+    /**
+     * Determines whether the given {@code binding} is a
+     * primitive function that accepts the arguments of
+     * this call
+     */
+    private boolean isDoubleFunction(Object binding) {
+        switch (argumentArray.length) {
+            case 0:
+                if (binding instanceof DoubleFunction0) return true;
+                break;
+            case 1:
+                if (binding instanceof DoubleFunction1) return true;
+                break;
+            case 2:
+                if (binding instanceof DoubleFunction2) return true;
+                break;
+            case 3:
+                if (binding instanceof DoubleFunction3) return true;
+                break;
+        }
+        return binding instanceof DoubleFunctionN;
+    }
+
+    private double applyDouble(Object binding, EvalContext context) {
+        Expression[] args = argumentArray;
+        switch (args.length) {
+            case 0:
+                if (binding instanceof DoubleFunction0) {
+                    return ((DoubleFunction0) binding).apply();
+                }
+                break;
+            case 1:
+                if (binding instanceof DoubleFunction1) {
+                    return ((DoubleFunction1) binding).apply(args[0].evalAsDouble(context));
+                }
+                break;
+            case 2:
+                if (binding instanceof DoubleFunction2) {
+                    return ((DoubleFunction2) binding).apply(
+                            args[0].evalAsDouble(context),
+                            args[1].evalAsDouble(context)
+                    );
+                }
+                break;
+            case 3:
+                if (binding instanceof DoubleFunction3) {
+                    return ((DoubleFunction3) binding).apply(
+                            args[0].evalAsDouble(context),
+                            args[1].evalAsDouble(context),
+                            args[2].evalAsDouble(context)
+                    );
+                }
+                break;
+        }
+
+        double[] values = new double[args.length];
+        for (int i = 0; i < args.length; i++) {
+            values[i] = args[i].evalAsDouble(context);
+        }
+        return ((DoubleFunctionN) binding).apply(values);
+    }
+
+    @Override
+    public <R> R accept(ExpressionVisitor<R> visitor) {
+        return visitor.visitCall(this);
+    }
+
     @Override
     public String toSource() {
         StringBuilder builder = new StringBuilder()
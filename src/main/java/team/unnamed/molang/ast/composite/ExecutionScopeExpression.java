@@ -1,6 +1,7 @@
 package team.unnamed.molang.ast.composite;
 
 import team.unnamed.molang.ast.Expression;
+import team.unnamed.molang.ast.ExpressionVisitor;
 import team.unnamed.molang.context.EvalContext;
 
 import java.util.Iterator;
@@ -33,7 +34,7 @@ public class ExecutionScopeExpression implements Expression {
     public Object eval(EvalContext context) {
         for (Expression expression : expressions) {
             // eval expression, ignore result
-            expression.eval(context);
+            expression.evalAsDouble(context);
 
             // check for return values
             Object returnValue = context.popReturnValue();
@@ -44,6 +45,11 @@ public class ExecutionScopeExpression implements Expression {
         return 0;
     }
 
+    @Override
+    public <R> R accept(ExpressionVisitor<R> visitor) {
+        return visitor.visitExecutionScope(this);
+    }
+
     @Override
     public String toSource() {
         StringBuilder builder = new StringBuilder("{");
@@ -0,0 +1,138 @@
+package team.unnamed.molang.ast.composite;
+
+import team.unnamed.molang.ast.Expression;
+import team.unnamed.molang.ast.ExpressionVisitor;
+import team.unnamed.molang.ast.binary.InfixExpression;
+import team.unnamed.molang.context.EvalContext;
+
+import java.util.List;
+
+/**
+ * Expression implementation for long chains of arithmetic
+ * operators with the same precedence, e.g. {@code a + b - c + ...}
+ *
+ * <p>The chain is evaluated from left to right, like the
+ * equivalent left-leaning tree of {@link InfixExpression}s,
+ * so results are exactly the same, but its terms are evaluated
+ * in a loop, so evaluating it doesn't use more stack with more
+ * terms</p>
+ */
+public class InfixChainExpression implements Expression {
+
+    private final List<Expression> terms;
+    private final int[] codes;
+
+    // the terms, as an array to avoid iterators
+    private final Expression[] termArray;
+
+    /**
+     * Creates a new chain, {@code codes[i - 1]} is the operator
+     * applied to the result of the previous terms and
+     * {@code terms[i]}, it must be an arithmetic operator, e.g.
+     * {@link InfixExpression#ADD}
+     *
+     * @throws IllegalArgumentException If there are less than two
+     * terms, the amount of codes isn't the amount of terms minus
+     * one or a code isn't an arithmetic operator
+     */
+    public InfixChainExpression(List<Expression> terms, int[] codes) {
+        if (terms.size() < 2 || codes.length != terms.size() - 1) {
+            throw new IllegalArgumentException("Expected at least two terms and one code per term"
+                    + " after the first, got " + terms.size() + " terms and " + codes.length + " codes");
+        }
+        for (int code : codes) {
+            if (code != InfixExpression.ADD && code != InfixExpression.SUBTRACT
+                    && code != InfixExpression.MULTIPLY && code != InfixExpression.DIVIDE) {
+                throw new IllegalArgumentException("Not an arithmetic operator code: " + code);
+            }
+        }
+        this.terms = terms;
+        this.codes = codes.clone();
+        this.termArray = terms.toArray(new Expression[0]);
+    }
+
+    /**
+     * Returns the chain terms, at least two
+     */
+    public List<Expression> getTerms() {
+        return terms;
+    }
+
+    /**
+     * Returns the operator code applied to the
+     * term at the given {@code index}, which must
+     * be greater than zero
+     */
+    public int getCode(int index) {
+        return codes[index - 1];
+    }
+
+    /**
+     * Returns a copy of the operator codes, the code
+     * at index {@code i} is applied to the term at
+     * index {@code i + 1}
+     */
+    public int[] getCodes() {
+        return codes.clone();
+    }
+
+    @Override
+    public Object eval(EvalContext context) {
+        return evalAsDouble(context);
+    }
+
+    @Override
+    public double evalAsDouble(EvalContext context) {
+        Expression[] terms = termArray;
+        double result = terms[0].evalAsDouble(context);
+        for (int i = 1; i < terms.length; i++) {
+            double value = terms[i].evalAsDouble(context);
+            switch (codes[i - 1]) {
+                case InfixExpression.ADD:
+                    result = result + value;
+                    break;
+                case InfixExpression.SUBTRACT:
+                    result = result - value;
+                    break;
+                case InfixExpression.MULTIPLY:
+                    result = result * value;
+                    break;
+                default:
+                    // like DivideExpression
+                    result = value == 0 ? 0 : result / value;
+                    break;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public <R> R accept(ExpressionVisitor<R> visitor) {
+        return visitor.visitInfixChain(this);
+    }
+
+    @Override
+    public String toSource() {
+        StringBuilder builder = new StringBuilder(termArray[0].toSource());
+        for (int i = 1; i < termArray.length; i++) {
+            builder.append(' ')
+                    .append(InfixExpression.getSymbol(codes[i - 1]))
+                    .append(' ')
+                    .append(termArray[i].toSource());
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("InfixChain(").append(termArray[0]);
+        for (int i = 1; i < termArray.length; i++) {
+            builder.append(", ")
+                    .append(InfixExpression.getName(codes[i - 1]))
+                    .append(", ")
+                    .append(termArray[i]);
+        }
+        return builder.append(')').toString();
+    }
+
+}
@@ -0,0 +1,490 @@
+package team.unnamed.molang.ast.composite;
+
+import team.unnamed.molang.ast.Expression;
+import team.unnamed.molang.ast.binary.AccessExpression;
+import team.unnamed.molang.binding.FastMath;
+import team.unnamed.molang.binding.MathBinding;
+import team.unnamed.molang.context.EvalContext;
+
+/**
+ * Intrinsic call expressions for the functions of the standard
+ * {@link MathBinding}, created by the linker for calls like
+ * {@code math.cos(x)}, they compute their result directly on
+ * doubles, without looking up the function
+ *
+ * <p>If the binding is in fast-math mode, intrinsics for the
+ * approximated functions use {@link FastMath}</p>
+ *
+ * <p>Intrinsics are only used while the 'math' binding of the
+ * evaluation context is the binding they were linked with, if
+ * it's rebound, they behave like a normal call expression</p>
+ */
+public final class MathIntrinsics {
+
+    private MathIntrinsics() {
+    }
+
+    /**
+     * Creates the intrinsic for the given call to a function of
+     * the given {@code math} binding, returns null if there is no
+     * intrinsic for it, or if the arguments don't match
+     *
+     * @param call The call expression, e.g. {@code math.cos(x)}
+     * @param math The 'math' binding used when linking, it must
+     *             be a standard {@link MathBinding}
+     * @return The intrinsic call expression, or null
+     */
+    public static CallExpression create(CallExpression call, MathBinding math) {
+        if (!(call.getFunction() instanceof AccessExpression)) {
+            return null;
+        }
+        String name = ((AccessExpression) call.getFunction()).getProperty();
+        int arity = call.getArguments().size();
+        switch (name) {
+            case "abs":
+                return arity == 1 ? new Abs(call, math) : null;
+            case "acos":
+                return arity == 1 ? new Acos(call, math) : null;
+            case "asin":
+                return arity == 1 ? new Asin(call, math) : null;
+            case "atan":
+                if (arity != 1) return null;
+                return math.isFastMath() ? new FastAtan(call, math) : new Atan(call, math);
+            case "atan2":
+                if (arity != 2) return null;
+                return math.isFastMath() ? new FastAtan2(call, math) : new Atan2(call, math);
+            case "ceil":
+                return arity == 1 ? new Ceil(call, math) : null;
+            case "clamp":
+                return arity == 3 ? new Clamp(call, math) : null;
+            case "cos":
+                if (arity != 1) return null;
+                return math.isFastMath() ? new FastCos(call, math) : new Cos(call, math);
+            case "exp":
+                if (arity != 1) return null;
+                return math.isFastMath() ? new FastExp(call, math) : new Exp(call, math);
+            case "floor":
+                return arity == 1 ? new Floor(call, math) : null;
+            case "lerprotate":
+                return arity == 3 ? new LerpRotate(call, math) : null;
+            case "ln":
+                return arity == 1 ? new Ln(call, math) : null;
+            case "max":
+                return arity == 2 ? new Max(call, math) : null;
+            case "min":
+                return arity == 2 ? new Min(call, math) : null;
+            case "mod":
+                return arity == 2 ? new Mod(call, math) : null;
+            case "pow":
+                if (arity != 2) return null;
+                return math.isFastMath() ? new FastPow(call, math) : new Pow(call, math);
+            case "round":
+                return arity == 1 ? new Round(call, math) : null;
+            case "sin":
+                if (arity != 1) return null;
+                return math.isFastMath() ? new FastSin(call, math) : new Sin(call, math);
+            case "sqrt":
+                return arity == 1 ? new Sqrt(call, math) : null;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Base class for intrinsic calls, it checks that the
+     * 'math' binding is the linked one before computing
+     * the result directly
+     */
+    public abstract static class Intrinsic extends CallExpression {
+
+        private final MathBinding math;
+        // the 'math' identifier, resolved by the linker
+        private final Expression binding;
+        protected final Expression[] args;
+
+        protected Intrinsic(CallExpression call, MathBinding math) {
+            super(call.getFunction(), call.getArguments());
+            this.math = math;
+            this.binding = ((AccessExpression) call.getFunction()).getObject();
+            this.args = call.getArguments().toArray(new Expression[0]);
+        }
+
+        /**
+         * Computes the result of the function
+         * using the given {@code context}
+         */
+        protected abstract double compute(EvalContext context);
+
+        @Override
+        public Object eval(EvalContext context) {
+            if (binding.eval(context) == math) {
+                return compute(context);
+            }
+            return super.eval(context);
+        }
+
+        @Override
+        public double evalAsDouble(EvalContext context) {
+            if (binding.eval(context) == math) {
+                return compute(context);
+            }
+            return super.evalAsDouble(context);
+        }
+
+    }
+
+    public static final class Abs extends Intrinsic {
+
+        private Abs(CallExpression call, MathBinding math) {
+            super(call, math);
+        }
+
+        @Override
+        protected double compute(EvalContext context) {
+            return Math.abs(args[0].evalAsDouble(context));
+        }
+
+    }
+
+    public static final class Acos extends Intrinsic {
+
+        private Acos(CallExpression call, MathBinding math) {
+            super(call, math);
+        }
+
+        @Override
+        protected double compute(EvalContext context) {
+            return MathBinding.acos(args[0].evalAsDouble(context));
+        }
+
+    }
+
+    public static final class Asin extends Intrinsic {
+
+        private Asin(CallExpression call, MathBinding math) {
+            super(call, math);
+        }
+
+        @Override
+        protected double compute(EvalContext context) {
+            return MathBinding.asin(args[0].evalAsDouble(context));
+        }
+
+    }
+
+    public static final class Atan extends Intrinsic {
+
+        private Atan(CallExpression call, MathBinding math) {
+            super(call, math);
+        }
+
+        @Override
+        protected double compute(EvalContext context) {
+            return MathBinding.atan(args[0].evalAsDouble(context));
+        }
+
+    }
+
+    public static final class Atan2 extends Intrinsic {
+
+        private Atan2(CallExpression call, MathBinding math) {
+            super(call, math);
+        }
+
+        @Override
+        protected double compute(EvalContext context) {
+            return MathBinding.atan2(
+                    args[0].evalAsDouble(context),
+                    args[1].evalAsDouble(context)
+            );
+        }
+
+    }
+
+    public static final class Ceil extends Intrinsic {
+
+        private Ceil(CallExpression call, MathBinding math) {
+            super(call, math);
+        }
+
+        @Override
+        protected double compute(EvalContext context) {
+            return Math.ceil(args[0].evalAsDouble(context));
+        }
+
+    }
+
+    public static final class Clamp extends Intrinsic {
+
+        private Clamp(CallExpression call, MathBinding math) {
+            super(call, math);
+        }
+
+        @Override
+        protected double compute(EvalContext context) {
+            return MathBinding.clamp(
+                    args[0].evalAsDouble(context),
+                    args[1].evalAsDouble(context),
+                    args[2].evalAsDouble(context)
+            );
+        }
+
+    }
+
+    public static final class Cos extends Intrinsic {
+
+        private Cos(CallExpression call, MathBinding math) {
+            super(call, math);
+        }
+
+        @Override
+        protected double compute(EvalContext context) {
+            return MathBinding.cos(args[0].evalAsDouble(context));
+        }
+
+    }
+
+    public static final class Exp extends Intrinsic {
+
+        private Exp(CallExpression call, MathBinding math) {
+            super(call, math);
+        }
+
+        @Override
+        protected double compute(EvalContext context) {
+            return Math.exp(args[0].evalAsDouble(context));
+        }
+
+    }
+
+    public static final class Floor extends Intrinsic {
+
+        private Floor(CallExpression call, MathBinding math) {
+            super(call, math);
+        }
+
+        @Override
+        protected double compute(EvalContext context) {
+            return Math.floor(args[0].evalAsDouble(context));
+        }
+
+    }
+
+    public static final class LerpRotate extends Intrinsic {
+
+        private LerpRotate(CallExpression call, MathBinding math) {
+            super(call, math);
+        }
+
+        @Override
+        protected double compute(EvalContext context) {
+            return MathBinding.lerpRotate(
+                    args[0].evalAsDouble(context),
+                    args[1].evalAsDouble(context),
+                    args[2].evalAsDouble(context)
+            );
+        }
+
+    }
+
+    public static final class Ln extends Intrinsic {
+
+        private Ln(CallExpression call, MathBinding math) {
+            super(call, math);
+        }
+
+        @Override
+        protected double compute(EvalContext context) {
+            return Math.log(args[0].evalAsDouble(context));
+        }
+
+    }
+
+    public static final class Max extends Intrinsic {
+
+        private Max(CallExpression call, MathBinding math) {
+            super(call, math);
+        }
+
+        @Override
+        protected double compute(EvalContext context) {
+            return Math.max(
+                    args[0].evalAsDouble(context),
+                    args[1].evalAsDouble(context)
+            );
+        }
+
+    }
+
+    public static final class Min extends Intrinsic {
+
+        private Min(CallExpression call, MathBinding math) {
+            super(call, math);
+        }
+
+        @Override
+        protected double compute(EvalContext context) {
+            return Math.min(
+                    args[0].evalAsDouble(context),
+                    args[1].evalAsDouble(context)
+            );
+        }
+
+    }
+
+    public static final class Mod extends Intrinsic {
+
+        private Mod(CallExpression call, MathBinding math) {
+            super(call, math);
+        }
+
+        @Override
+        protected double compute(EvalContext context) {
+            return MathBinding.mod(
+                    args[0].evalAsDouble(context),
+                    args[1].evalAsDouble(context)
+            );
+        }
+
+    }
+
+    public static final class Pow extends Intrinsic {
+
+        private Pow(CallExpression call, MathBinding math) {
+            super(call, math);
+        }
+
+        @Override
+        protected double compute(EvalContext context) {
+            return Math.pow(
+                    args[0].evalAsDouble(context),
+                    args[1].evalAsDouble(context)
+            );
+        }
+
+    }
+
+    public static final class Round extends Intrinsic {
+
+        private Round(CallExpression call, MathBinding math) {
+            super(call, math);
+        }
+
+        @Override
+        protected double compute(EvalContext context) {
+            return MathBinding.round(args[0].evalAsDouble(context));
+        }
+
+    }
+
+    public static final class Sin extends Intrinsic {
+
+        private Sin(CallExpression call, MathBinding math) {
+            super(call, math);
+        }
+
+        @Override
+        protected double compute(EvalContext context) {
+            return MathBinding.sin(args[0].evalAsDouble(context));
+        }
+
+    }
+
+    public static final class Sqrt extends Intrinsic {
+
+        private Sqrt(CallExpression call, MathBinding math) {
+            super(call, math);
+        }
+
+        @Override
+        protected double compute(EvalContext context) {
+            return Math.sqrt(args[0].evalAsDouble(context));
+        }
+
+    }
+
+    public static final class FastAtan extends Intrinsic {
+
+        private FastAtan(CallExpression call, MathBinding math) {
+            super(call, math);
+        }
+
+        @Override
+        protected double compute(EvalContext context) {
+            return FastMath.atan(args[0].evalAsDouble(context));
+        }
+
+    }
+
+    public static final class FastAtan2 extends Intrinsic {
+
+        private FastAtan2(CallExpression call, MathBinding math) {
+            super(call, math);
+        }
+
+        @Override
+        protected double compute(EvalContext context) {
+            return FastMath.atan2(
+                    args[0].evalAsDouble(context),
+                    args[1].evalAsDouble(context)
+            );
+        }
+
+    }
+
+    public static final class FastCos extends Intrinsic {
+
+        private FastCos(CallExpression call, MathBinding math) {
+            super(call, math);
+        }
+
+        @Override
+        protected double compute(EvalContext context) {
+            return FastMath.cos(args[0].evalAsDouble(context));
+        }
+
+    }
+
+    public static final class FastExp extends Intrinsic {
+
+        private FastExp(CallExpression call, MathBinding math) {
+            super(call, math);
+        }
+
+        @Override
+        protected double compute(EvalContext context) {
+            return FastMath.exp(args[0].evalAsDouble(context));
+        }
+
+    }
+
+    public static final class FastPow extends Intrinsic {
+
+        private FastPow(CallExpression call, MathBinding math) {
+            super(call, math);
+        }
+
+        @Override
+        protected double compute(EvalContext context) {
+            return FastMath.pow(
+                    args[0].evalAsDouble(context),
+                    args[1].evalAsDouble(context)
+            );
+        }
+
+    }
+
+    public static final class FastSin extends Intrinsic {
+
+        private FastSin(CallExpression call, MathBinding math) {
+            super(call, math);
+        }
+
+        @Override
+        protected double compute(EvalContext context) {
+            return FastMath.sin(args[0].evalAsDouble(context));
+        }
+
+    }
+
+}
@@ -1,6 +1,7 @@
 package team.unnamed.molang.ast.simple;
 
 import team.unnamed.molang.ast.Expression;
+import team.unnamed.molang.ast.ExpressionVisitor;
 import team.unnamed.molang.context.EvalContext;
 
 /**
@@ -34,6 +35,11 @@ public class IdentifierExpression implements Expression {
         return context.getBinding(identifier);
     }
 
+    @Override
+    public <R> R accept(ExpressionVisitor<R> visitor) {
+        return visitor.visitIdentifier(this);
+    }
+
     @Override
     public String toSource() {
         return identifier;
@@ -0,0 +1,55 @@
+package team.unnamed.molang.ast.simple;
+
+import team.unnamed.molang.context.EvalContext;
+import team.unnamed.molang.context.RootLayout;
+
+/**
+ * {@link IdentifierExpression} implementation for root names
+ * (e.g. {@code query} or its alias {@code q}) whose index was
+ * resolved when the script was linked
+ *
+ * <p>The identifier is always the canonical name, never an
+ * alias. If the evaluation context uses the same
+ * {@link RootLayout}, the value is read by index, without
+ * hashing the name. Otherwise, it's looked up by name</p>
+ */
+public class RootIdentifierExpression extends IdentifierExpression {
+
+    private final RootLayout layout;
+    private final int index;
+
+    public RootIdentifierExpression(RootLayout layout, int index) {
+        super(layout.getName(index));
+        this.layout = layout;
+        this.index = index;
+    }
+
+    /**
+     * Returns the layout used to resolve
+     * the identifier index
+     */
+    public RootLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Returns the resolved identifier index
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    @Override
+    public Object eval(EvalContext context) {
+        if (context.getLayout() == layout) {
+            return context.getBinding(index);
+        }
+        return context.getBinding(getIdentifier());
+    }
+
+    @Override
+    public String toString() {
+        return "RootIdentifier(" + getIdentifier() + ", " + index + ")";
+    }
+
+}
@@ -1,6 +1,7 @@
 package team.unnamed.molang.ast.simple;
 
 import team.unnamed.molang.ast.Expression;
+import team.unnamed.molang.ast.ExpressionVisitor;
 import team.unnamed.molang.ast.Tokens;
 import team.unnamed.molang.context.EvalContext;
 
@@ -34,6 +35,17 @@ public class StringExpression implements Expression {
         return value;
     }
 
+    @Override
+    public double evalAsDouble(EvalContext context) {
+        // strings aren't numbers
+        return 0;
+    }
+
+    @Override
+    public <R> R accept(ExpressionVisitor<R> visitor) {
+        return visitor.visitString(this);
+    }
+
     @Override
     public String toSource() {
         return Tokens.QUOTE + escapeQuotes(value) + Tokens.QUOTE;
@@ -0,0 +1,108 @@
+package team.unnamed.molang.batch;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Columnar input data for a {@link BatchEvaluator}, every row
+ * is an entity and every column holds the values of a query
+ * or variable property for all the entities
+ *
+ * <p>Variable columns are also written, if a script assigns
+ * a variable, the assigned value is stored in its column.
+ * Columns only hold numbers, non-numeric values are stored
+ * as their numeric value</p>
+ */
+public final class Batch {
+
+    private final int size;
+    private final Map<String, double[]> queries = new HashMap<>();
+    private final Map<String, double[]> variables = new HashMap<>();
+
+    /**
+     * Creates a new empty batch
+     *
+     * @param size The amount of rows (entities)
+     */
+    public Batch(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Negative batch size: " + size);
+        }
+        this.size = size;
+    }
+
+    /**
+     * Returns the amount of rows of this batch
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Sets the column with the values of the given
+     * query property, e.g. {@code anim_time} for
+     * {@code query.anim_time}
+     *
+     * @param name The query property name
+     * @param column The values, one per row
+     */
+    public Batch withQuery(String name, double[] column) {
+        queries.put(name.toLowerCase(), checkColumn(name, column));
+        return this;
+    }
+
+    /**
+     * Sets the column with the values of the given
+     * variable, e.g. {@code speed} for {@code variable.speed},
+     * the column is written if the script assigns the variable
+     *
+     * @param name The variable name
+     * @param column The values, one per row
+     */
+    public Batch withVariable(String name, double[] column) {
+        variables.put(name.toLowerCase(), checkColumn(name, column));
+        return this;
+    }
+
+    /**
+     * Returns the column of the given query
+     * property, or null if not set
+     */
+    public double[] getQuery(String name) {
+        return queries.get(name);
+    }
+
+    /**
+     * Returns the column of the given
+     * variable, or null if not set
+     */
+    public double[] getVariable(String name) {
+        return variables.get(name);
+    }
+
+    /**
+     * Returns the query columns by property
+     * name, the returned map is unmodifiable
+     */
+    public Map<String, double[]> getQueries() {
+        return Collections.unmodifiableMap(queries);
+    }
+
+    /**
+     * Returns the variable columns by name,
+     * the returned map is unmodifiable
+     */
+    public Map<String, double[]> getVariables() {
+        return Collections.unmodifiableMap(variables);
+    }
+
+    private double[] checkColumn(String name, double[] column) {
+        if (column.length < size) {
+            throw new IllegalArgumentException("Column '" + name + "' has "
+                    + column.length + " values, expected " + size);
+        }
+        return column;
+    }
+
+}
@@ -0,0 +1,584 @@
+package team.unnamed.molang.batch;
+
+import team.unnamed.molang.Script;
+import team.unnamed.molang.ast.Expression;
+import team.unnamed.molang.ast.ExpressionTransformer;
+import team.unnamed.molang.ast.NegationExpression;
+import team.unnamed.molang.ast.ReturnExpression;
+import team.unnamed.molang.ast.TernaryConditionalExpression;
+import team.unnamed.molang.ast.Tokens;
+import team.unnamed.molang.ast.WrappedExpression;
+import team.unnamed.molang.ast.binary.AccessExpression;
+import team.unnamed.molang.ast.binary.AssignExpression;
+import team.unnamed.molang.ast.binary.ConditionalExpression;
+import team.unnamed.molang.ast.binary.InfixExpression;
+import team.unnamed.molang.ast.composite.InfixChainExpression;
+import team.unnamed.molang.ast.binary.NullCoalescingExpression;
+import team.unnamed.molang.ast.composite.CallExpression;
+import team.unnamed.molang.ast.simple.DoubleExpression;
+import team.unnamed.molang.ast.simple.IdentifierExpression;
+import team.unnamed.molang.ast.simple.StringExpression;
+import team.unnamed.molang.binding.CallableBinding;
+import team.unnamed.molang.binding.MathBinding;
+import team.unnamed.molang.context.EvalContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Evaluates a {@link Script} for many entities at once, the
+ * entity data is given as columns (see {@link Batch}) and the
+ * results are written to a {@code double[]}, one per row
+ *
+ * <p>Expressions are compiled to kernels that evaluate all the
+ * rows of a chunk at once, so the expression type is dispatched
+ * once per chunk instead of once per row and the inner loops
+ * are simple enough to be vectorized by the JIT. Expressions
+ * that kernels can't evaluate (e.g. queries without a column)
+ * are interpreted row by row</p>
+ *
+ * <p>Scripts that can't be split in kernels (e.g. scripts that
+ * assign values inside conditionals, read variables without a
+ * column or use strings) are interpreted row by row, using the
+ * columns as the query and variable bindings. The results are
+ * always the same as evaluating the script once per entity</p>
+ *
+ * <p>Batch evaluation is numeric, non-numeric values assigned
+ * to 'temp' or column values are converted to numbers</p>
+ */
+public final class BatchEvaluator {
+
+    private final Script script;
+
+    public BatchEvaluator(Script script) {
+        this.script = script;
+    }
+
+    /**
+     * Returns the evaluated script, never null
+     */
+    public Script getScript() {
+        return script;
+    }
+
+    /**
+     * Evaluates the script for all the rows
+     * of the given {@code batch}
+     *
+     * @param batch The input data
+     * @return The results, one per row
+     */
+    public double[] evaluate(Batch batch) {
+        double[] output = new double[batch.getSize()];
+        evaluate(batch, output);
+        return output;
+    }
+
+    /**
+     * Evaluates the script for all the rows of the given
+     * {@code batch}, writes the results to {@code output}
+     *
+     * @param batch The input data
+     * @param output The results, one per row
+     */
+    public void evaluate(Batch batch, double[] output) {
+        evaluate(batch, 0, batch.getSize(), output);
+    }
+
+    /**
+     * Evaluates the script for the rows of the given {@code batch}
+     * from {@code from} (inclusive) to {@code to} (exclusive), the
+     * results are written to the same indexes of {@code output}
+     *
+     * @param batch The input data
+     * @param from The first evaluated row
+     * @param to The last evaluated row, exclusive
+     * @param output The results, one per row
+     */
+    public void evaluate(Batch batch, int from, int to, double[] output) {
+        if (from < 0 || to > batch.getSize() || from > to) {
+            throw new IndexOutOfBoundsException("Invalid range [" + from + ", " + to
+                    + ") for a batch of size " + batch.getSize());
+        }
+        if (output.length < to) {
+            throw new IllegalArgumentException("Output has " + output.length
+                    + " values, expected at least " + to);
+        }
+        Plan plan = plan(batch);
+        plan.evaluate(plan.createFrame(), from, to, output);
+    }
+
+    /**
+     * Compiles the script to kernels for the
+     * given {@code batch} columns
+     */
+    Plan plan(Batch batch) {
+        Map<String, Object> globals = script.getEngine().getGlobalBindings();
+        List<Expression> expressions = script.getExpressions();
+
+        if (!new Analyzer(batch).analyze(expressions)) {
+            return new Plan(script, batch, globals, null, 0, new HashMap<>());
+        }
+
+        Planner planner = new Planner(batch, globals);
+        Kernel[] statements = planner.plan(expressions);
+        return new Plan(script, batch, globals, statements, planner.registers, planner.temps);
+    }
+
+    /**
+     * A script compiled for a batch, it can be
+     * used by multiple threads, with a frame each
+     */
+    static final class Plan {
+
+        private final Script script;
+        private final Batch batch;
+        private final Map<String, Object> globals;
+
+        // null if the script is interpreted row by row
+        private final Kernel[] statements;
+        private final int registers;
+        private final Map<String, Integer> temps;
+
+        private Plan(
+                Script script,
+                Batch batch,
+                Map<String, Object> globals,
+                Kernel[] statements,
+                int registers,
+                Map<String, Integer> temps
+        ) {
+            this.script = script;
+            this.batch = batch;
+            this.globals = globals;
+            this.statements = statements;
+            this.registers = registers;
+            this.temps = temps;
+        }
+
+        Frame createFrame() {
+            // the statement result uses an extra register
+            return new Frame(batch, script.getEngine().getRootLayout(), globals, registers + 1, temps);
+        }
+
+        void evaluate(Frame frame, int from, int to, double[] output) {
+            double[] result = frame.register(registers);
+            for (int offset = from; offset < to; offset += Frame.CHUNK_SIZE) {
+                int length = Math.min(Frame.CHUNK_SIZE, to - offset);
+                frame.setChunk(offset, length);
+
+                if (statements == null) {
+                    for (int row = 0; row < length; row++) {
+                        frame.clearRow();
+                        EvalContext context = frame.moveTo(row);
+                        result[row] = script.evalAsDouble(context);
+                    }
+                } else {
+                    for (Kernel statement : statements) {
+                        statement.eval(frame, result);
+                    }
+                }
+                System.arraycopy(result, 0, output, offset, length);
+            }
+        }
+
+    }
+
+    /**
+     * Determines whether a script can be split in kernels,
+     * i.e. every statement is evaluated for all the rows
+     * before the next one without changing the results
+     */
+    private static final class Analyzer extends ExpressionTransformer {
+
+        private final Batch batch;
+
+        // 'temp' properties assigned by previous statements,
+        // reading others would give null, not a number
+        private final Set<String> assigned = new HashSet<>();
+        private boolean supported = true;
+
+        private Analyzer(Batch batch) {
+            this.batch = batch;
+        }
+
+        private boolean analyze(List<Expression> statements) {
+            for (Expression statement : statements) {
+                if (statement instanceof ReturnExpression) {
+                    transform(((ReturnExpression) statement).getValue());
+                    // next statements are unreachable
+                    break;
+                } else if (statement instanceof AssignExpression) {
+                    AssignExpression assign = (AssignExpression) statement;
+                    transform(assign.getValue());
+                    analyzeTarget(assign.getVariable());
+                } else {
+                    transform(statement);
+                }
+            }
+            return supported;
+        }
+
+        private void analyzeTarget(Expression variable) {
+            String storage = getStorage(variable);
+            String property = storage == null ? null : ((AccessExpression) variable).getProperty();
+            if ("temp".equals(storage)) {
+                assigned.add(property);
+            } else if (!"variable".equals(storage) || batch.getVariable(property) == null) {
+                supported = false;
+            }
+        }
+
+        @Override
+        public Expression visitAccess(AccessExpression expression) {
+            String storage = getStorage(expression);
+            if ("temp".equals(storage)) {
+                supported &= assigned.contains(expression.getProperty());
+            } else if ("variable".equals(storage)) {
+                supported &= batch.getVariable(expression.getProperty()) != null;
+            }
+            return super.visitAccess(expression);
+        }
+
+        @Override
+        public Expression visitAssign(AssignExpression expression) {
+            // nested assignments may not be executed for every row
+            supported = false;
+            return expression;
+        }
+
+        @Override
+        public Expression visitReturn(ReturnExpression expression) {
+            // nested returns skip the next statements for some rows
+            supported = false;
+            return expression;
+        }
+
+        @Override
+        public Expression visitString(StringExpression expression) {
+            supported = false;
+            return expression;
+        }
+
+    }
+
+    /**
+     * Compiles expressions to kernels, registers are assigned
+     * like a stack: a kernel reserves its registers while its
+     * operands are planned and releases them after
+     */
+    private static final class Planner {
+
+        private final Batch batch;
+        private final Map<String, Object> globals;
+        private final Map<String, Integer> temps = new HashMap<>();
+
+        private int top;
+        private int registers;
+
+        // the amount of interpreted kernels
+        private int interpreted;
+
+        private Planner(Batch batch, Map<String, Object> globals) {
+            this.batch = batch;
+            this.globals = globals;
+        }
+
+        private Kernel[] plan(List<Expression> expressions) {
+            List<Kernel> statements = new ArrayList<>();
+            for (Expression expression : expressions) {
+                if (expression instanceof ReturnExpression) {
+                    statements.add(planDouble(((ReturnExpression) expression).getValue()));
+                    // next statements are unreachable
+                    break;
+                } else if (expression instanceof AssignExpression) {
+                    statements.add(planAssign((AssignExpression) expression));
+                } else {
+                    statements.add(planDouble(expression));
+                }
+            }
+            return statements.toArray(new Kernel[0]);
+        }
+
+        private Kernel planAssign(AssignExpression assign) {
+            AccessExpression variable = (AccessExpression) assign.getVariable();
+            Kernel value = planDouble(assign.getValue());
+            if ("temp".equals(getStorage(variable))) {
+                Integer slot = temps.computeIfAbsent(variable.getProperty(), k -> temps.size());
+                return new Kernels.StoreTemp(value, slot);
+            } else {
+                return new Kernels.StoreColumn(value, batch.getVariable(variable.getProperty()));
+            }
+        }
+
+        /**
+         * Plans a kernel that writes the value of the given
+         * {@code expression} as a double, like {@link Expression#evalAsDouble}
+         */
+        private Kernel planDouble(Expression expression) {
+            if (expression instanceof DoubleExpression) {
+                return new Kernels.Constant(((DoubleExpression) expression).getValue());
+            } else if (expression instanceof WrappedExpression) {
+                return planDouble(((WrappedExpression) expression).getExpression());
+            } else if (expression instanceof NegationExpression) {
+                NegationExpression negation = (NegationExpression) expression;
+                if (negation.getToken() == Tokens.EXCLAMATION) {
+                    return new Kernels.Not(planBoolean(negation.getExpression()));
+                } else {
+                    return new Kernels.Negate(planDouble(negation.getExpression()));
+                }
+            } else if (expression instanceof InfixExpression) {
+                return planInfix((InfixExpression) expression);
+            } else if (expression instanceof InfixChainExpression) {
+                return planChain((InfixChainExpression) expression);
+            } else if (expression instanceof TernaryConditionalExpression) {
+                TernaryConditionalExpression ternary = (TernaryConditionalExpression) expression;
+                return planSelect(
+                        ternary,
+                        ternary.getConditional(),
+                        ternary.getTrueExpression(),
+                        ternary.getFalseExpression(),
+                        false
+                );
+            } else if (expression instanceof ConditionalExpression) {
+                ConditionalExpression conditional = (ConditionalExpression) expression;
+                return planSelect(
+                        conditional,
+                        conditional.getCondition(),
+                        conditional.getPredicate(),
+                        null,
+                        false
+                );
+            } else if (expression instanceof NullCoalescingExpression) {
+                // columns and assigned temps are never null
+                Expression value = ((NullCoalescingExpression) expression).getValue();
+                Kernel kernel = value instanceof AccessExpression
+                        ? planAccess((AccessExpression) value)
+                        : null;
+                return kernel == null ? interpret(expression, false) : kernel;
+            } else if (expression instanceof AccessExpression) {
+                Kernel kernel = planAccess((AccessExpression) expression);
+                return kernel == null ? interpret(expression, false) : kernel;
+            } else if (expression instanceof CallExpression) {
+                Kernel kernel = planCall((CallExpression) expression);
+                return kernel == null ? interpret(expression, false) : kernel;
+            } else {
+                return interpret(expression, false);
+            }
+        }
+
+        /**
+         * Plans a kernel that writes the value of the given {@code
+         * expression} as a boolean, like {@link Expression#evalAsBoolean}
+         */
+        private Kernel planBoolean(Expression expression) {
+            if (expression instanceof DoubleExpression) {
+                return new Kernels.Constant(((DoubleExpression) expression).getValue() == 0 ? 0 : 1);
+            } else if (expression instanceof WrappedExpression) {
+                return planBoolean(((WrappedExpression) expression).getExpression());
+            } else if (expression instanceof NegationExpression) {
+                NegationExpression negation = (NegationExpression) expression;
+                if (negation.getToken() == Tokens.EXCLAMATION) {
+                    return new Kernels.Not(planBoolean(negation.getExpression()));
+                } else {
+                    return planDouble(negation);
+                }
+            } else if (expression instanceof InfixExpression) {
+                return planInfix((InfixExpression) expression);
+            } else if (expression instanceof TernaryConditionalExpression) {
+                TernaryConditionalExpression ternary = (TernaryConditionalExpression) expression;
+                return planSelect(
+                        ternary,
+                        ternary.getConditional(),
+                        ternary.getTrueExpression(),
+                        ternary.getFalseExpression(),
+                        true
+                );
+            } else if (expression instanceof InfixChainExpression) {
+                return new Kernels.Truth(planChain((InfixChainExpression) expression));
+            } else if (expression instanceof AccessExpression
+                    || expression instanceof CallExpression) {
+                // evaluated to a number, converted like the interpreter does
+                Kernel kernel = planDouble(expression);
+                return kernel instanceof Kernels.Interpreted
+                        ? interpret(expression, true)
+                        : new Kernels.Truth(kernel);
+            } else {
+                return interpret(expression, true);
+            }
+        }
+
+        private Kernel planInfix(InfixExpression infix) {
+            int code = infix.getCode();
+            boolean logical = code == InfixExpression.AND || code == InfixExpression.OR;
+
+            // both operands are evaluated for every row, the right operand
+            // of logical operators is interpreted if it may have side
+            // effects, since the interpreter only evaluates it if needed
+            int register = allocate(1);
+            Kernel left = logical ? planBoolean(infix.getLeft()) : planDouble(infix.getLeft());
+            int interpretedBefore = interpreted;
+            Kernel right = logical ? planBoolean(infix.getRight()) : planDouble(infix.getRight());
+            release(1);
+
+            if (logical && interpreted != interpretedBefore) {
+                return interpret(infix, true);
+            }
+            return new Kernels.Infix(code, left, right, register);
+        }
+
+        private Kernel planChain(InfixChainExpression chain) {
+            // every term is evaluated for every row, like the interpreter does
+            List<Expression> terms = chain.getTerms();
+            int register = allocate(1);
+            Kernel[] kernels = new Kernel[terms.size()];
+            for (int i = 0; i < kernels.length; i++) {
+                kernels[i] = planDouble(terms.get(i));
+            }
+            release(1);
+            return new Kernels.Chain(chain.getCodes(), kernels, register);
+        }
+
+        /**
+         * Plans a ternary or binary conditional, both branches are
+         * evaluated for every row, so they are interpreted if any
+         * of them is interpreted, it could have side effects
+         */
+        private Kernel planSelect(
+                Expression expression,
+                Expression condition,
+                Expression whenTrue,
+                Expression whenFalse,
+                boolean asBoolean
+        ) {
+            int register = allocate(2);
+            Kernel conditionKernel = planBoolean(condition);
+            int interpretedBefore = interpreted;
+            Kernel trueKernel = asBoolean ? planBoolean(whenTrue) : planDouble(whenTrue);
+            Kernel falseKernel;
+            if (whenFalse == null) {
+                falseKernel = new Kernels.Constant(0);
+            } else {
+                falseKernel = asBoolean ? planBoolean(whenFalse) : planDouble(whenFalse);
+            }
+            release(2);
+
+            if (interpreted != interpretedBefore) {
+                return interpret(expression, asBoolean);
+            }
+            return new Kernels.Select(conditionKernel, trueKernel, falseKernel, register, register + 1);
+        }
+
+        /**
+         * Plans the given property access, returns
+         * null if there isn't a kernel for it
+         */
+        private Kernel planAccess(AccessExpression access) {
+            if (!(access.getObject() instanceof IdentifierExpression)) {
+                return null;
+            }
+
+            String property = access.getProperty();
+            switch (((IdentifierExpression) access.getObject()).getIdentifier()) {
+                case "temp": {
+                    Integer slot = temps.get(property);
+                    return slot == null ? null : new Kernels.Temp(slot);
+                }
+                case "variable": {
+                    double[] column = batch.getVariable(property);
+                    return column == null ? null : new Kernels.Column(column);
+                }
+                case "query": {
+                    double[] column = batch.getQuery(property);
+                    return column == null ? null : new Kernels.Column(column);
+                }
+                case "math": {
+                    MathBinding math = getMath();
+                    if (math != null && math.isPure(property)) {
+                        Object value = math.getProperty(property);
+                        if (value instanceof Number) {
+                            return new Kernels.Constant(((Number) value).doubleValue());
+                        }
+                    }
+                    return null;
+                }
+                default:
+                    return null;
+            }
+        }
+
+        /**
+         * Plans the given call, returns null if there isn't
+         * a kernel for it, only pure math functions have
+         */
+        private Kernel planCall(CallExpression call) {
+            if (!(call.getFunction() instanceof AccessExpression)) {
+                return null;
+            }
+            AccessExpression function = (AccessExpression) call.getFunction();
+            MathBinding math = getMath();
+            if (math == null
+                    || !(function.getObject() instanceof IdentifierExpression)
+                    || !((IdentifierExpression) function.getObject()).getIdentifier().equals("math")
+                    || !math.isPure(function.getProperty())) {
+                return null;
+            }
+
+            Object binding = math.getProperty(function.getProperty());
+            if (!(binding instanceof CallableBinding)) {
+                return null;
+            }
+
+            List<Expression> arguments = call.getArguments();
+            int register = allocate(arguments.size());
+            Kernel[] kernels = new Kernel[arguments.size()];
+            int[] registers = new int[arguments.size()];
+            for (int i = 0; i < kernels.length; i++) {
+                kernels[i] = planDouble(arguments.get(i));
+                registers[i] = register + i;
+            }
+            release(arguments.size());
+            return new Kernels.Call((CallableBinding) binding, kernels, registers);
+        }
+
+        private Kernel interpret(Expression expression, boolean asBoolean) {
+            interpreted++;
+            return new Kernels.Interpreted(expression, asBoolean);
+        }
+
+        private MathBinding getMath() {
+            Object math = globals.get("math");
+            return math instanceof MathBinding ? (MathBinding) math : null;
+        }
+
+        private int allocate(int count) {
+            int register = top;
+            top += count;
+            registers = Math.max(registers, top);
+            return register;
+        }
+
+        private void release(int count) {
+            top -= count;
+        }
+
+    }
+
+    /**
+     * Returns the name of the root binding accessed by the
+     * given expression (e.g. 'temp' for {@code temp.x}), or
+     * null if it isn't a root binding access
+     */
+    private static String getStorage(Expression expression) {
+        if (expression instanceof AccessExpression
+                && ((AccessExpression) expression).getObject() instanceof IdentifierExpression) {
+            return ((IdentifierExpression) ((AccessExpression) expression).getObject()).getIdentifier();
+        }
+        return null;
+    }
+
+}
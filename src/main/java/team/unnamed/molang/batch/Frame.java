@@ -0,0 +1,144 @@
+package team.unnamed.molang.batch;
+
+import team.unnamed.molang.binding.ObjectBinding;
+import team.unnamed.molang.binding.StorageBinding;
+import team.unnamed.molang.context.EvalContext;
+import team.unnamed.molang.context.RootLayout;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The state of a batch evaluation, it holds the registers
+ * used by kernels to store intermediate results and the
+ * 'temp' values of the rows in the current chunk
+ *
+ * <p>Rows are evaluated in chunks of {@link Frame#CHUNK_SIZE}
+ * rows, so the registers stay in the CPU cache. A frame must
+ * only be used by one thread</p>
+ */
+final class Frame {
+
+    /**
+     * The maximum amount of rows in a chunk
+     */
+    static final int CHUNK_SIZE = 256;
+
+    private final Batch batch;
+    private final RootLayout layout;
+    private final Map<String, Object> globals;
+    private final Map<String, Integer> tempSlots;
+    private final double[][] registers;
+    private final double[][] temps;
+
+    // first row and amount of rows of the current chunk
+    private int offset;
+    private int length;
+
+    // used to interpret expressions row by row, lazily created
+    private EvalContext context;
+    private RowBinding queryRow;
+    private RowBinding variableRow;
+    private RowBinding tempRow;
+    private StorageBinding variableStorage;
+    private StorageBinding tempStorage;
+
+    Frame(
+            Batch batch,
+            RootLayout layout,
+            Map<String, Object> globals,
+            int registers,
+            Map<String, Integer> tempSlots
+    ) {
+        this.batch = batch;
+        this.layout = layout;
+        this.globals = globals;
+        this.tempSlots = tempSlots;
+        this.registers = new double[registers][CHUNK_SIZE];
+        this.temps = new double[tempSlots.size()][CHUNK_SIZE];
+    }
+
+    Batch getBatch() {
+        return batch;
+    }
+
+    /**
+     * Returns the index of the first
+     * row of the current chunk
+     */
+    int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Returns the amount of rows
+     * of the current chunk
+     */
+    int getLength() {
+        return length;
+    }
+
+    void setChunk(int offset, int length) {
+        this.offset = offset;
+        this.length = length;
+    }
+
+    double[] register(int index) {
+        return registers[index];
+    }
+
+    double[] temp(int index) {
+        return temps[index];
+    }
+
+    /**
+     * Returns a context to interpret expressions for
+     * the given row of the current chunk
+     *
+     * @param row The row index, relative to the chunk
+     */
+    EvalContext moveTo(int row) {
+        if (context == null) {
+            createContext();
+        }
+        queryRow.setRow(offset + row);
+        variableRow.setRow(offset + row);
+        tempRow.setRow(row);
+        return context;
+    }
+
+    /**
+     * Clears the 'temp' values and the variables
+     * without column set by the previous row
+     */
+    void clearRow() {
+        if (context != null) {
+            variableStorage.clear();
+            tempStorage.clear();
+        }
+    }
+
+    private void createContext() {
+        Object query = globals.get("query");
+        variableStorage = new StorageBinding();
+        tempStorage = new StorageBinding();
+
+        Map<String, double[]> tempColumns = new HashMap<>();
+        tempSlots.forEach((name, slot) -> tempColumns.put(name, temps[slot]));
+
+        queryRow = new RowBinding(
+                batch.getQueries(),
+                query instanceof ObjectBinding ? (ObjectBinding) query : null,
+                false
+        );
+        variableRow = new RowBinding(batch.getVariables(), variableStorage, true);
+        tempRow = new RowBinding(tempColumns, tempStorage, true);
+
+        Object[] values = layout.createValues(globals);
+        values[RootLayout.QUERY] = queryRow;
+        values[RootLayout.VARIABLE] = variableRow;
+        values[RootLayout.TEMP] = tempRow;
+        context = new EvalContext(layout, values);
+    }
+
+}
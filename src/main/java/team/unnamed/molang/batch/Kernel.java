@@ -0,0 +1,21 @@
+package team.unnamed.molang.batch;
+
+/**
+ * An expression compiled for batch evaluation, it evaluates
+ * its expression for all the rows of a chunk at once, so the
+ * expression type is dispatched once per chunk instead of
+ * once per row
+ */
+interface Kernel {
+
+    /**
+     * Evaluates this kernel for the rows of the current
+     * chunk of the given {@code frame}
+     *
+     * @param frame The evaluation frame
+     * @param out The array where the results are written,
+     *            one per row, starting at index zero
+     */
+    void eval(Frame frame, double[] out);
+
+}
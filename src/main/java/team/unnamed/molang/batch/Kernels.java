@@ -0,0 +1,442 @@
+package team.unnamed.molang.batch;
+
+import team.unnamed.molang.ast.Expression;
+import team.unnamed.molang.ast.binary.InfixExpression;
+import team.unnamed.molang.binding.CallableBinding;
+import team.unnamed.molang.binding.DoubleFunction1;
+import team.unnamed.molang.binding.DoubleFunction2;
+import team.unnamed.molang.binding.DoubleFunction3;
+import team.unnamed.molang.context.EvalContext;
+
+import java.util.Arrays;
+
+/**
+ * The {@link Kernel} implementations, every kernel writes its
+ * results to the given output array, intermediate results are
+ * written to the frame registers assigned when planning
+ *
+ * <p>Boolean kernels write one for true and zero for false,
+ * kernels reading booleans consider any non-zero value true</p>
+ */
+final class Kernels {
+
+    private Kernels() {
+    }
+
+    static final class Constant implements Kernel {
+
+        private final double value;
+
+        Constant(double value) {
+            this.value = value;
+        }
+
+        @Override
+        public void eval(Frame frame, double[] out) {
+            Arrays.fill(out, 0, frame.getLength(), value);
+        }
+
+    }
+
+    /**
+     * Reads a query or variable column
+     */
+    static final class Column implements Kernel {
+
+        private final double[] column;
+
+        Column(double[] column) {
+            this.column = column;
+        }
+
+        @Override
+        public void eval(Frame frame, double[] out) {
+            System.arraycopy(column, frame.getOffset(), out, 0, frame.getLength());
+        }
+
+    }
+
+    /**
+     * Reads a 'temp' value
+     */
+    static final class Temp implements Kernel {
+
+        private final int slot;
+
+        Temp(int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public void eval(Frame frame, double[] out) {
+            System.arraycopy(frame.temp(slot), 0, out, 0, frame.getLength());
+        }
+
+    }
+
+    static final class StoreTemp implements Kernel {
+
+        private final Kernel value;
+        private final int slot;
+
+        StoreTemp(Kernel value, int slot) {
+            this.value = value;
+            this.slot = slot;
+        }
+
+        @Override
+        public void eval(Frame frame, double[] out) {
+            value.eval(frame, out);
+            System.arraycopy(out, 0, frame.temp(slot), 0, frame.getLength());
+        }
+
+    }
+
+    static final class StoreColumn implements Kernel {
+
+        private final Kernel value;
+        private final double[] column;
+
+        StoreColumn(Kernel value, double[] column) {
+            this.value = value;
+            this.column = column;
+        }
+
+        @Override
+        public void eval(Frame frame, double[] out) {
+            value.eval(frame, out);
+            System.arraycopy(out, 0, column, frame.getOffset(), frame.getLength());
+        }
+
+    }
+
+    static final class Negate implements Kernel {
+
+        private final Kernel operand;
+
+        Negate(Kernel operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        public void eval(Frame frame, double[] out) {
+            operand.eval(frame, out);
+            for (int i = 0, length = frame.getLength(); i < length; i++) {
+                out[i] = -out[i];
+            }
+        }
+
+    }
+
+    static final class Not implements Kernel {
+
+        private final Kernel operand;
+
+        Not(Kernel operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        public void eval(Frame frame, double[] out) {
+            operand.eval(frame, out);
+            for (int i = 0, length = frame.getLength(); i < length; i++) {
+                out[i] = out[i] != 0 ? 0 : 1;
+            }
+        }
+
+    }
+
+    /**
+     * Converts numbers to booleans like the interpreter does
+     * for values, after converting them to floats
+     */
+    static final class Truth implements Kernel {
+
+        private final Kernel operand;
+
+        Truth(Kernel operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        public void eval(Frame frame, double[] out) {
+            operand.eval(frame, out);
+            for (int i = 0, length = frame.getLength(); i < length; i++) {
+                out[i] = (float) out[i] != 0 ? 1 : 0;
+            }
+        }
+
+    }
+
+    /**
+     * Evaluates an arithmetic chain from left to right, the
+     * result is accumulated in the output and every term is
+     * written to the same register
+     */
+    static final class Chain implements Kernel {
+
+        private final int[] codes;
+        private final Kernel[] terms;
+        private final int register;
+
+        Chain(int[] codes, Kernel[] terms, int register) {
+            this.codes = codes;
+            this.terms = terms;
+            this.register = register;
+        }
+
+        @Override
+        public void eval(Frame frame, double[] out) {
+            double[] term = frame.register(register);
+            int length = frame.getLength();
+            terms[0].eval(frame, out);
+            for (int t = 1; t < terms.length; t++) {
+                terms[t].eval(frame, term);
+                switch (codes[t - 1]) {
+                    case InfixExpression.ADD:
+                        for (int i = 0; i < length; i++) {
+                            out[i] = out[i] + term[i];
+                        }
+                        break;
+                    case InfixExpression.SUBTRACT:
+                        for (int i = 0; i < length; i++) {
+                            out[i] = out[i] - term[i];
+                        }
+                        break;
+                    case InfixExpression.MULTIPLY:
+                        for (int i = 0; i < length; i++) {
+                            out[i] = out[i] * term[i];
+                        }
+                        break;
+                    case InfixExpression.DIVIDE:
+                        for (int i = 0; i < length; i++) {
+                            out[i] = term[i] == 0 ? 0 : out[i] / term[i];
+                        }
+                        break;
+                    default:
+                        throw new IllegalStateException("Unknown operator code: " + codes[t - 1]);
+                }
+            }
+        }
+
+    }
+
+    static final class Infix implements Kernel {
+
+        private final int code;
+        private final Kernel left;
+        private final Kernel right;
+        private final int register;
+
+        Infix(int code, Kernel left, Kernel right, int register) {
+            this.code = code;
+            this.left = left;
+            this.right = right;
+            this.register = register;
+        }
+
+        @Override
+        public void eval(Frame frame, double[] out) {
+            double[] a = frame.register(register);
+            left.eval(frame, a);
+            right.eval(frame, out);
+
+            int length = frame.getLength();
+            switch (code) {
+                case InfixExpression.AND:
+                    for (int i = 0; i < length; i++) {
+                        out[i] = a[i] != 0 && out[i] != 0 ? 1 : 0;
+                    }
+                    break;
+                case InfixExpression.OR:
+                    for (int i = 0; i < length; i++) {
+                        out[i] = a[i] != 0 || out[i] != 0 ? 1 : 0;
+                    }
+                    break;
+                case InfixExpression.LESS_THAN:
+                    for (int i = 0; i < length; i++) {
+                        out[i] = a[i] < out[i] ? 1 : 0;
+                    }
+                    break;
+                case InfixExpression.LESS_THAN_OR_EQUAL:
+                    for (int i = 0; i < length; i++) {
+                        out[i] = a[i] <= out[i] ? 1 : 0;
+                    }
+                    break;
+                case InfixExpression.GREATER_THAN:
+                    for (int i = 0; i < length; i++) {
+                        out[i] = a[i] > out[i] ? 1 : 0;
+                    }
+                    break;
+                case InfixExpression.GREATER_THAN_OR_EQUAL:
+                    for (int i = 0; i < length; i++) {
+                        out[i] = a[i] >= out[i] ? 1 : 0;
+                    }
+                    break;
+                case InfixExpression.ADD:
+                    for (int i = 0; i < length; i++) {
+                        out[i] = a[i] + out[i];
+                    }
+                    break;
+                case InfixExpression.SUBTRACT:
+                    for (int i = 0; i < length; i++) {
+                        out[i] = a[i] - out[i];
+                    }
+                    break;
+                case InfixExpression.MULTIPLY:
+                    for (int i = 0; i < length; i++) {
+                        out[i] = a[i] * out[i];
+                    }
+                    break;
+                case InfixExpression.DIVIDE:
+                    for (int i = 0; i < length; i++) {
+                        out[i] = out[i] == 0 ? 0 : a[i] / out[i];
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown operator code: " + code);
+            }
+        }
+
+    }
+
+    /**
+     * Evaluates both branches for every row and selects
+     * one of them, so branches must not have side effects
+     */
+    static final class Select implements Kernel {
+
+        private final Kernel condition;
+        private final Kernel whenTrue;
+        private final Kernel whenFalse;
+        private final int conditionRegister;
+        private final int trueRegister;
+
+        Select(
+                Kernel condition,
+                Kernel whenTrue,
+                Kernel whenFalse,
+                int conditionRegister,
+                int trueRegister
+        ) {
+            this.condition = condition;
+            this.whenTrue = whenTrue;
+            this.whenFalse = whenFalse;
+            this.conditionRegister = conditionRegister;
+            this.trueRegister = trueRegister;
+        }
+
+        @Override
+        public void eval(Frame frame, double[] out) {
+            double[] c = frame.register(conditionRegister);
+            double[] t = frame.register(trueRegister);
+            condition.eval(frame, c);
+            whenTrue.eval(frame, t);
+            whenFalse.eval(frame, out);
+            for (int i = 0, length = frame.getLength(); i < length; i++) {
+                if (c[i] != 0) {
+                    out[i] = t[i];
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Calls a pure function, the function is resolved once,
+     * when planning, primitive functions are called without
+     * boxing the arguments
+     */
+    static final class Call implements Kernel {
+
+        private final CallableBinding function;
+        private final Kernel[] arguments;
+        private final int[] registers;
+
+        Call(CallableBinding function, Kernel[] arguments, int[] registers) {
+            this.function = function;
+            this.arguments = arguments;
+            this.registers = registers;
+        }
+
+        @Override
+        public void eval(Frame frame, double[] out) {
+            double[][] values = new double[arguments.length][];
+            for (int i = 0; i < arguments.length; i++) {
+                values[i] = frame.register(registers[i]);
+                arguments[i].eval(frame, values[i]);
+            }
+
+            int length = frame.getLength();
+            if (arguments.length == 1 && function instanceof DoubleFunction1) {
+                DoubleFunction1 f = (DoubleFunction1) function;
+                double[] a = values[0];
+                for (int row = 0; row < length; row++) {
+                    out[row] = f.apply(a[row]);
+                }
+            } else if (arguments.length == 2 && function instanceof DoubleFunction2) {
+                DoubleFunction2 f = (DoubleFunction2) function;
+                double[] a = values[0];
+                double[] b = values[1];
+                for (int row = 0; row < length; row++) {
+                    out[row] = f.apply(a[row], b[row]);
+                }
+            } else if (arguments.length == 3 && function instanceof DoubleFunction3) {
+                DoubleFunction3 f = (DoubleFunction3) function;
+                double[] a = values[0];
+                double[] b = values[1];
+                double[] c = values[2];
+                for (int row = 0; row < length; row++) {
+                    out[row] = f.apply(a[row], b[row], c[row]);
+                }
+            } else {
+                Object[] args = new Object[arguments.length];
+                for (int row = 0; row < length; row++) {
+                    for (int i = 0; i < args.length; i++) {
+                        args[i] = values[i][row];
+                    }
+                    out[row] = toDouble(function.call(args));
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Evaluates an expression using the interpreter, one
+     * row at a time, used for the expressions that can't
+     * be evaluated by other kernels
+     */
+    static final class Interpreted implements Kernel {
+
+        private final Expression expression;
+        private final boolean asBoolean;
+
+        Interpreted(Expression expression, boolean asBoolean) {
+            this.expression = expression;
+            this.asBoolean = asBoolean;
+        }
+
+        @Override
+        public void eval(Frame frame, double[] out) {
+            for (int row = 0, length = frame.getLength(); row < length; row++) {
+                EvalContext context = frame.moveTo(row);
+                out[row] = asBoolean
+                        ? (expression.evalAsBoolean(context) ? 1 : 0)
+                        : expression.evalAsDouble(context);
+            }
+        }
+
+    }
+
+    private static double toDouble(Object value) {
+        if (value instanceof Boolean) {
+            return ((Boolean) value) ? 1 : 0;
+        } else if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        } else {
+            return 0;
+        }
+    }
+
+}
@@ -0,0 +1,180 @@
+package team.unnamed.molang.batch;
+
+import team.unnamed.molang.Script;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Evaluates a {@link Script} for the rows of a {@link Batch}
+ * using multiple threads, the rows are split in tasks that are
+ * evaluated like a {@link BatchEvaluator} does
+ *
+ * <p>Rows are independent and every task writes its own rows,
+ * so the results are exactly the same as the results of a
+ * single-threaded evaluation, except for scripts using random
+ * functions (e.g. {@code math.random}), every thread has its
+ * own random number stream. Task sizes are multiples of
+ * {@link ParallelBatchEvaluator#CACHE_LINE_DOUBLES}, so
+ * tasks don't write to the same cache lines, except at
+ * most one at each boundary if the arrays aren't aligned</p>
+ *
+ * <p>Non-column bindings used by the script (e.g. query
+ * functions) are called from multiple threads, so they
+ * must be thread-safe</p>
+ */
+public final class ParallelBatchEvaluator {
+
+    /**
+     * The amount of doubles in a cache line, assuming
+     * 64-byte cache lines
+     */
+    public static final int CACHE_LINE_DOUBLES = 8;
+
+    /**
+     * The default amount of rows evaluated by a task
+     */
+    public static final int DEFAULT_TASK_SIZE = 4096;
+
+    private final BatchEvaluator evaluator;
+    private final Executor executor;
+    private final int taskSize;
+
+    /**
+     * Creates a new parallel evaluator for the given {@code script},
+     * tasks are executed by the common fork/join pool
+     */
+    public ParallelBatchEvaluator(Script script) {
+        this(script, ForkJoinPool.commonPool(), DEFAULT_TASK_SIZE);
+    }
+
+    /**
+     * Creates a new parallel evaluator for the given {@code script}
+     *
+     * @param script The evaluated script
+     * @param executor The executor used to run the tasks, if it's a
+     *                 {@link ForkJoinPool}, tasks are forked and joined
+     * @param taskSize The amount of rows evaluated by a task, rounded
+     *                 up to a multiple of {@link ParallelBatchEvaluator#CACHE_LINE_DOUBLES}
+     */
+    public ParallelBatchEvaluator(Script script, Executor executor, int taskSize) {
+        if (taskSize <= 0) {
+            throw new IllegalArgumentException("Task size must be positive: " + taskSize);
+        }
+        this.evaluator = new BatchEvaluator(script);
+        this.executor = executor;
+        this.taskSize = (taskSize + CACHE_LINE_DOUBLES - 1) / CACHE_LINE_DOUBLES * CACHE_LINE_DOUBLES;
+    }
+
+    /**
+     * Returns the evaluated script, never null
+     */
+    public Script getScript() {
+        return evaluator.getScript();
+    }
+
+    /**
+     * Returns the amount of rows evaluated by
+     * a task, a multiple of the cache line size
+     */
+    public int getTaskSize() {
+        return taskSize;
+    }
+
+    /**
+     * Evaluates the script for all the rows
+     * of the given {@code batch}
+     *
+     * @param batch The input data
+     * @return The results, one per row
+     */
+    public double[] evaluate(Batch batch) {
+        double[] output = new double[batch.getSize()];
+        evaluate(batch, output);
+        return output;
+    }
+
+    /**
+     * Evaluates the script for all the rows of the given
+     * {@code batch}, writes the results to {@code output}
+     *
+     * @param batch The input data
+     * @param output The results, one per row
+     */
+    public void evaluate(Batch batch, double[] output) {
+        int size = batch.getSize();
+        if (output.length < size) {
+            throw new IllegalArgumentException("Output has " + output.length
+                    + " values, expected at least " + size);
+        }
+
+        BatchEvaluator.Plan plan = evaluator.plan(batch);
+        if (size <= taskSize) {
+            // not worth splitting
+            plan.evaluate(plan.createFrame(), 0, size, output);
+        } else if (executor instanceof ForkJoinPool) {
+            ((ForkJoinPool) executor).invoke(new EvaluateTask(plan, 0, size, output));
+        } else {
+            int tasks = (size + taskSize - 1) / taskSize;
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[tasks];
+            for (int i = 0; i < tasks; i++) {
+                int from = i * taskSize;
+                int to = Math.min(from + taskSize, size);
+                futures[i] = CompletableFuture.runAsync(
+                        () -> plan.evaluate(plan.createFrame(), from, to, output),
+                        executor
+                );
+            }
+            try {
+                CompletableFuture.allOf(futures).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Evaluates a range of rows, splitting it in halves
+     * until it isn't larger than the task size
+     */
+    private final class EvaluateTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final BatchEvaluator.Plan plan;
+        private final int from;
+        private final int to;
+        private final double[] output;
+
+        private EvaluateTask(BatchEvaluator.Plan plan, int from, int to, double[] output) {
+            this.plan = plan;
+            this.from = from;
+            this.to = to;
+            this.output = output;
+        }
+
+        @Override
+        protected void compute() {
+            int tasks = (to - from + taskSize - 1) / taskSize;
+            if (tasks <= 1) {
+                plan.evaluate(plan.createFrame(), from, to, output);
+                return;
+            }
+
+            // split at a task boundary, so every task is aligned
+            int middle = from + tasks / 2 * taskSize;
+            invokeAll(
+                    new EvaluateTask(plan, from, middle, output),
+                    new EvaluateTask(plan, middle, to, output)
+            );
+        }
+
+    }
+
+}
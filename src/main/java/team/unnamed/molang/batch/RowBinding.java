@@ -0,0 +1,71 @@
+package team.unnamed.molang.batch;
+
+import team.unnamed.molang.binding.ObjectBinding;
+
+import java.util.Map;
+
+/**
+ * Object binding that exposes the values of a single row
+ * of a set of columns, used to evaluate the expressions
+ * that can't be evaluated by kernels, one row at a time
+ *
+ * <p>Properties without a column are taken from the
+ * delegate binding, if any</p>
+ */
+final class RowBinding implements ObjectBinding {
+
+    private final Map<String, double[]> columns;
+    private final ObjectBinding delegate;
+    private final boolean writeable;
+
+    private int row;
+
+    RowBinding(Map<String, double[]> columns, ObjectBinding delegate, boolean writeable) {
+        this.columns = columns;
+        this.delegate = delegate;
+        this.writeable = writeable;
+    }
+
+    /**
+     * Sets the index of the row exposed
+     * by this binding
+     */
+    void setRow(int row) {
+        this.row = row;
+    }
+
+    @Override
+    public Object getProperty(String name) {
+        double[] column = columns.get(name);
+        if (column != null) {
+            return column[row];
+        } else if (delegate != null) {
+            return delegate.getProperty(name);
+        } else {
+            return null;
+        }
+    }
+
+    @Override
+    public void setProperty(String name, Object value) {
+        double[] column = columns.get(name);
+        if (column != null) {
+            if (writeable) {
+                column[row] = toDouble(value);
+            }
+        } else if (delegate != null) {
+            delegate.setProperty(name, value);
+        }
+    }
+
+    private static double toDouble(Object value) {
+        if (value instanceof Boolean) {
+            return ((Boolean) value) ? 1 : 0;
+        } else if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        } else {
+            return 0;
+        }
+    }
+
+}
@@ -0,0 +1,42 @@
+package team.unnamed.molang.binding;
+
+/**
+ * Converts the arguments given to {@link CallableBinding#call}
+ * to the primitive arguments of the double function variants
+ */
+final class Arguments {
+
+    private Arguments() {
+    }
+
+    /**
+     * Returns the argument at the given {@code index} as
+     * a double, zero if missing or if it isn't a number
+     */
+    static double get(Object[] arguments, int index) {
+        if (index >= arguments.length) {
+            // not fail-fast
+            return 0;
+        }
+        Object argument = arguments[index];
+        if (argument instanceof Number) {
+            return ((Number) argument).doubleValue();
+        } else if (argument instanceof Boolean) {
+            return ((Boolean) argument) ? 1 : 0;
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * Converts all the given arguments to doubles
+     */
+    static double[] getAll(Object[] arguments) {
+        double[] values = new double[arguments.length];
+        for (int i = 0; i < arguments.length; i++) {
+            values[i] = get(arguments, i);
+        }
+        return values;
+    }
+
+}
@@ -13,6 +13,13 @@ public final class Bind {
      */
     public static final ObjectBinding MATH_BINDING = new MathBinding();
 
+    /**
+     * Default bindings for math, using fast
+     * approximations for some functions
+     * @see FastMath
+     */
+    public static final ObjectBinding FAST_MATH_BINDING = new MathBinding(true);
+
     /**
      * Default bindings for queries
      * @see QueryBinding
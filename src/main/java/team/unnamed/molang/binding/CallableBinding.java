@@ -5,6 +5,11 @@ package team.unnamed.molang.binding;
  * called like functions, some default
  * callable bindings may be the trigonometric
  * functions 'math.cos', 'math.sin', etc...
+ *
+ * <p>Functions that take and return numbers should
+ * implement one of the primitive variants instead,
+ * e.g. {@link DoubleFunction1}, so they are called
+ * without boxing</p>
  */
 public interface CallableBinding {
 
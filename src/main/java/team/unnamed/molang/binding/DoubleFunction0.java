@@ -0,0 +1,18 @@
+package team.unnamed.molang.binding;
+
+/**
+ * {@link CallableBinding} for functions without arguments
+ * that return a primitive double, call expressions call
+ * them without boxing the result
+ */
+@FunctionalInterface
+public interface DoubleFunction0 extends CallableBinding {
+
+    double apply();
+
+    @Override
+    default Object call(Object... arguments) {
+        return apply();
+    }
+
+}
@@ -0,0 +1,18 @@
+package team.unnamed.molang.binding;
+
+/**
+ * {@link CallableBinding} for functions with two arguments
+ * that take and return primitive doubles, call expressions
+ * call them without boxing the arguments or the result
+ */
+@FunctionalInterface
+public interface DoubleFunction2 extends CallableBinding {
+
+    double apply(double a, double b);
+
+    @Override
+    default Object call(Object... arguments) {
+        return apply(Arguments.get(arguments, 0), Arguments.get(arguments, 1));
+    }
+
+}
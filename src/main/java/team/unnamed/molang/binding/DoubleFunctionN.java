@@ -0,0 +1,19 @@
+package team.unnamed.molang.binding;
+
+/**
+ * {@link CallableBinding} for functions with any amount
+ * of arguments that take and return primitive doubles,
+ * call expressions call them without boxing the
+ * arguments or the result
+ */
+@FunctionalInterface
+public interface DoubleFunctionN extends CallableBinding {
+
+    double apply(double[] arguments);
+
+    @Override
+    default Object call(Object... arguments) {
+        return apply(Arguments.getAll(arguments));
+    }
+
+}
@@ -0,0 +1,214 @@
+package team.unnamed.molang.binding;
+
+/**
+ * Fast approximations of the math functions used by MoLang
+ * scripts, used by the 'math' binding in fast-math mode. Like
+ * the standard functions, trigonometric functions use degrees
+ *
+ * <p>Functions are table-driven, with linear interpolation
+ * between entries. The maximum errors, compared to the
+ * standard functions, are:</p>
+ * <ul>
+ *     <li>{@link FastMath#sin} and {@link FastMath#cos}: 3E-7
+ *     (absolute)</li>
+ *     <li>{@link FastMath#atan} and {@link FastMath#atan2}: 5E-6
+ *     degrees (absolute)</li>
+ *     <li>{@link FastMath#exp}: 1.2E-7 (relative)</li>
+ *     <li>{@link FastMath#pow}: 1.2E-7 * (1 + |exponent|)
+ *     (relative)</li>
+ * </ul>
+ *
+ * <p>Arguments the tables can't handle (e.g. NaN, infinities,
+ * very large angles or negative bases) are computed using
+ * the standard functions</p>
+ */
+public final class FastMath {
+
+    private static final double RADIAN = Math.toRadians(1);
+
+    // sin table, covers a full turn, plus one entry to interpolate
+    private static final int SIN_SIZE = 4096;
+    private static final int SIN_MASK = SIN_SIZE - 1;
+    private static final double SIN_SCALE = SIN_SIZE / 360D;
+    private static final double[] SIN_TABLE = new double[SIN_SIZE + 1];
+
+    // larger angles lose precision when scaled to the table
+    private static final double MAX_DEGREES = 1 << 24;
+
+    // atan table, from zero to one
+    private static final int ATAN_SIZE = 1024;
+    private static final double[] ATAN_TABLE = new double[ATAN_SIZE + 1];
+
+    // 2^x table, from zero to one
+    private static final int EXP2_SIZE = 1024;
+    private static final double[] EXP2_TABLE = new double[EXP2_SIZE + 1];
+
+    // log2(x) table, from one to two
+    private static final int LOG2_SIZE = 1024;
+    private static final double[] LOG2_TABLE = new double[LOG2_SIZE + 1];
+
+    private static final double LOG2_E = 1 / Math.log(2);
+
+    // larger powers of two overflow or lose precision
+    private static final double MAX_EXP2 = 1000;
+
+    static {
+        for (int i = 0; i <= SIN_SIZE; i++) {
+            SIN_TABLE[i] = Math.sin(i * 2 * Math.PI / SIN_SIZE);
+        }
+        for (int i = 0; i <= ATAN_SIZE; i++) {
+            ATAN_TABLE[i] = Math.atan(i / (double) ATAN_SIZE) / RADIAN;
+        }
+        for (int i = 0; i <= EXP2_SIZE; i++) {
+            EXP2_TABLE[i] = Math.pow(2, i / (double) EXP2_SIZE);
+        }
+        for (int i = 0; i <= LOG2_SIZE; i++) {
+            LOG2_TABLE[i] = Math.log(1 + i / (double) LOG2_SIZE) * LOG2_E;
+        }
+    }
+
+    private FastMath() {
+    }
+
+    /**
+     * Returns the sine of the given angle, in degrees
+     */
+    public static double sin(double degrees) {
+        if (!(Math.abs(degrees) <= MAX_DEGREES)) {
+            return Math.sin(Math.toRadians(degrees));
+        }
+        return sinTable(degrees * SIN_SCALE);
+    }
+
+    /**
+     * Returns the cosine of the given angle, in degrees
+     */
+    public static double cos(double degrees) {
+        if (!(Math.abs(degrees) <= MAX_DEGREES)) {
+            return Math.cos(Math.toRadians(degrees));
+        }
+        // cos(x) = sin(x + 90)
+        return sinTable(degrees * SIN_SCALE + SIN_SIZE / 4D);
+    }
+
+    /**
+     * Returns the arc tangent of the given
+     * value, in degrees
+     */
+    public static double atan(double value) {
+        if (Double.isNaN(value)) {
+            return value;
+        }
+        double abs = Math.abs(value);
+        double angle = abs <= 1
+                ? atanTable(abs)
+                // atan(x) = 90 - atan(1 / x)
+                : 90 - atanTable(1 / abs);
+        return Math.copySign(angle, value);
+    }
+
+    /**
+     * Returns the angle of the point (x, y),
+     * in degrees, from -180 to 180
+     */
+    public static double atan2(double y, double x) {
+        if (Double.isNaN(y) || Double.isNaN(x)
+                || Double.isInfinite(y) || Double.isInfinite(x)
+                || (y == 0 && x == 0)) {
+            return Math.atan2(y, x) / RADIAN;
+        }
+        double absY = Math.abs(y);
+        double absX = Math.abs(x);
+        double angle = absY <= absX
+                ? atanTable(absY / absX)
+                : 90 - atanTable(absX / absY);
+        if (x < 0) {
+            angle = 180 - angle;
+        }
+        return Math.copySign(angle, y);
+    }
+
+    /**
+     * Returns Euler's number raised to
+     * the given {@code power}
+     */
+    public static double exp(double power) {
+        double exponent = power * LOG2_E;
+        if (!(Math.abs(exponent) <= MAX_EXP2)) {
+            return Math.exp(power);
+        }
+        return exp2(exponent);
+    }
+
+    /**
+     * Returns the given {@code base} raised
+     * to the given {@code exponent}
+     */
+    public static double pow(double base, double exponent) {
+        if (exponent == 2) {
+            // exact
+            return base * base;
+        }
+        if (!(base >= Double.MIN_NORMAL) || base == Double.POSITIVE_INFINITY
+                || Double.isNaN(exponent) || Double.isInfinite(exponent)) {
+            // negative, zero, subnormal or special values
+            return Math.pow(base, exponent);
+        }
+
+        double power = exponent * log2(base);
+        if (!(Math.abs(power) <= MAX_EXP2)) {
+            return Math.pow(base, exponent);
+        }
+        return exp2(power);
+    }
+
+    private static double sinTable(double position) {
+        double floor = Math.floor(position);
+        int index = (int) floor & SIN_MASK;
+        double value = SIN_TABLE[index];
+        return value + (SIN_TABLE[index + 1] - value) * (position - floor);
+    }
+
+    /**
+     * Returns the arc tangent of the given value,
+     * from zero to one, in degrees
+     */
+    private static double atanTable(double value) {
+        double position = value * ATAN_SIZE;
+        int index = (int) position;
+        if (index >= ATAN_SIZE) {
+            return ATAN_TABLE[ATAN_SIZE];
+        }
+        double start = ATAN_TABLE[index];
+        return start + (ATAN_TABLE[index + 1] - start) * (position - index);
+    }
+
+    /**
+     * Returns two raised to the given exponent, it
+     * must be in [-{@link FastMath#MAX_EXP2}, {@link FastMath#MAX_EXP2}]
+     */
+    private static double exp2(double exponent) {
+        double floor = Math.floor(exponent);
+        double position = (exponent - floor) * EXP2_SIZE;
+        // the fraction may be rounded up to one
+        int index = Math.min((int) position, EXP2_SIZE - 1);
+        double start = EXP2_TABLE[index];
+        double fraction = start + (EXP2_TABLE[index + 1] - start) * (position - index);
+        return Math.scalb(fraction, (int) floor);
+    }
+
+    /**
+     * Returns the base two logarithm of the
+     * given positive, normal, finite value
+     */
+    private static double log2(double value) {
+        int exponent = Math.getExponent(value);
+        // in [1, 2)
+        double mantissa = Math.scalb(value, -exponent);
+        double position = (mantissa - 1) * LOG2_SIZE;
+        int index = (int) position;
+        double start = LOG2_TABLE[index];
+        return exponent + start + (LOG2_TABLE[index + 1] - start) * (position - index);
+    }
+
+}
@@ -1,82 +1,89 @@
 package team.unnamed.molang.binding;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
-import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
 
 /**
  * Math function bindings inside an object
  * binding, commonly named 'math'
  */
 public class MathBinding
-        implements ObjectBinding {
+        implements PropertyBinding {
 
     private static final double RADIAN = Math.toRadians(1);
 
-    private static final Random RANDOM = new Random();
-    private static final int DECIMAL_PART = 4;
+
+    /**
+     * Names of the properties that aren't pure, their
+     * value or results may change between evaluations
+     */
+    private static final Set<String> IMPURE = new HashSet<>(Arrays.asList(
+            "die_roll",
+            "die_roll_integer",
+            "random",
+            "random_integer"
+    ));
 
     private final Map<String, Object> bindings = new HashMap<>();
+    private final boolean fastMath;
 
     public MathBinding() {
+        this(false);
+    }
+
+    /**
+     * Creates a new math binding
+     *
+     * @param fastMath True to use the approximations
+     *                 of {@link FastMath} for sin, cos,
+     *                 atan, atan2, exp and pow
+     */
+    public MathBinding(boolean fastMath) {
+        this.fastMath = fastMath;
+
+        bind1("abs", Math::abs);
+        bind1("acos", MathBinding::acos);
+        bind1("asin", MathBinding::asin);
+        bind1("atan", fastMath ? FastMath::atan : MathBinding::atan);
+        bind2("atan2", fastMath ? FastMath::atan2 : MathBinding::atan2);
+        bind1("ceil", Math::ceil);
+        bind3("clamp", MathBinding::clamp);
+        bind1("cos", fastMath ? FastMath::cos : MathBinding::cos);
+        bind3("die_roll", MathBinding::dieRoll);
+        bind3("die_roll_integer", MathBinding::dieRollInteger);
 
-        bindCallable("abs", args -> Math.abs(toDouble(args[0])));
-        bindCallable("acos", args -> Math.acos(toDouble(args[0])) / RADIAN);
-        bindCallable("asin", args -> Math.asin(toDouble(args[0])) / RADIAN);
-        bindCallable("atan", args -> Math.atan(toDouble(args[0])) / RADIAN);
-        bindCallable("atan2", args -> Math.atan2(toDouble(args[0]), toDouble(args[1])) / RADIAN);
-        bindCallable("ceil", args -> Math.ceil(toDouble(args[0])));
-        bindCallable("clamp", args -> Math.max(Math.min(toDouble(args[0]), toDouble(args[2])), toDouble(args[1])));
-        bindCallable("cos", args -> Math.cos(toRadians(args[0])));
-        bindCallable("die_roll", args -> {
-            int amount = (int) toDouble(args[0]);
-            int low = (int) (toDouble(args[1]) * DECIMAL_PART);
-            int high = (int) (toDouble(args[2]) * DECIMAL_PART) - low;
-            double result = 0;
-            for (int i = 0; i < amount; i++) {
-                result += RANDOM.nextInt(high) + low;
-            }
-            return result / DECIMAL_PART;
-        });
-        // TODO: die_roll_integer
-
-        bindCallable("exp", args -> Math.exp(toDouble(args[0])));
-        bindCallable("floor", args -> Math.floor(toDouble(args[0])));
-        bindCallable("lerprotate", args -> {
-            double start = radify(toDouble(args[0]));
-            double end = radify(toDouble(args[1]));
-            double lerp = toDouble(args[2]);
-
-            if (start > end) {
-                // swap
-                double tmp = start;
-                start = end;
-                end = tmp;
-            }
-
-            double diff = end - start;
-            if (diff > 180F) {
-                return radify(end + lerp * (360F - diff));
-            } else {
-                return start + lerp * diff;
-            }
-        });
-        // TODO: hermite_blend, lerp, lerprotate
-        bindCallable("ln", args -> Math.log(toDouble(args[0])));
-        bindCallable("max", args -> Math.max(toDouble(args[0]), toDouble(args[1])));
-        bindCallable("min", args -> Math.min(toDouble(args[0]), toDouble(args[1])));
-        bindCallable("mod", args -> toDouble(args[0]) % toDouble(args[1]));
+        bind1("exp", fastMath ? FastMath::exp : Math::exp);
+        bind1("floor", Math::floor);
+        bind3("lerprotate", MathBinding::lerpRotate);
+        // TODO: hermite_blend, lerp
+        bind1("ln", Math::log);
+        bind2("max", Math::max);
+        bind2("min", Math::min);
+        bind2("mod", MathBinding::mod);
         bindings.put("pi", Math.PI);
-        bindCallable("pow", args -> Math.pow(toDouble(args[0]), toDouble(args[1])));
-        // TODO: random, random_integer
-        bindCallable("round", args -> Math.round(toDouble(args[0])));
-        bindCallable("sin", args -> Math.sin(toRadians(args[0])));
-        bindCallable("sqrt", args -> Math.sqrt(toDouble(args[0])));
+        bind2("pow", fastMath ? FastMath::pow : Math::pow);
+        bind2("random", MathBinding::random);
+        bind2("random_integer", MathBinding::randomInteger);
+        bind1("round", MathBinding::round);
+        bind1("sin", fastMath ? FastMath::sin : MathBinding::sin);
+        bind1("sqrt", Math::sqrt);
         // TODO: trunc
     }
 
-    private void bindCallable(String name, CallableBinding binding) {
-        bindings.put(name, binding);
+    private void bind1(String name, DoubleFunction1 function) {
+        bindings.put(name, function);
+    }
+
+    private void bind2(String name, DoubleFunction2 function) {
+        bindings.put(name, function);
+    }
+
+    private void bind3(String name, DoubleFunction3 function) {
+        bindings.put(name, function);
     }
 
     @Override
@@ -88,25 +95,169 @@ public class MathBinding
     public void setProperty(String name, Object value) {
     }
 
+    @Override
+    public PropertyHandle getPropertyHandle(String name) {
+        // subclasses may override the properties
+        return getClass() == MathBinding.class
+                ? PropertyHandle.constant(getProperty(name))
+                : null;
+    }
+
+    /**
+     * Determines whether this binding uses the
+     * approximations of {@link FastMath}
+     */
+    public boolean isFastMath() {
+        return fastMath;
+    }
+
+    /**
+     * Determines whether the property with the given
+     * {@code name} is pure: if it's a constant, its value
+     * never changes, and if it's a function, it has no
+     * side effects and always returns the same result
+     * for the same arguments. Pure properties can be
+     * evaluated before script evaluation
+     *
+     * @param name The property name
+     * @return True if the property exists and is pure
+     */
+    public boolean isPure(String name) {
+        return bindings.containsKey(name) && !IMPURE.contains(name);
+    }
+
+    /**
+     * Determines whether the property with the given
+     * {@code name} is a random function, e.g. 'random',
+     * whose results change between evaluations
+     *
+     * @param name The property name
+     * @return True if the property is a random function
+     */
+    public boolean isRandom(String name) {
+        return IMPURE.contains(name);
+    }
+
+    //#region Functions
+    // Functions whose implementation isn't a single java.lang.Math
+    // call, they are also used by the intrinsic call expressions
+    // created by the linker, angles are in degrees
+
+    public static double acos(double value) {
+        return Math.acos(value) / RADIAN;
+    }
+
+    public static double asin(double value) {
+        return Math.asin(value) / RADIAN;
+    }
+
+    public static double atan(double value) {
+        return Math.atan(value) / RADIAN;
+    }
+
+    public static double atan2(double y, double x) {
+        return Math.atan2(y, x) / RADIAN;
+    }
+
+    public static double clamp(double value, double min, double max) {
+        return Math.max(Math.min(value, max), min);
+    }
+
+    public static double cos(double degrees) {
+        return Math.cos(Math.toRadians(degrees));
+    }
+
+    public static double lerpRotate(double startAngle, double endAngle, double lerp) {
+        double start = radify(startAngle);
+        double end = radify(endAngle);
+
+        if (start > end) {
+            // swap
+            double tmp = start;
+            start = end;
+            end = tmp;
+        }
+
+        double diff = end - start;
+        if (diff > 180F) {
+            return radify(end + lerp * (360F - diff));
+        } else {
+            return start + lerp * diff;
+        }
+    }
+
+    public static double mod(double dividend, double divisor) {
+        return dividend % divisor;
+    }
+
+    public static double round(double value) {
+        return Math.round(value);
+    }
+
+    public static double sin(double degrees) {
+        return Math.sin(Math.toRadians(degrees));
+    }
+
     private static double radify(double n) {
         return (((n + 180) % 360) + 180) % 360;
     }
+    //#endregion
 
-    private static double toDouble(Object object) {
-        if (object instanceof Number) {
-            return ((Number) object).doubleValue();
-        } else {
-            return 0D;
+    //#region Random functions
+    // Use the random stream of the current thread, see RandomSource
+
+    /**
+     * Returns a random number between {@code low}
+     * (inclusive) and {@code high} (exclusive)
+     */
+    public static double random(double low, double high) {
+        return random(RandomSource.current(), low, high);
+    }
+
+    /**
+     * Returns a random integer between {@code low}
+     * and {@code high}, both inclusive
+     */
+    public static double randomInteger(double low, double high) {
+        return randomInteger(RandomSource.current(), low, high);
+    }
+
+    /**
+     * Returns the sum of {@code count} random numbers
+     * between {@code low} and {@code high}
+     */
+    public static double dieRoll(double count, double low, double high) {
+        SplittableRandom random = RandomSource.current();
+        double result = 0;
+        for (int i = 0; i < (int) count; i++) {
+            result += random(random, low, high);
         }
+        return result;
     }
 
-    private static double toRadians(Object object) {
-        if (object instanceof Number) {
-            return Math.toRadians(((Number) object).doubleValue());
-        } else {
-            // not fail-fast
-            return 0D;
+    /**
+     * Returns the sum of {@code count} random integers
+     * between {@code low} and {@code high}, both inclusive
+     */
+    public static double dieRollInteger(double count, double low, double high) {
+        SplittableRandom random = RandomSource.current();
+        double result = 0;
+        for (int i = 0; i < (int) count; i++) {
+            result += randomInteger(random, low, high);
         }
+        return result;
+    }
+
+    private static double random(SplittableRandom random, double low, double high) {
+        return low + random.nextDouble() * (high - low);
+    }
+
+    private static double randomInteger(SplittableRandom random, double low, double high) {
+        int min = (int) Math.min(low, high);
+        int max = (int) Math.max(low, high);
+        // as long, the range may not fit an int
+        return min + random.nextLong((long) max - min + 1);
     }
+    //#endregion
 
 }
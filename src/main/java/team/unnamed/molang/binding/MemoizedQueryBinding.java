@@ -0,0 +1,91 @@
+package team.unnamed.molang.binding;
+
+import java.util.Arrays;
+
+/**
+ * Query binding of an entity whose properties are computed
+ * by {@link QueryProviders} at most once per frame, reading
+ * the same property again in the same frame returns the
+ * memoized value, without calling the provider
+ *
+ * <p>Values are memoized unboxed, tagged with the frame they
+ * were computed in, so advancing the {@link QueryFrame}
+ * invalidates them without touching the bindings. Like
+ * entity scopes, a binding must not be used by multiple
+ * threads at the same time</p>
+ *
+ * @param <T> The entity type
+ */
+public final class MemoizedQueryBinding<T> implements PropertyBinding {
+
+    private final QueryProviders<T> providers;
+    private final T entity;
+    private final QueryFrame frame;
+
+    private final double[] values;
+    // the frame of every value, zero if unset
+    private final long[] epochs;
+
+    MemoizedQueryBinding(QueryProviders<T> providers, T entity, QueryFrame frame) {
+        this.providers = providers;
+        this.entity = entity;
+        this.frame = frame;
+        this.values = new double[providers.size()];
+        this.epochs = new long[providers.size()];
+    }
+
+    /**
+     * Returns the entity the properties
+     * are computed from
+     */
+    public T getEntity() {
+        return entity;
+    }
+
+    /**
+     * Returns the value of the property at the given
+     * {@code index}, computing it if it wasn't computed
+     * in the current frame
+     *
+     * @see QueryProviders#indexOf(String)
+     */
+    public double getDouble(int index) {
+        long epoch = frame.getEpoch();
+        if (epochs[index] != epoch) {
+            values[index] = providers.compute(index, entity);
+            epochs[index] = epoch;
+        }
+        return values[index];
+    }
+
+    /**
+     * Invalidates the memoized values of this binding, so
+     * they are computed again, e.g. after the entity state
+     * changed in the middle of a frame
+     */
+    public void invalidate() {
+        Arrays.fill(epochs, 0);
+    }
+
+    @Override
+    public Object getProperty(String name) {
+        int index = providers.indexOf(name);
+        return index == -1 ? null : (Object) getDouble(index);
+    }
+
+    @Override
+    public void setProperty(String name, Object value) {
+    }
+
+    @Override
+    public PropertyHandle getPropertyHandle(String name) {
+        int index = providers.indexOf(name);
+        return index == -1 ? null : providers.getHandle(index);
+    }
+
+    @Override
+    public Object getHandleKey() {
+        return providers;
+    }
+
+}
@@ -0,0 +1,25 @@
+package team.unnamed.molang.binding;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a host Java class whose {@link MoLangProperty} methods
+ * are exposed by a binding class generated at build time by
+ * the 'processor' module, e.g. {@code EntityQueriesBinding}
+ * for {@code EntityQueries}
+ *
+ * <p>Generated bindings are created with their constructor,
+ * {@code new EntityQueriesBinding(queries)}, and dispatch
+ * property reads by index, without reflection or runtime
+ * class generation. See {@link ObjectBinder} for bindings
+ * created at runtime</p>
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface MoLangBinding {
+}
@@ -0,0 +1,29 @@
+package team.unnamed.molang.binding;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a method of a host Java class as a property of the
+ * bindings created by {@link ObjectBinder}
+ *
+ * <p>Methods without parameters are read as values, e.g.
+ * {@code query.anim_time}, methods with one to three double
+ * parameters are exposed as functions, e.g.
+ * {@code query.bone_rotation(1)}</p>
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface MoLangProperty {
+
+    /**
+     * The property name, the method name if empty, names
+     * are case-insensitive and stored in lowercase
+     */
+    String value() default "";
+
+}
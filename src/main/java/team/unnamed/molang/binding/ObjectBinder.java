@@ -0,0 +1,382 @@
+package team.unnamed.molang.binding;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Creates object bindings for instances of a host Java class,
+ * exposing the methods annotated with {@link MoLangProperty}
+ *
+ * <p>The annotated methods are resolved once per class and
+ * linked with {@link LambdaMetafactory}, so reading a property
+ * is a direct method call, without reflection, and numeric
+ * values aren't boxed when scripts read them as numbers, see
+ * {@link PropertyHandle#getDouble}. Created bindings are
+ * read-only</p>
+ *
+ * <pre>{@code
+ * public class EntityQueries {
+ *
+ *     @MoLangProperty("anim_time")
+ *     public double getAnimationTime() { ... }
+ *
+ * }
+ *
+ * ObjectBinding query = ObjectBinder.of(EntityQueries.class).bind(queries);
+ * }</pre>
+ *
+ * @param <T> The host class type
+ */
+public final class ObjectBinder<T> {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    // binders created using the lookup of this class
+    private static final ClassValue<ObjectBinder<?>> BINDERS = new ClassValue<ObjectBinder<?>>() {
+        @Override
+        protected ObjectBinder<?> computeValue(Class<?> type) {
+            return new ObjectBinder<>(type, LOOKUP);
+        }
+    };
+
+    private final Class<T> type;
+    private final Map<String, PropertyHandle> handles = new HashMap<>();
+
+    // create the functions of a target, they capture it
+    private final List<MethodHandle> functionFactories = new ArrayList<>();
+
+    private ObjectBinder(Class<T> type, MethodHandles.Lookup lookup) {
+        this.type = type;
+        // subclass methods override the superclass ones
+        for (Class<?> clazz = type; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            for (Method method : clazz.getDeclaredMethods()) {
+                MoLangProperty property = method.getAnnotation(MoLangProperty.class);
+                if (property == null || method.isBridge() || Modifier.isStatic(method.getModifiers())) {
+                    continue;
+                }
+                // identifiers are case-insensitive, the lexer lowercases them
+                String name = (property.value().isEmpty() ? method.getName() : property.value())
+                        .toLowerCase(Locale.ROOT);
+                if (!handles.containsKey(name)) {
+                    handles.put(name, createHandle(lookup, method));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the binder for the given {@code type}, binders
+     * are created once per class. The annotated methods and
+     * their class must be public, use
+     * {@link ObjectBinder#of(Class, MethodHandles.Lookup)}
+     * otherwise
+     *
+     * @throws IllegalArgumentException If an annotated method
+     * isn't accessible or has an unsupported signature
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ObjectBinder<T> of(Class<T> type) {
+        return (ObjectBinder<T>) BINDERS.get(type);
+    }
+
+    /**
+     * Creates a binder for the given {@code type}, accessing the
+     * annotated methods using the given {@code lookup}, which must
+     * have private access (e.g. {@code MethodHandles.lookup()}
+     * called from the class itself)
+     *
+     * @throws IllegalArgumentException If an annotated method
+     * isn't accessible or has an unsupported signature
+     */
+    public static <T> ObjectBinder<T> of(Class<T> type, MethodHandles.Lookup lookup) {
+        return new ObjectBinder<>(type, lookup);
+    }
+
+    /**
+     * Returns the class whose instances
+     * are bound by this binder
+     */
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * Returns the names of the properties
+     * of the created bindings
+     */
+    public Set<String> getPropertyNames() {
+        return Collections.unmodifiableSet(handles.keySet());
+    }
+
+    /**
+     * Creates a binding exposing the annotated
+     * methods of the given {@code target}
+     *
+     * @param target The bound object
+     * @return The created binding
+     */
+    public PropertyBinding bind(T target) {
+        Object[] functions = new Object[functionFactories.size()];
+        for (int i = 0; i < functions.length; i++) {
+            try {
+                functions[i] = functionFactories.get(i).invoke(target);
+            } catch (Throwable e) {
+                throw new IllegalStateException("Couldn't bind a function of " + type.getName(), e);
+            }
+        }
+        return new Bound(this, target, functions);
+    }
+
+    private PropertyHandle createHandle(MethodHandles.Lookup lookup, Method method) {
+        MethodHandle implementation;
+        try {
+            implementation = lookup.unreflect(method);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Method " + method + " isn't accessible,"
+                    + " make it public or use a lookup with access to it", e);
+        }
+
+        Class<?> returnType = method.getReturnType();
+        Class<?>[] parameters = method.getParameterTypes();
+        if (parameters.length == 0) {
+            if (isNumeric(returnType)) {
+                ToDoubleFunction<Object> getter = lambda(lookup, implementation, ToDoubleFunction.class,
+                        "applyAsDouble", MethodType.methodType(double.class, Object.class));
+                return new NumberHandle(getter);
+            } else if (returnType == boolean.class) {
+                Predicate<Object> getter = lambda(lookup, implementation, Predicate.class,
+                        "test", MethodType.methodType(boolean.class, Object.class));
+                return new BooleanHandle(getter);
+            } else if (returnType != void.class) {
+                Function<Object, Object> getter = lambda(lookup, implementation, Function.class,
+                        "apply", MethodType.methodType(Object.class, Object.class));
+                return new ObjectHandle(getter);
+            }
+        } else if (isNumeric(returnType) && parameters.length <= 3 && allDoubles(parameters)) {
+            Class<?> functionType;
+            switch (parameters.length) {
+                case 1:
+                    functionType = DoubleFunction1.class;
+                    break;
+                case 2:
+                    functionType = DoubleFunction2.class;
+                    break;
+                default:
+                    functionType = DoubleFunction3.class;
+                    break;
+            }
+            functionFactories.add(factory(lookup, implementation, functionType, MethodType.methodType(double.class, parameters)));
+            return new FunctionHandle(functionFactories.size() - 1);
+        }
+        throw new IllegalArgumentException("Unsupported property method " + method + ", properties"
+                + " must be methods without parameters or numeric methods with up to 3 double parameters");
+    }
+
+    //#region Lambda linking
+    @SuppressWarnings("unchecked")
+    private <F> F lambda(
+            MethodHandles.Lookup lookup,
+            MethodHandle implementation,
+            Class<?> functionType,
+            String name,
+            MethodType erasedType
+    ) {
+        MethodType instantiatedType = erasedType.returnType() == Object.class
+                ? implementation.type().wrap()
+                : implementation.type().changeReturnType(erasedType.returnType());
+        try {
+            CallSite site = LambdaMetafactory.metafactory(
+                    lookup,
+                    name,
+                    MethodType.methodType(functionType),
+                    erasedType,
+                    implementation,
+                    instantiatedType
+            );
+            return (F) site.getTarget().invoke();
+        } catch (Throwable e) {
+            throw linkError(implementation, e);
+        }
+    }
+
+    private MethodHandle factory(
+            MethodHandles.Lookup lookup,
+            MethodHandle implementation,
+            Class<?> functionType,
+            MethodType methodType
+    ) {
+        try {
+            CallSite site = LambdaMetafactory.metafactory(
+                    lookup,
+                    "apply",
+                    MethodType.methodType(functionType, type),
+                    methodType,
+                    implementation,
+                    methodType
+            );
+            return site.getTarget();
+        } catch (LambdaConversionException e) {
+            throw linkError(implementation, e);
+        }
+    }
+
+    private IllegalArgumentException linkError(MethodHandle implementation, Throwable cause) {
+        return new IllegalArgumentException("Couldn't link " + implementation + " of "
+                + type.getName() + ", its class may not be accessible by the lookup", cause);
+    }
+
+    private static boolean isNumeric(Class<?> type) {
+        return type == double.class || type == float.class || type == long.class
+                || type == int.class || type == short.class || type == byte.class;
+    }
+
+    private static boolean allDoubles(Class<?>[] types) {
+        for (Class<?> type : types) {
+            if (type != double.class) {
+                return false;
+            }
+        }
+        return true;
+    }
+    //#endregion
+
+    //#region Property handles
+    // used with the bindings of this binder, they share its key
+    private static final class NumberHandle implements PropertyHandle {
+
+        private final ToDoubleFunction<Object> getter;
+
+        private NumberHandle(ToDoubleFunction<Object> getter) {
+            this.getter = getter;
+        }
+
+        @Override
+        public Object get(ObjectBinding binding) {
+            return getter.applyAsDouble(((Bound) binding).target);
+        }
+
+        @Override
+        public double getDouble(ObjectBinding binding) {
+            return getter.applyAsDouble(((Bound) binding).target);
+        }
+
+        @Override
+        public void set(ObjectBinding binding, Object value) {
+        }
+
+    }
+
+    private static final class BooleanHandle implements PropertyHandle {
+
+        private final Predicate<Object> getter;
+
+        private BooleanHandle(Predicate<Object> getter) {
+            this.getter = getter;
+        }
+
+        @Override
+        public Object get(ObjectBinding binding) {
+            return getter.test(((Bound) binding).target);
+        }
+
+        @Override
+        public double getDouble(ObjectBinding binding) {
+            return getter.test(((Bound) binding).target) ? 1 : 0;
+        }
+
+        @Override
+        public void set(ObjectBinding binding, Object value) {
+        }
+
+    }
+
+    private static final class ObjectHandle implements PropertyHandle {
+
+        private final Function<Object, Object> getter;
+
+        private ObjectHandle(Function<Object, Object> getter) {
+            this.getter = getter;
+        }
+
+        @Override
+        public Object get(ObjectBinding binding) {
+            return getter.apply(((Bound) binding).target);
+        }
+
+        @Override
+        public void set(ObjectBinding binding, Object value) {
+        }
+
+    }
+
+    private static final class FunctionHandle implements PropertyHandle {
+
+        private final int index;
+
+        private FunctionHandle(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public Object get(ObjectBinding binding) {
+            return ((Bound) binding).functions[index];
+        }
+
+        @Override
+        public void set(ObjectBinding binding, Object value) {
+        }
+
+    }
+    //#endregion
+
+    private static final class Bound implements PropertyBinding {
+
+        private final ObjectBinder<?> binder;
+        private final Object target;
+        private final Object[] functions;
+
+        private Bound(ObjectBinder<?> binder, Object target, Object[] functions) {
+            this.binder = binder;
+            this.target = target;
+            this.functions = functions;
+        }
+
+        @Override
+        public Object getProperty(String name) {
+            PropertyHandle handle = binder.handles.get(name);
+            return handle == null ? null : handle.get(this);
+        }
+
+        @Override
+        public void setProperty(String name, Object value) {
+        }
+
+        @Override
+        public PropertyHandle getPropertyHandle(String name) {
+            return binder.handles.get(name);
+        }
+
+        @Override
+        public Object getHandleKey() {
+            return binder;
+        }
+
+    }
+
+}
@@ -0,0 +1,30 @@
+package team.unnamed.molang.binding;
+
+/**
+ * An {@link ObjectBinding} that can resolve its properties
+ * to {@link PropertyHandle}s, so property accesses resolve
+ * the name once and then skip the name lookup
+ *
+ * <p>Access expressions cache the handles by the key of the
+ * accessed binding, so a handle is reused while the accessed
+ * bindings have the same key</p>
+ */
+public interface PropertyBinding extends ObjectBinding {
+
+    /**
+     * Returns a handle for the property with the given
+     * {@code name}, or null if it can't be resolved, in
+     * which case the property is accessed by name
+     */
+    PropertyHandle getPropertyHandle(String name);
+
+    /**
+     * Returns the key shared by every binding that can use the
+     * handles created by this binding, compared by identity. By
+     * default, it's the binding itself
+     */
+    default Object getHandleKey() {
+        return this;
+    }
+
+}
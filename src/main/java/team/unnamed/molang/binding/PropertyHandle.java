@@ -0,0 +1,61 @@
+package team.unnamed.molang.binding;
+
+/**
+ * A resolved property of a {@link PropertyBinding}, it reads
+ * and writes the property without looking up its name
+ *
+ * <p>Handles can be used with every binding that has the
+ * same handle key as the binding that created them, see
+ * {@link PropertyBinding#getHandleKey()}</p>
+ */
+public interface PropertyHandle {
+
+    /**
+     * Gets the property value in the given {@code binding}
+     */
+    Object get(ObjectBinding binding);
+
+    /**
+     * Gets the property value in the given {@code binding}
+     * as a double, returns zero if it isn't a number.
+     * Handles of numeric properties should override this
+     * method to return the value without boxing it
+     */
+    default double getDouble(ObjectBinding binding) {
+        Object value = get(binding);
+        if (value instanceof Boolean) {
+            return ((Boolean) value) ? 1 : 0;
+        } else if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * Sets the property in the given {@code binding} to
+     * the specified {@code value}, may not be supported
+     */
+    void set(ObjectBinding binding, Object value);
+
+    /**
+     * Creates a handle for a property whose value never
+     * changes, writes are ignored
+     *
+     * @param value The property value
+     * @return The created handle
+     */
+    static PropertyHandle constant(Object value) {
+        return new PropertyHandle() {
+            @Override
+            public Object get(ObjectBinding binding) {
+                return value;
+            }
+
+            @Override
+            public void set(ObjectBinding binding, Object ignored) {
+            }
+        };
+    }
+
+}
@@ -3,7 +3,7 @@ package team.unnamed.molang.binding;
 import java.util.HashMap;
 import java.util.Map;
 
-public class QueryBinding implements ObjectBinding {
+public class QueryBinding implements PropertyBinding {
 
     private final Map<String, Object> bindings = new HashMap<>();
 
@@ -27,4 +27,12 @@ public class QueryBinding implements ObjectBinding {
     public void setProperty(String name, Object value) {
     }
 
+    @Override
+    public PropertyHandle getPropertyHandle(String name) {
+        // subclasses may override the properties
+        return getClass() == QueryBinding.class
+                ? PropertyHandle.constant(getProperty(name))
+                : null;
+    }
+
 }
@@ -0,0 +1,32 @@
+package team.unnamed.molang.binding;
+
+/**
+ * Frame counter shared by {@link MemoizedQueryBinding}s, the
+ * query values memoized by the bindings are only valid in the
+ * frame they were computed in
+ *
+ * <p>The frame is usually advanced once per tick, before the
+ * scripts are evaluated, by the thread driving the ticks</p>
+ */
+public final class QueryFrame {
+
+    // zero is never a valid frame, it marks unset values
+    private volatile long epoch = 1;
+
+    /**
+     * Returns the current frame number, it's
+     * always greater than zero
+     */
+    public long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Starts a new frame, invalidating the memoized
+     * values of every binding using this frame
+     */
+    public void advance() {
+        epoch = epoch + 1;
+    }
+
+}
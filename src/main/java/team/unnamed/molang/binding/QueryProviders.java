@@ -0,0 +1,150 @@
+package team.unnamed.molang.binding;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * The query properties of a kind of entity, computed from
+ * the entity by host code, e.g. {@code query.is_moving}
+ *
+ * <p>Providers are shared by every entity of the kind, every
+ * entity gets its own {@link MemoizedQueryBinding}, which
+ * computes each property at most once per frame</p>
+ *
+ * @param <T> The entity type
+ */
+public final class QueryProviders<T> {
+
+    private final Map<String, Integer> indices = new HashMap<>();
+    private final List<ToDoubleFunction<? super T>> providers;
+    private final PropertyHandle[] handles;
+
+    private QueryProviders(Builder<T> builder) {
+        this.providers = new ArrayList<>(builder.providers);
+        this.handles = new PropertyHandle[providers.size()];
+        for (int i = 0; i < handles.length; i++) {
+            indices.put(builder.names.get(i), i);
+            handles[i] = new Handle(i);
+        }
+    }
+
+    /**
+     * Returns the names of the provided properties
+     */
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(indices.keySet());
+    }
+
+    /**
+     * Returns the index of the property with the
+     * given {@code name}, or -1 if not provided
+     */
+    public int indexOf(String name) {
+        Integer index = indices.get(name);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Returns the amount of provided properties
+     */
+    public int size() {
+        return handles.length;
+    }
+
+    /**
+     * Creates the query binding of the given {@code entity}
+     *
+     * @param entity The entity the properties are computed from
+     * @param frame The frame counter used to invalidate the values
+     * @return The created binding
+     */
+    public MemoizedQueryBinding<T> bind(T entity, QueryFrame frame) {
+        return new MemoizedQueryBinding<>(this, entity, frame);
+    }
+
+    double compute(int index, T entity) {
+        return providers.get(index).applyAsDouble(entity);
+    }
+
+    PropertyHandle getHandle(int index) {
+        return handles[index];
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    private static final class Handle implements PropertyHandle {
+
+        private final int index;
+
+        private Handle(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public Object get(ObjectBinding binding) {
+            return ((MemoizedQueryBinding<?>) binding).getDouble(index);
+        }
+
+        @Override
+        public double getDouble(ObjectBinding binding) {
+            return ((MemoizedQueryBinding<?>) binding).getDouble(index);
+        }
+
+        @Override
+        public void set(ObjectBinding binding, Object value) {
+        }
+
+    }
+
+    public static final class Builder<T> {
+
+        private final List<String> names = new ArrayList<>();
+        private final List<ToDoubleFunction<? super T>> providers = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a numeric property, computed by the
+         * given {@code provider}. Names are lowercased,
+         * like script identifiers
+         *
+         * @param name The property name
+         * @param provider The function computing the property
+         */
+        public Builder<T> withProperty(String name, ToDoubleFunction<? super T> provider) {
+            name = name.toLowerCase();
+            if (names.contains(name)) {
+                throw new IllegalArgumentException("Duplicate query property: " + name);
+            }
+            names.add(name);
+            providers.add(provider);
+            return this;
+        }
+
+        /**
+         * Adds a boolean property, computed by the given
+         * {@code provider}, it's read as 1 or 0
+         *
+         * @param name The property name
+         * @param provider The function computing the property
+         */
+        public Builder<T> withFlag(String name, Predicate<? super T> provider) {
+            return withProperty(name, entity -> provider.test(entity) ? 1 : 0);
+        }
+
+        public QueryProviders<T> build() {
+            return new QueryProviders<>(this);
+        }
+
+    }
+
+}
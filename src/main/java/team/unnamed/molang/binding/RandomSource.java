@@ -0,0 +1,54 @@
+package team.unnamed.molang.binding;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Holds the random number streams used by the random
+ * functions of {@link MathBinding} (e.g. {@code math.random}
+ * and {@code math.die_roll})
+ *
+ * <p>Every thread has its own {@link SplittableRandom} stream,
+ * seeded from {@link ThreadLocalRandom}, so evaluations running
+ * in different threads never share random state. Evaluations
+ * can replace the stream of their thread with a seeded one, so
+ * their results can be replayed, see
+ * {@link team.unnamed.molang.EntityScope#setSeed(long)}</p>
+ */
+public final class RandomSource {
+
+    private static final ThreadLocal<RandomSource> SOURCES
+            = ThreadLocal.withInitial(RandomSource::new);
+
+    private final SplittableRandom threadRandom
+            = new SplittableRandom(ThreadLocalRandom.current().nextLong());
+    private SplittableRandom random = threadRandom;
+
+    private RandomSource() {
+    }
+
+    /**
+     * Returns the random stream currently used by
+     * the calling thread, never null
+     */
+    public static SplittableRandom current() {
+        return SOURCES.get().random;
+    }
+
+    /**
+     * Sets the random stream used by the calling thread until
+     * it's set again, the previous stream should be restored
+     * once the evaluation that needed it finishes
+     *
+     * @param random The random stream, or null to use
+     *               the default stream of the thread
+     * @return The previously used random stream
+     */
+    public static SplittableRandom use(SplittableRandom random) {
+        RandomSource source = SOURCES.get();
+        SplittableRandom previous = source.random;
+        source.random = random == null ? source.threadRandom : random;
+        return previous;
+    }
+
+}
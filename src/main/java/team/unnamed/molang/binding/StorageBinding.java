@@ -1,35 +1,241 @@
 package team.unnamed.molang.binding;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
-public class StorageBinding implements ObjectBinding {
+/**
+ * Object binding used to store values, like the 'variable'
+ * and 'temp' bindings. Properties are stored in slots given
+ * by a {@link StorageLayout}, numbers are stored unboxed in
+ * a primitive array
+ */
+public class StorageBinding implements PropertyBinding {
 
-    private final Map<String, Object> values = new HashMap<>();
+    /**
+     * Marker set in the objects array for
+     * slots that store a number
+     */
+    private static final Object NUMBER = new Object();
+
+    private static final double[] EMPTY_VALUES = new double[0];
+    private static final Object[] EMPTY_OBJECTS = new Object[0];
+
+    private final StorageLayout layout;
     private final boolean writeable;
 
-    public StorageBinding(boolean writeable) {
+    private double[] values = EMPTY_VALUES;
+
+    // null for unset slots, NUMBER for slots with
+    // a value in the values array, or the object
+    private Object[] objects = EMPTY_OBJECTS;
+
+    public StorageBinding(StorageLayout layout, boolean writeable) {
+        this.layout = layout;
         this.writeable = writeable;
     }
 
+    public StorageBinding(StorageLayout layout) {
+        this(layout, true);
+    }
+
+    public StorageBinding(boolean writeable) {
+        this(new StorageLayout(), writeable);
+    }
+
     public StorageBinding() {
-        this.writeable = true;
+        this(new StorageLayout(), true);
+    }
+
+    /**
+     * Returns the layout used to map property
+     * names to slots, never null
+     */
+    public StorageLayout getLayout() {
+        return layout;
     }
 
     @Override
     public Object getProperty(String name) {
-        return values.get(name);
+        int slot = layout.find(name);
+        return slot == -1 ? null : get(slot);
     }
 
     @Override
     public void setProperty(String name, Object value) {
         if (writeable) {
-            values.put(name, value);
+            set(layout.slotOf(name), value);
+        }
+    }
+
+    @Override
+    public PropertyHandle getPropertyHandle(String name) {
+        int slot = layout.find(name);
+        // the slot of a missing property is created when set
+        return slot == -1 ? new LazySlotHandle(layout, name) : new SlotHandle(slot);
+    }
+
+    /**
+     * Returns the layout, storages using the same
+     * layout share their property handles
+     */
+    @Override
+    public Object getHandleKey() {
+        return layout;
+    }
+
+    /**
+     * Returns the value stored in the given
+     * {@code slot}, or null if not set
+     */
+    public Object get(int slot) {
+        if (slot >= objects.length) {
+            return null;
+        }
+        Object object = objects[slot];
+        return object == NUMBER ? (Object) values[slot] : object;
+    }
+
+    /**
+     * Returns the value stored in the given {@code slot}
+     * as a double, returns zero if not set or if it
+     * isn't a number
+     */
+    public double getDouble(int slot) {
+        if (slot >= objects.length) {
+            return 0;
+        }
+        Object object = objects[slot];
+        if (object == NUMBER) {
+            return values[slot];
+        } else if (object instanceof Boolean) {
+            return ((Boolean) object) ? 1 : 0;
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * Stores the given {@code value} in the given
+     * {@code slot}, numbers are stored unboxed
+     */
+    public void set(int slot, Object value) {
+        if (!writeable) {
+            return;
+        }
+        if (value instanceof Number) {
+            setDouble(slot, ((Number) value).doubleValue());
+        } else {
+            ensureCapacity(slot);
+            objects[slot] = value;
+        }
+    }
+
+    /**
+     * Stores the given number in the given {@code slot}
+     */
+    public void setDouble(int slot, double value) {
+        if (!writeable) {
+            return;
+        }
+        ensureCapacity(slot);
+        values[slot] = value;
+        objects[slot] = NUMBER;
+    }
+
+    private void ensureCapacity(int slot) {
+        if (slot >= objects.length) {
+            // grow by half to amortize copies, without
+            // exceeding the slots used by the layout
+            int capacity = Math.max(slot + 1, Math.min(objects.length + (objects.length >> 1), layout.size()));
+            values = Arrays.copyOf(values, capacity);
+            objects = Arrays.copyOf(objects, capacity);
         }
     }
 
     public void clear() {
-        values.clear();
+        Arrays.fill(objects, null);
+    }
+
+    /**
+     * Returns the amount of slots this
+     * storage has allocated space for
+     */
+    int capacity() {
+        return objects.length;
+    }
+
+    private static final class SlotHandle implements PropertyHandle {
+
+        private final int slot;
+
+        private SlotHandle(int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public Object get(ObjectBinding binding) {
+            return ((StorageBinding) binding).get(slot);
+        }
+
+        @Override
+        public double getDouble(ObjectBinding binding) {
+            return ((StorageBinding) binding).getDouble(slot);
+        }
+
+        @Override
+        public void set(ObjectBinding binding, Object value) {
+            ((StorageBinding) binding).set(slot, value);
+        }
+
+    }
+
+    private static final class LazySlotHandle implements PropertyHandle {
+
+        private final StorageLayout layout;
+        private final String name;
+
+        // -1 until the layout has a slot for the name, all
+        // threads resolve the same slot, so races are benign
+        private int slot = -1;
+
+        private LazySlotHandle(StorageLayout layout, String name) {
+            this.layout = layout;
+            this.name = name;
+        }
+
+        private int find() {
+            int slot = this.slot;
+            if (slot == -1) {
+                slot = layout.find(name);
+                this.slot = slot;
+            }
+            return slot;
+        }
+
+        @Override
+        public Object get(ObjectBinding binding) {
+            int slot = find();
+            return slot == -1 ? null : ((StorageBinding) binding).get(slot);
+        }
+
+        @Override
+        public double getDouble(ObjectBinding binding) {
+            int slot = find();
+            return slot == -1 ? 0 : ((StorageBinding) binding).getDouble(slot);
+        }
+
+        @Override
+        public void set(ObjectBinding binding, Object value) {
+            StorageBinding storage = (StorageBinding) binding;
+            if (storage.writeable) {
+                int slot = find();
+                if (slot == -1) {
+                    slot = layout.slotOf(name);
+                    this.slot = slot;
+                }
+                storage.set(slot, value);
+            }
+        }
+
     }
 
 }
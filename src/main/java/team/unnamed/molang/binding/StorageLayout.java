@@ -0,0 +1,57 @@
+package team.unnamed.molang.binding;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Maps the property names of {@link StorageBinding}s to
+ * integer slots, so properties can be resolved once, when
+ * scripts are linked, and then accessed by index
+ *
+ * <p>Slots are never removed, and the same name always maps
+ * to the same slot. Layouts can be shared by multiple storages
+ * and are safe to use from multiple threads</p>
+ *
+ * <p>Slots are only created for names that are set or that
+ * linked scripts access, so a layout has at most one slot per
+ * distinct name used with it. Reading a missing property by
+ * name doesn't create a slot. Storages only allocate space up
+ * to the highest slot they store a value in, not for the whole
+ * layout</p>
+ */
+public final class StorageLayout {
+
+    private final Map<String, Integer> slots = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Returns the slot for the given {@code name},
+     * creating it if it doesn't exist
+     */
+    public int slotOf(String name) {
+        Integer slot = slots.get(name);
+        if (slot == null) {
+            slot = slots.computeIfAbsent(name, k -> size.getAndIncrement());
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the slot for the given {@code name},
+     * or -1 if it doesn't exist
+     */
+    public int find(String name) {
+        Integer slot = slots.get(name);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * Returns the current amount of slots in
+     * this layout
+     */
+    public int size() {
+        return size.get();
+    }
+
+}
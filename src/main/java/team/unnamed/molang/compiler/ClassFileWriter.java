@@ -0,0 +1,203 @@
+package team.unnamed.molang.compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JVM class file writer, it only supports the
+ * features required by {@link ScriptCompiler}: constant
+ * pool entries, methods and their code attribute
+ *
+ * <p>Classes are written using the Java 5 class file format
+ * (version 49.0) so the JVM verifies them by type inference
+ * and no stack map frames have to be computed</p>
+ */
+final class ClassFileWriter {
+
+    static final int ACC_PUBLIC = 0x0001;
+    static final int ACC_FINAL = 0x0010;
+    static final int ACC_SUPER = 0x0020;
+
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final int MAJOR_VERSION = 49;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELD_REF = 9;
+    private static final int CONSTANT_METHOD_REF = 10;
+    private static final int CONSTANT_INTERFACE_METHOD_REF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+    private static final int MAX_POOL_SIZE = 0xFFFF;
+
+    private final ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+    private final DataOutputStream pool = new DataOutputStream(poolBytes);
+    private final Map<String, Integer> poolIndexes = new HashMap<>();
+    private int poolSize = 1;
+
+    private final List<byte[]> methods = new ArrayList<>();
+
+    private final int thisClass;
+    private final int superClass;
+    private final int access;
+
+    ClassFileWriter(int access, String name, String superName) {
+        this.access = access;
+        this.thisClass = classRef(name);
+        this.superClass = classRef(superName);
+    }
+
+    //#region Constant pool
+    private int constant(String key, int slots, PoolWriter writer) {
+        Integer index = poolIndexes.get(key);
+        if (index != null) {
+            return index;
+        }
+        if (poolSize + slots > MAX_POOL_SIZE) {
+            throw new IllegalStateException("Constant pool too large");
+        }
+        try {
+            writer.write();
+        } catch (IOException e) {
+            // never happens, it's written to memory
+            throw new IllegalStateException(e);
+        }
+        index = poolSize;
+        poolSize += slots;
+        poolIndexes.put(key, index);
+        return index;
+    }
+
+    int utf8(String value) {
+        return constant("U" + value, 1, () -> {
+            pool.writeByte(CONSTANT_UTF8);
+            pool.writeUTF(value);
+        });
+    }
+
+    int doubleConstant(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        // doubles take two constant pool slots
+        return constant("D" + bits, 2, () -> {
+            pool.writeByte(CONSTANT_DOUBLE);
+            pool.writeLong(bits);
+        });
+    }
+
+    int string(String value) {
+        int utf8 = utf8(value);
+        return constant("S" + value, 1, () -> {
+            pool.writeByte(CONSTANT_STRING);
+            pool.writeShort(utf8);
+        });
+    }
+
+    int classRef(String internalName) {
+        int utf8 = utf8(internalName);
+        return constant("C" + internalName, 1, () -> {
+            pool.writeByte(CONSTANT_CLASS);
+            pool.writeShort(utf8);
+        });
+    }
+
+    private int nameAndType(String name, String descriptor) {
+        int nameIndex = utf8(name);
+        int descriptorIndex = utf8(descriptor);
+        return constant("N" + name + ' ' + descriptor, 1, () -> {
+            pool.writeByte(CONSTANT_NAME_AND_TYPE);
+            pool.writeShort(nameIndex);
+            pool.writeShort(descriptorIndex);
+        });
+    }
+
+    private int memberRef(int tag, String owner, String name, String descriptor) {
+        int ownerIndex = classRef(owner);
+        int nameAndType = nameAndType(name, descriptor);
+        return constant(tag + owner + '.' + name + ' ' + descriptor, 1, () -> {
+            pool.writeByte(tag);
+            pool.writeShort(ownerIndex);
+            pool.writeShort(nameAndType);
+        });
+    }
+
+    int fieldRef(String owner, String name, String descriptor) {
+        return memberRef(CONSTANT_FIELD_REF, owner, name, descriptor);
+    }
+
+    int methodRef(String owner, String name, String descriptor) {
+        return memberRef(CONSTANT_METHOD_REF, owner, name, descriptor);
+    }
+
+    int interfaceMethodRef(String owner, String name, String descriptor) {
+        return memberRef(CONSTANT_INTERFACE_METHOD_REF, owner, name, descriptor);
+    }
+    //#endregion
+
+    /**
+     * Adds a method with the given {@code code} to
+     * the written class
+     */
+    void addMethod(int access, String name, String descriptor, CodeWriter code) {
+        byte[] bytecode = code.toByteArray();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        try {
+            output.writeShort(access);
+            output.writeShort(utf8(name));
+            output.writeShort(utf8(descriptor));
+            output.writeShort(1); // attribute count
+
+            // Code attribute
+            output.writeShort(utf8("Code"));
+            output.writeInt(12 + bytecode.length);
+            output.writeShort(code.getMaxStack());
+            output.writeShort(code.getMaxLocals());
+            output.writeInt(bytecode.length);
+            output.write(bytecode);
+            output.writeShort(0); // exception table length
+            output.writeShort(0); // attribute count
+        } catch (IOException e) {
+            // never happens, it's written to memory
+            throw new IllegalStateException(e);
+        }
+        methods.add(bytes.toByteArray());
+    }
+
+    byte[] toByteArray() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        try {
+            output.writeInt(MAGIC);
+            output.writeShort(0); // minor version
+            output.writeShort(MAJOR_VERSION);
+            output.writeShort(poolSize);
+            output.write(poolBytes.toByteArray());
+            output.writeShort(access);
+            output.writeShort(thisClass);
+            output.writeShort(superClass);
+            output.writeShort(0); // interface count
+            output.writeShort(0); // field count
+            output.writeShort(methods.size());
+            for (byte[] method : methods) {
+                output.write(method);
+            }
+            output.writeShort(0); // attribute count
+        } catch (IOException e) {
+            // never happens, it's written to memory
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private interface PoolWriter {
+        void write() throws IOException;
+    }
+
+}
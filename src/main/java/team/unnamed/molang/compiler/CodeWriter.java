@@ -0,0 +1,191 @@
+package team.unnamed.molang.compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writer for the bytecode of a single method, it tracks
+ * the operand stack depth to compute the maximum stack
+ * size and resolves the jump offsets of {@link Label}s
+ *
+ * <p>Stack sizes are measured in slots, doubles
+ * take two slots</p>
+ */
+final class CodeWriter {
+
+    //#region Opcodes
+    static final int ICONST_0 = 0x03;
+    static final int ICONST_1 = 0x04;
+    static final int DCONST_0 = 0x0E;
+    static final int DCONST_1 = 0x0F;
+    static final int SIPUSH = 0x11;
+    static final int LDC_W = 0x13;
+    static final int LDC2_W = 0x14;
+    static final int DLOAD = 0x18;
+    static final int ALOAD = 0x19;
+    static final int AALOAD = 0x32;
+    static final int DSTORE = 0x39;
+    static final int ASTORE = 0x3A;
+    static final int POP2 = 0x58;
+    static final int DADD = 0x63;
+    static final int DSUB = 0x67;
+    static final int DMUL = 0x6B;
+    static final int DNEG = 0x77;
+    static final int IXOR = 0x82;
+    static final int I2D = 0x87;
+    static final int DCMPL = 0x97;
+    static final int DCMPG = 0x98;
+    static final int IFEQ = 0x99;
+    static final int IFNE = 0x9A;
+    static final int IFLT = 0x9B;
+    static final int IFGE = 0x9C;
+    static final int IFGT = 0x9D;
+    static final int IFLE = 0x9E;
+    static final int GOTO = 0xA7;
+    static final int DRETURN = 0xAF;
+    static final int RETURN = 0xB1;
+    static final int GETFIELD = 0xB4;
+    static final int INVOKEVIRTUAL = 0xB6;
+    static final int INVOKESPECIAL = 0xB7;
+    static final int INVOKESTATIC = 0xB8;
+    static final int INVOKEINTERFACE = 0xB9;
+    static final int IFNULL = 0xC6;
+    //#endregion
+
+    private static final int MAX_CODE_LENGTH = 0xFFFF;
+
+    private final ByteArrayOutputStream code = new ByteArrayOutputStream();
+    private final List<Jump> jumps = new ArrayList<>();
+
+    private final int maxLocals;
+    private int stack;
+    private int maxStack;
+
+    CodeWriter(int maxLocals) {
+        this.maxLocals = maxLocals;
+    }
+
+    private void adjustStack(int delta) {
+        stack += delta;
+        if (stack > maxStack) {
+            maxStack = stack;
+        }
+    }
+
+    private void writeShort(int value) {
+        code.write((value >>> 8) & 0xFF);
+        code.write(value & 0xFF);
+    }
+
+    /**
+     * Writes an instruction without operands that
+     * changes the stack depth by {@code stackDelta}
+     */
+    void op(int opcode, int stackDelta) {
+        code.write(opcode);
+        adjustStack(stackDelta);
+    }
+
+    /**
+     * Writes an instruction with a local variable
+     * index operand
+     */
+    void local(int opcode, int index, int stackDelta) {
+        code.write(opcode);
+        code.write(index);
+        adjustStack(stackDelta);
+    }
+
+    /**
+     * Writes an instruction with a constant pool
+     * index (or a short value) as operand
+     */
+    void indexed(int opcode, int index, int stackDelta) {
+        code.write(opcode);
+        writeShort(index);
+        adjustStack(stackDelta);
+    }
+
+    void invokeInterface(int methodRef, int argumentSlots, int stackDelta) {
+        code.write(INVOKEINTERFACE);
+        writeShort(methodRef);
+        // count includes the receiver
+        code.write(argumentSlots + 1);
+        code.write(0);
+        adjustStack(stackDelta);
+    }
+
+    /**
+     * Writes a jump instruction to the given {@code label},
+     * the stack depth is recorded so it can be restored when
+     * the label is placed after an unconditional jump
+     */
+    void jump(int opcode, Label label, int stackDelta) {
+        int position = code.size();
+        code.write(opcode);
+        writeShort(0); // patched in toByteArray()
+        adjustStack(stackDelta);
+        label.stack = stack;
+        jumps.add(new Jump(position, label));
+    }
+
+    /**
+     * Places the given {@code label} at the current
+     * code position
+     */
+    void place(Label label) {
+        label.position = code.size();
+        if (label.stack >= 0) {
+            stack = label.stack;
+        }
+    }
+
+    int getMaxStack() {
+        return maxStack;
+    }
+
+    int getMaxLocals() {
+        return maxLocals;
+    }
+
+    byte[] toByteArray() {
+        byte[] bytes = code.toByteArray();
+        if (bytes.length > MAX_CODE_LENGTH) {
+            throw new IllegalStateException("Method code too large");
+        }
+        for (Jump jump : jumps) {
+            int offset = jump.label.position - jump.position;
+            if (jump.label.position < 0 || offset != (short) offset) {
+                throw new IllegalStateException("Invalid jump offset");
+            }
+            bytes[jump.position + 1] = (byte) (offset >>> 8);
+            bytes[jump.position + 2] = (byte) offset;
+        }
+        return bytes;
+    }
+
+    /**
+     * Represents a position in the code that
+     * can be the target of jump instructions
+     */
+    static final class Label {
+
+        private int position = -1;
+        private int stack = -1;
+
+    }
+
+    private static final class Jump {
+
+        private final int position;
+        private final Label label;
+
+        private Jump(int position, Label label) {
+            this.position = position;
+            this.label = label;
+        }
+
+    }
+
+}
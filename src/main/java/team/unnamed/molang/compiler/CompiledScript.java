@@ -0,0 +1,130 @@
+package team.unnamed.molang.compiler;
+
+import team.unnamed.molang.EntityScope;
+import team.unnamed.molang.Script;
+import team.unnamed.molang.ast.Expression;
+import team.unnamed.molang.binding.ObjectBinding;
+import team.unnamed.molang.binding.RandomSource;
+import team.unnamed.molang.context.EvalContext;
+
+import java.util.SplittableRandom;
+
+/**
+ * Represents a {@link Script} compiled to JVM bytecode
+ * by a {@link ScriptCompiler}, the evaluation is a single
+ * method call that the JIT can compile as straight-line
+ * code
+ *
+ * <p>Compiled scripts are evaluated numerically, they
+ * always return a double, the same value returned by
+ * {@link Script#evalAsDouble}</p>
+ *
+ * <p>This class is public since generated classes are
+ * defined in their own class loader and must be able to
+ * extend it, it isn't meant to be extended by users</p>
+ */
+public abstract class CompiledScript {
+
+    private final Script script;
+
+    /**
+     * The expressions that couldn't be compiled to
+     * bytecode, generated code evaluates them using
+     * the interpreter
+     */
+    protected final Expression[] nodes;
+
+    protected CompiledScript(Script script, Expression[] nodes) {
+        this.script = script;
+        this.nodes = nodes;
+    }
+
+    /**
+     * Returns the source script of this
+     * compiled script, never null
+     */
+    public final Script getScript() {
+        return script;
+    }
+
+    /**
+     * Evaluates this compiled script using the
+     * given {@code context}
+     *
+     * @param context The evaluation context
+     * @return The evaluation result
+     */
+    public abstract double evaluate(EvalContext context);
+
+    /**
+     * Evaluates this compiled script using the bindings
+     * of the engine that compiled the source script
+     *
+     * @return The evaluation result
+     */
+    public final double evaluate() {
+        return evaluate(script.getEngine().createContext());
+    }
+
+    /**
+     * Evaluates this compiled script using the bindings
+     * of the engine that compiled the source script and
+     * the variables of the given entity {@code scope}
+     *
+     * @return The evaluation result
+     */
+    public final double evaluate(EntityScope scope) {
+        SplittableRandom random = scope.getRandom();
+        SplittableRandom previousRandom = random == null ? null : RandomSource.use(random);
+        try {
+            return evaluate(script.getEngine().createContext(scope));
+        } finally {
+            if (random != null) {
+                RandomSource.use(previousRandom);
+            }
+        }
+    }
+
+    //#region Runtime helpers for generated code
+    protected static double toDouble(Object value) {
+        if (value instanceof Boolean) {
+            return ((Boolean) value) ? 1 : 0;
+        } else if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        } else {
+            return 0;
+        }
+    }
+
+    protected static double getProperty(Object binding, String property) {
+        if (binding instanceof ObjectBinding) {
+            return toDouble(((ObjectBinding) binding).getProperty(property));
+        } else {
+            return 0;
+        }
+    }
+
+    protected static double divide(double dividend, double divisor) {
+        return divisor == 0 ? 0 : dividend / divisor;
+    }
+    //#endregion
+
+    /**
+     * Compiled script implementation that delegates to the
+     * interpreter, used when a script can't be compiled,
+     * e.g. when it exceeds the class file limits
+     */
+    static final class Interpreted extends CompiledScript {
+
+        Interpreted(Script script) {
+            super(script, new Expression[0]);
+        }
+
+        @Override
+        public double evaluate(EvalContext context) {
+            return getScript().evalAsDouble(context);
+        }
+
+    }
+
+}
@@ -0,0 +1,23 @@
+package team.unnamed.molang.compiler;
+
+/**
+ * Class loader for the classes generated by the
+ * {@link ScriptCompiler}, every compiled script
+ * has its own class loader, so the generated class
+ * can be unloaded when the script isn't used anymore
+ */
+final class ScriptClassLoader extends ClassLoader {
+
+    static {
+        registerAsParallelCapable();
+    }
+
+    ScriptClassLoader(ClassLoader parent) {
+        super(parent);
+    }
+
+    Class<?> define(String name, byte[] bytes) {
+        return defineClass(name, bytes, 0, bytes.length);
+    }
+
+}
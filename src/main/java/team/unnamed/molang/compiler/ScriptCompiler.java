@@ -0,0 +1,458 @@
+package team.unnamed.molang.compiler;
+
+import team.unnamed.molang.Script;
+import team.unnamed.molang.ast.Expression;
+import team.unnamed.molang.ast.NegationExpression;
+import team.unnamed.molang.ast.ReturnExpression;
+import team.unnamed.molang.ast.TernaryConditionalExpression;
+import team.unnamed.molang.ast.Tokens;
+import team.unnamed.molang.ast.WrappedExpression;
+import team.unnamed.molang.ast.binary.AccessExpression;
+import team.unnamed.molang.ast.binary.ConditionalExpression;
+import team.unnamed.molang.ast.binary.InfixExpression;
+import team.unnamed.molang.ast.composite.InfixChainExpression;
+import team.unnamed.molang.ast.simple.DoubleExpression;
+import team.unnamed.molang.ast.simple.IdentifierExpression;
+import team.unnamed.molang.ast.simple.RootIdentifierExpression;
+import team.unnamed.molang.ast.simple.StringExpression;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static team.unnamed.molang.compiler.CodeWriter.*;
+
+/**
+ * Compiles {@link Script}s to JVM classes, so they can be
+ * evaluated without walking the expression tree
+ *
+ * <p>Constants, arithmetic, comparisons, conditionals and
+ * property accesses on root bindings (e.g. {@code query.x})
+ * are compiled to bytecode, any other expression is kept
+ * in the compiled script and evaluated by the interpreter
+ * from the generated code</p>
+ *
+ * <p>Every generated class is defined in its own class
+ * loader, and no third-party library is required</p>
+ */
+public final class ScriptCompiler {
+
+    private static final String GENERATED_PACKAGE = "team/unnamed/molang/compiler/generated/";
+    private static final AtomicInteger CLASS_COUNTER = new AtomicInteger();
+
+    private static final String COMPILED_SCRIPT = "team/unnamed/molang/compiler/CompiledScript";
+    private static final String EXPRESSION = "team/unnamed/molang/ast/Expression";
+    private static final String EVAL_CONTEXT = "team/unnamed/molang/context/EvalContext";
+    private static final String CONSTRUCTOR_DESCRIPTOR
+            = "(Lteam/unnamed/molang/Script;[Lteam/unnamed/molang/ast/Expression;)V";
+    private static final String EVALUATE_DESCRIPTOR = "(L" + EVAL_CONTEXT + ";)D";
+
+    // local variable indexes of the evaluate method
+    private static final int THIS_LOCAL = 0;
+    private static final int CONTEXT_LOCAL = 1;
+    private static final int RETURN_VALUE_LOCAL = 2;
+    private static final int MAX_LOCALS = 3;
+
+    /**
+     * Compiles the given {@code script} to a new JVM class, if
+     * the script exceeds the class file limits, the returned
+     * compiled script delegates to the interpreter
+     *
+     * @param script The compiled script source
+     * @return The compiled script, never null
+     */
+    public CompiledScript compile(Script script) {
+        String className = GENERATED_PACKAGE + "Script" + CLASS_COUNTER.incrementAndGet();
+        byte[] bytes;
+        Expression[] nodes;
+
+        try {
+            Generator generator = new Generator(className);
+            bytes = generator.generate(script.getExpressions());
+            nodes = generator.nodes.toArray(new Expression[0]);
+        } catch (IllegalStateException e) {
+            // class file limits exceeded
+            return new CompiledScript.Interpreted(script);
+        }
+
+        ScriptClassLoader loader = new ScriptClassLoader(CompiledScript.class.getClassLoader());
+        Class<?> clazz = loader.define(className.replace('/', '.'), bytes);
+        try {
+            return (CompiledScript) clazz
+                    .getConstructor(Script.class, Expression[].class)
+                    .newInstance(script, nodes);
+        } catch (NoSuchMethodException | InstantiationException
+                | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Cannot instantiate generated script", e);
+        }
+    }
+
+    private static final class Generator {
+
+        private final ClassFileWriter writer;
+        private final List<Expression> nodes = new ArrayList<>();
+
+        private CodeWriter code;
+
+        // set when the current statement uses the interpreter,
+        // so it may have set a return value
+        private boolean interpreted;
+
+        private Generator(String className) {
+            this.writer = new ClassFileWriter(
+                    ClassFileWriter.ACC_PUBLIC | ClassFileWriter.ACC_FINAL | ClassFileWriter.ACC_SUPER,
+                    className,
+                    COMPILED_SCRIPT
+            );
+        }
+
+        private byte[] generate(List<Expression> expressions) {
+            // constructor, just calls super(script, nodes)
+            code = new CodeWriter(3);
+            code.local(ALOAD, 0, 1);
+            code.local(ALOAD, 1, 1);
+            code.local(ALOAD, 2, 1);
+            code.indexed(INVOKESPECIAL, writer.methodRef(COMPILED_SCRIPT, "<init>", CONSTRUCTOR_DESCRIPTOR), -3);
+            code.op(RETURN, 0);
+            writer.addMethod(ClassFileWriter.ACC_PUBLIC, "<init>", CONSTRUCTOR_DESCRIPTOR, code);
+
+            // evaluate(EvalContext) method
+            code = new CodeWriter(MAX_LOCALS);
+            for (int i = 0; i < expressions.size(); i++) {
+                Expression expression = expressions.get(i);
+
+                if (expression instanceof ReturnExpression) {
+                    Expression value = ((ReturnExpression) expression).getValue();
+                    if (Expression.isNumeric(value)) {
+                        compileDouble(value);
+                        code.op(DRETURN, -2);
+                        // next statements are unreachable
+                        break;
+                    }
+                }
+
+                interpreted = false;
+                compileDouble(expression);
+                if (interpreted) {
+                    compileReturnValueCheck();
+                }
+
+                if (i == expressions.size() - 1) {
+                    code.op(DRETURN, -2);
+                } else {
+                    // ignore result
+                    code.op(POP2, -2);
+                }
+            }
+            writer.addMethod(ClassFileWriter.ACC_PUBLIC, "evaluate", EVALUATE_DESCRIPTOR, code);
+            return writer.toByteArray();
+        }
+
+        /**
+         * Writes the code that returns the value set by a
+         * return expression evaluated by the interpreter,
+         * if any
+         */
+        private void compileReturnValueCheck() {
+            Label next = new Label();
+            code.local(ALOAD, CONTEXT_LOCAL, 1);
+            code.indexed(INVOKEVIRTUAL, writer.methodRef(EVAL_CONTEXT, "popReturnValue", "()Ljava/lang/Object;"), 0);
+            code.local(ASTORE, RETURN_VALUE_LOCAL, -1);
+            code.local(ALOAD, RETURN_VALUE_LOCAL, 1);
+            code.jump(IFNULL, next, -1);
+            code.local(ALOAD, RETURN_VALUE_LOCAL, 1);
+            code.indexed(INVOKESTATIC, writer.methodRef(COMPILED_SCRIPT, "toDouble", "(Ljava/lang/Object;)D"), 1);
+            code.op(DRETURN, -2);
+            code.place(next);
+        }
+
+        /**
+         * Writes the code that pushes the value of the given
+         * {@code expression} as a double to the stack
+         */
+        private void compileDouble(Expression expression) {
+            if (expression instanceof DoubleExpression) {
+                pushDouble(((DoubleExpression) expression).getValue());
+            } else if (expression instanceof StringExpression) {
+                // strings aren't numbers
+                code.op(DCONST_0, 2);
+            } else if (expression instanceof WrappedExpression) {
+                compileDouble(((WrappedExpression) expression).getExpression());
+            } else if (expression instanceof NegationExpression) {
+                NegationExpression negation = (NegationExpression) expression;
+                if (negation.getToken() == Tokens.EXCLAMATION) {
+                    compileBoolean(negation.getExpression());
+                    code.op(ICONST_1, 1);
+                    code.op(IXOR, -1);
+                    code.op(I2D, 1);
+                } else {
+                    compileDouble(negation.getExpression());
+                    code.op(DNEG, 0);
+                }
+            } else if (expression instanceof InfixExpression) {
+                compileInfix((InfixExpression) expression);
+            } else if (expression instanceof InfixChainExpression) {
+                compileChain((InfixChainExpression) expression);
+            } else if (expression instanceof TernaryConditionalExpression) {
+                TernaryConditionalExpression ternary = (TernaryConditionalExpression) expression;
+                Label otherwise = new Label();
+                Label end = new Label();
+                compileBoolean(ternary.getConditional());
+                code.jump(IFEQ, otherwise, -1);
+                compileDouble(ternary.getTrueExpression());
+                code.jump(GOTO, end, 0);
+                code.place(otherwise);
+                compileDouble(ternary.getFalseExpression());
+                code.place(end);
+            } else if (expression instanceof ConditionalExpression) {
+                ConditionalExpression conditional = (ConditionalExpression) expression;
+                Label otherwise = new Label();
+                Label end = new Label();
+                compileBoolean(conditional.getCondition());
+                code.jump(IFEQ, otherwise, -1);
+                compileDouble(conditional.getPredicate());
+                code.jump(GOTO, end, 0);
+                code.place(otherwise);
+                code.op(DCONST_0, 2);
+                code.place(end);
+            } else if (expression instanceof AccessExpression
+                    && ((AccessExpression) expression).getObject() instanceof IdentifierExpression) {
+                // root binding access, e.g. query.anim_time
+                AccessExpression access = (AccessExpression) expression;
+                Expression object = access.getObject();
+                if (object instanceof RootIdentifierExpression) {
+                    // linked, evaluated by the access node, which reads the
+                    // root value by its index and caches the property handle
+                    loadNode(access);
+                    code.invokeInterface(writer.interfaceMethodRef(EXPRESSION, "evalAsDouble", EVALUATE_DESCRIPTOR), 1, 0);
+                } else {
+                    String binding = ((IdentifierExpression) object).getIdentifier();
+                    code.local(ALOAD, CONTEXT_LOCAL, 1);
+                    code.indexed(LDC_W, writer.string(binding), 1);
+                    code.indexed(INVOKEVIRTUAL, writer.methodRef(
+                            EVAL_CONTEXT,
+                            "getBinding",
+                            "(Ljava/lang/String;)Ljava/lang/Object;"
+                    ), -1);
+                    code.indexed(LDC_W, writer.string(access.getProperty()), 1);
+                    code.indexed(INVOKESTATIC, writer.methodRef(
+                            COMPILED_SCRIPT,
+                            "getProperty",
+                            "(Ljava/lang/Object;Ljava/lang/String;)D"
+                    ), 0);
+                }
+            } else {
+                pushNode(expression);
+                code.invokeInterface(writer.interfaceMethodRef(EXPRESSION, "evalAsDouble", EVALUATE_DESCRIPTOR), 1, 0);
+            }
+        }
+
+        private void compileInfix(InfixExpression infix) {
+            switch (infix.getCode()) {
+                case InfixExpression.ADD:
+                    compileArithmetic(infix, DADD);
+                    break;
+                case InfixExpression.SUBTRACT:
+                    compileArithmetic(infix, DSUB);
+                    break;
+                case InfixExpression.MULTIPLY:
+                    compileArithmetic(infix, DMUL);
+                    break;
+                case InfixExpression.DIVIDE:
+                    compileDouble(infix.getLeft());
+                    compileDouble(infix.getRight());
+                    code.indexed(INVOKESTATIC, writer.methodRef(COMPILED_SCRIPT, "divide", "(DD)D"), -2);
+                    break;
+                default:
+                    // boolean operators and comparisons
+                    compileBoolean(infix);
+                    code.op(I2D, 1);
+                    break;
+            }
+        }
+
+        private void compileChain(InfixChainExpression chain) {
+            // evaluated from left to right, like the interpreter
+            List<Expression> terms = chain.getTerms();
+            compileDouble(terms.get(0));
+            for (int i = 1; i < terms.size(); i++) {
+                compileDouble(terms.get(i));
+                switch (chain.getCode(i)) {
+                    case InfixExpression.ADD:
+                        code.op(DADD, -2);
+                        break;
+                    case InfixExpression.SUBTRACT:
+                        code.op(DSUB, -2);
+                        break;
+                    case InfixExpression.MULTIPLY:
+                        code.op(DMUL, -2);
+                        break;
+                    default:
+                        code.indexed(INVOKESTATIC, writer.methodRef(COMPILED_SCRIPT, "divide", "(DD)D"), -2);
+                        break;
+                }
+            }
+        }
+
+        private void compileArithmetic(InfixExpression infix, int opcode) {
+            compileDouble(infix.getLeft());
+            compileDouble(infix.getRight());
+            code.op(opcode, -2);
+        }
+
+        /**
+         * Writes the code that pushes the value of the given
+         * {@code expression} as a boolean (an int, zero or one)
+         * to the stack
+         */
+        private void compileBoolean(Expression expression) {
+            if (expression instanceof DoubleExpression) {
+                code.op(((DoubleExpression) expression).getValue() == 0 ? ICONST_0 : ICONST_1, 1);
+            } else if (expression instanceof WrappedExpression) {
+                compileBoolean(((WrappedExpression) expression).getExpression());
+            } else if (expression instanceof NegationExpression) {
+                NegationExpression negation = (NegationExpression) expression;
+                if (negation.getToken() == Tokens.EXCLAMATION) {
+                    compileBoolean(negation.getExpression());
+                    code.op(ICONST_1, 1);
+                    code.op(IXOR, -1);
+                } else {
+                    compileDouble(negation.getExpression());
+                    doubleToBoolean();
+                }
+            } else if (expression instanceof InfixExpression) {
+                InfixExpression infix = (InfixExpression) expression;
+                switch (infix.getCode()) {
+                    case InfixExpression.AND:
+                    case InfixExpression.OR: {
+                        // the right operand is only evaluated if needed
+                        boolean and = infix.getCode() == InfixExpression.AND;
+                        Label shortCircuit = new Label();
+                        Label end = new Label();
+                        compileBoolean(infix.getLeft());
+                        code.jump(and ? IFEQ : IFNE, shortCircuit, -1);
+                        compileBoolean(infix.getRight());
+                        code.jump(GOTO, end, 0);
+                        code.place(shortCircuit);
+                        code.op(and ? ICONST_0 : ICONST_1, 1);
+                        code.place(end);
+                        break;
+                    }
+                    case InfixExpression.LESS_THAN:
+                        compileComparison(infix, DCMPG, IFGE);
+                        break;
+                    case InfixExpression.LESS_THAN_OR_EQUAL:
+                        compileComparison(infix, DCMPG, IFGT);
+                        break;
+                    case InfixExpression.GREATER_THAN:
+                        compileComparison(infix, DCMPL, IFLE);
+                        break;
+                    case InfixExpression.GREATER_THAN_OR_EQUAL:
+                        compileComparison(infix, DCMPL, IFLT);
+                        break;
+                    default:
+                        // arithmetic
+                        compileDouble(infix);
+                        doubleToBoolean();
+                        break;
+                }
+            } else if (expression instanceof InfixChainExpression) {
+                compileDouble(expression);
+                doubleToBoolean();
+            } else if (expression instanceof TernaryConditionalExpression) {
+                TernaryConditionalExpression ternary = (TernaryConditionalExpression) expression;
+                Label otherwise = new Label();
+                Label end = new Label();
+                compileBoolean(ternary.getConditional());
+                code.jump(IFEQ, otherwise, -1);
+                compileBoolean(ternary.getTrueExpression());
+                code.jump(GOTO, end, 0);
+                code.place(otherwise);
+                compileBoolean(ternary.getFalseExpression());
+                code.place(end);
+            } else {
+                pushNode(expression);
+                code.invokeInterface(writer.interfaceMethodRef(
+                        EXPRESSION,
+                        "evalAsBoolean",
+                        "(L" + EVAL_CONTEXT + ";)Z"
+                ), 1, -1);
+            }
+        }
+
+        /**
+         * Writes a comparison of the operands of the given
+         * {@code infix} expression, NaN comparisons are always
+         * false, the {@code compareOpcode} must be selected
+         * accordingly
+         */
+        private void compileComparison(InfixExpression infix, int compareOpcode, int jumpIfFalse) {
+            compileDouble(infix.getLeft());
+            compileDouble(infix.getRight());
+            code.op(compareOpcode, -3);
+            pushBoolean(jumpIfFalse);
+        }
+
+        private void doubleToBoolean() {
+            code.op(DCONST_0, 2);
+            code.op(DCMPL, -3);
+            pushBoolean(IFEQ);
+        }
+
+        /**
+         * Consumes the int at the top of the stack and
+         * pushes zero if the given jump is taken, one
+         * otherwise
+         */
+        private void pushBoolean(int jumpIfFalse) {
+            Label otherwise = new Label();
+            Label end = new Label();
+            code.jump(jumpIfFalse, otherwise, -1);
+            code.op(ICONST_1, 1);
+            code.jump(GOTO, end, 0);
+            code.place(otherwise);
+            code.op(ICONST_0, 1);
+            code.place(end);
+        }
+
+        private void pushDouble(double value) {
+            if (Double.doubleToRawLongBits(value) == 0L) {
+                code.op(DCONST_0, 2);
+            } else if (value == 1D) {
+                code.op(DCONST_1, 2);
+            } else {
+                code.indexed(LDC2_W, writer.doubleConstant(value), 2);
+            }
+        }
+
+        /**
+         * Pushes the given {@code expression} and the context to
+         * the stack, so it can be evaluated by the interpreter
+         */
+        private void pushNode(Expression expression) {
+            loadNode(expression);
+            interpreted = true;
+        }
+
+        /**
+         * Pushes the given {@code expression} and the context to
+         * the stack, without marking the statement as interpreted
+         */
+        private void loadNode(Expression expression) {
+            int index = nodes.size();
+            if (index > Short.MAX_VALUE) {
+                throw new IllegalStateException("Too many interpreted nodes");
+            }
+            nodes.add(expression);
+
+            code.local(ALOAD, THIS_LOCAL, 1);
+            code.indexed(GETFIELD, writer.fieldRef(COMPILED_SCRIPT, "nodes", "[L" + EXPRESSION + ";"), 0);
+            code.indexed(SIPUSH, index, 1);
+            code.op(AALOAD, -1);
+            code.local(ALOAD, CONTEXT_LOCAL, 1);
+        }
+
+    }
+
+}
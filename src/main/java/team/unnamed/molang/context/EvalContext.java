@@ -2,17 +2,88 @@ package team.unnamed.molang.context;
 
 import javax.script.Bindings;
 
+/**
+ * The state of a script evaluation: its root bindings
+ * and its return value
+ *
+ * <p>Root bindings are either stored in an array, indexed
+ * as defined by a {@link RootLayout}, or in a {@link Bindings}
+ * map. Expressions linked to a layout read the array directly,
+ * without hashing names</p>
+ */
 public class EvalContext {
 
     private final Bindings bindings;
+    private final RootLayout layout;
+    private final Object[] values;
     private Object returnValue;
 
     public EvalContext(Bindings bindings) {
         this.bindings = bindings;
+        this.layout = null;
+        this.values = null;
+    }
+
+    /**
+     * Creates a new evaluation context whose root bindings
+     * are the given {@code values}, indexed as defined by
+     * the given {@code layout}
+     *
+     * @param layout The root layout
+     * @param values The root values, not copied
+     */
+    public EvalContext(RootLayout layout, Object[] values) {
+        if (values.length != layout.size()) {
+            throw new IllegalArgumentException("Expected " + layout.size()
+                    + " root values, got " + values.length);
+        }
+        this.bindings = null;
+        this.layout = layout;
+        this.values = values;
     }
 
     public Object getBinding(String name) {
-        return bindings.get(name);
+        if (layout == null) {
+            return bindings.get(name);
+        }
+        int index = layout.indexOf(name);
+        return index == -1 ? null : values[index];
+    }
+
+    /**
+     * Returns the layout of the root bindings of this
+     * context, or null if they are stored in a map
+     */
+    public RootLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Returns the root binding at the given {@code index}
+     * of the layout of this context
+     *
+     * @throws IllegalStateException If this context
+     * has no layout
+     */
+    public Object getBinding(int index) {
+        if (values == null) {
+            throw new IllegalStateException("Context has no root layout");
+        }
+        return values[index];
+    }
+
+    /**
+     * Sets the root binding at the given {@code index}
+     * of the layout of this context
+     *
+     * @throws IllegalStateException If this context
+     * has no layout
+     */
+    public void setBinding(int index, Object value) {
+        if (values == null) {
+            throw new IllegalStateException("Context has no root layout");
+        }
+        values[index] = value;
     }
 
     /**
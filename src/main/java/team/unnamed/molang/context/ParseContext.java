@@ -1,44 +1,41 @@
 package team.unnamed.molang.context;
 
-import team.unnamed.molang.parser.ParseException;
 import team.unnamed.molang.ast.Tokens;
 
-import java.io.IOException;
-import java.io.Reader;
-
 /**
  * Represents a data object for tracking
  * information across all the parsed expressions
+ *
+ * <p>The script source is read by index from a
+ * {@link CharSequence}, without copying it, the
+ * {@link ScriptCursor} (line and column) is only
+ * computed when requested, e.g. when an error is
+ * found</p>
  */
 public class ParseContext {
 
-    private final ScriptCursor cursor = new ScriptCursor();
-    private final Reader reader;
+    private final CharSequence source;
+    private final int length;
 
+    // offset of the current character
+    private int offset = -1;
     private int current;
 
-    public ParseContext(Reader reader) {
-        this.reader = reader;
+    public ParseContext(CharSequence source) {
+        this.source = source;
+        this.length = source.length();
     }
 
     /**
-     * Wrapper for {@link Reader#read()}, will throw
-     * a {@link ParseException} instead of a {@link IOException}
-     * if an error occurs
+     * Reads the next character, returns -1
+     * if the end of the source was reached
      */
-    public int next() throws ParseException {
-        try {
-            int value = current = reader.read();
-            if (value != -1) {
-                cursor.add(value);
-            }
-            return value;
-        } catch (IOException e) {
-            throw new ParseException(
-                    "Error while reading characters from stream",
-                    e,
-                    cursor
-            );
+    public int next() {
+        if (++offset < length) {
+            return current = source.charAt(offset);
+        } else {
+            offset = length;
+            return current = -1;
         }
     }
 
@@ -47,7 +44,7 @@ public class ParseContext {
      * again while the read char is whitespace
      * @see Tokens#isWhitespace(int)
      */
-    public int nextNoWhitespace() throws ParseException {
+    public int nextNoWhitespace() {
         int value;
         do {
             value = next();
@@ -60,7 +57,7 @@ public class ParseContext {
      * but it won't call {@link ParseContext#next()} if
      * current character isn't whitespace
      */
-    public int skipWhitespace() throws ParseException {
+    public int skipWhitespace() {
         int localCurrent = current;
         while (Tokens.isWhitespace(localCurrent)) {
             localCurrent = next();
@@ -72,7 +69,49 @@ public class ParseContext {
         return current;
     }
 
+    /**
+     * Returns the offset of the current character in
+     * the source, or the source length if the end
+     * was reached
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Returns the parsed source, never null
+     */
+    public CharSequence getSource() {
+        return source;
+    }
+
+    /**
+     * Returns the source characters from {@code start}
+     * (inclusive) to {@code end} (exclusive) as a string
+     */
+    public String substring(int start, int end) {
+        return source.subSequence(start, end).toString();
+    }
+
+    /**
+     * Computes the cursor of the current character,
+     * from the start of the source, this shouldn't be
+     * called in hot paths
+     */
     public ScriptCursor getCursor() {
+        return getCursor(offset);
+    }
+
+    /**
+     * Computes the cursor of the character at the given
+     * {@code offset}, from the start of the source
+     */
+    public ScriptCursor getCursor(int offset) {
+        ScriptCursor cursor = new ScriptCursor();
+        int end = Math.min(offset + 1, length);
+        for (int i = 0; i < end; i++) {
+            cursor.add(source.charAt(i));
+        }
         return cursor;
     }
 
@@ -0,0 +1,111 @@
+package team.unnamed.molang.context;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns fixed indices to the root names of the scripts
+ * compiled by an engine, i.e. the standard bindings
+ * ('query', 'math', 'variable', 'temp' and 'context') and
+ * the custom global bindings, so linked scripts read them
+ * from an array instead of looking them up by name
+ *
+ * <p>The standard bindings can also be accessed by
+ * their aliases: 'q', 'v', 't' and 'c'. Layouts are
+ * immutable</p>
+ *
+ * @see EvalContext#getBinding(int)
+ */
+public final class RootLayout {
+
+    public static final int QUERY = 0;
+    public static final int MATH = 1;
+    public static final int VARIABLE = 2;
+    public static final int TEMP = 3;
+    public static final int CONTEXT = 4;
+
+    private static final String[] STANDARD_NAMES = {
+            "query", "math", "variable", "temp", "context"
+    };
+
+    private final Map<String, Integer> indices = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+
+    /**
+     * Creates a layout with the standard bindings
+     * and the given custom global binding names
+     *
+     * @param globals The global binding names, standard
+     *                names and aliases are ignored
+     */
+    public RootLayout(Collection<String> globals) {
+        for (String name : STANDARD_NAMES) {
+            add(name);
+        }
+        indices.put("q", QUERY);
+        indices.put("v", VARIABLE);
+        indices.put("t", TEMP);
+        indices.put("c", CONTEXT);
+
+        for (String name : globals) {
+            if (!indices.containsKey(name)) {
+                add(name);
+            }
+        }
+    }
+
+    private void add(String name) {
+        indices.put(name, names.size());
+        names.add(name);
+    }
+
+    /**
+     * Returns the index of the given root {@code name}
+     * or alias, or -1 if it isn't part of this layout
+     */
+    public int indexOf(String name) {
+        Integer index = indices.get(name);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Returns the name of the root binding at the given
+     * {@code index}, aliases are never returned
+     */
+    public String getName(int index) {
+        return names.get(index);
+    }
+
+    /**
+     * Returns the names of the root bindings
+     * of this layout, sorted by index
+     */
+    public List<String> getNames() {
+        return Collections.unmodifiableList(names);
+    }
+
+    /**
+     * Returns the amount of root bindings
+     */
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * Creates the array of root values of this layout,
+     * taking them from the given {@code bindings} by
+     * name, missing bindings are null
+     */
+    public Object[] createValues(Map<String, ?> bindings) {
+        Object[] values = new Object[names.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = bindings.get(names.get(i));
+        }
+        return values;
+    }
+
+}
@@ -0,0 +1,138 @@
+package team.unnamed.molang.linker;
+
+import team.unnamed.molang.ast.Expression;
+import team.unnamed.molang.ast.ExpressionTransformer;
+import team.unnamed.molang.ast.binary.AccessExpression;
+import team.unnamed.molang.ast.binary.StorageAccessExpression;
+import team.unnamed.molang.ast.composite.CallExpression;
+import team.unnamed.molang.ast.composite.MathIntrinsics;
+import team.unnamed.molang.ast.simple.IdentifierExpression;
+import team.unnamed.molang.ast.simple.RootIdentifierExpression;
+import team.unnamed.molang.binding.MathBinding;
+import team.unnamed.molang.binding.StorageLayout;
+import team.unnamed.molang.context.RootLayout;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves the names used by parsed scripts to the locations
+ * used at evaluation time, so they are resolved once instead
+ * of in every evaluation
+ *
+ * <p>Currently, it resolves the root names (and their aliases)
+ * to indices of the root layout, see {@link RootIdentifierExpression},
+ * the properties of the 'variable' and 'temp' storages to slots
+ * in their layouts, see {@link StorageAccessExpression}, and
+ * replaces calls to the functions of the standard 'math' binding
+ * with intrinsics, see {@link MathIntrinsics}</p>
+ */
+public final class ScriptLinker {
+
+    private final RootLayout rootLayout;
+    private final StorageLayout variableLayout;
+    private final StorageLayout tempLayout;
+
+    // null if 'math' isn't the standard math binding
+    private final MathBinding math;
+
+    private final Transformer transformer = new Transformer();
+
+    public ScriptLinker(
+            StorageLayout variableLayout,
+            StorageLayout tempLayout,
+            Map<String, Object> globalBindings
+    ) {
+        this(new RootLayout(globalBindings.keySet()), variableLayout, tempLayout, globalBindings);
+    }
+
+    public ScriptLinker(
+            RootLayout rootLayout,
+            StorageLayout variableLayout,
+            StorageLayout tempLayout,
+            Map<String, Object> globalBindings
+    ) {
+        this.rootLayout = rootLayout;
+        this.variableLayout = variableLayout;
+        this.tempLayout = tempLayout;
+
+        Object math = globalBindings.get("math");
+        // subclasses may override the functions
+        this.math = math != null && math.getClass() == MathBinding.class
+                ? (MathBinding) math
+                : null;
+    }
+
+    /**
+     * Links the given script expressions
+     *
+     * @param expressions The script expressions
+     * @return The linked expressions
+     */
+    public List<Expression> link(List<Expression> expressions) {
+        return transformer.transform(expressions);
+    }
+
+    private class Transformer extends ExpressionTransformer {
+
+        @Override
+        public Expression visitIdentifier(IdentifierExpression expression) {
+            if (expression instanceof RootIdentifierExpression) {
+                return expression;
+            }
+            int index = rootLayout.indexOf(expression.getIdentifier());
+            return index == -1 ? expression : new RootIdentifierExpression(rootLayout, index);
+        }
+
+        @Override
+        public Expression visitAccess(AccessExpression expression) {
+            if (expression instanceof StorageAccessExpression) {
+                return expression;
+            }
+            // links the object first, resolving aliases
+            expression = (AccessExpression) super.visitAccess(expression);
+            if (!(expression.getObject() instanceof IdentifierExpression)) {
+                return expression;
+            }
+
+            IdentifierExpression object = (IdentifierExpression) expression.getObject();
+            StorageLayout layout;
+            switch (object.getIdentifier()) {
+                case "variable":
+                    layout = variableLayout;
+                    break;
+                case "temp":
+                    layout = tempLayout;
+                    break;
+                default:
+                    return expression;
+            }
+            return new StorageAccessExpression(object, expression.getProperty(), layout);
+        }
+
+        @Override
+        public Expression visitCall(CallExpression expression) {
+            Expression result = super.visitCall(expression);
+            if (math == null
+                    || result instanceof MathIntrinsics.Intrinsic
+                    || !(result instanceof CallExpression)) {
+                return result;
+            }
+
+            CallExpression call = (CallExpression) result;
+            if (!(call.getFunction() instanceof AccessExpression)) {
+                return result;
+            }
+            Expression object = ((AccessExpression) call.getFunction()).getObject();
+            if (!(object instanceof IdentifierExpression)
+                    || !((IdentifierExpression) object).getIdentifier().equals("math")) {
+                return result;
+            }
+
+            CallExpression intrinsic = MathIntrinsics.create(call, math);
+            return intrinsic == null ? result : intrinsic;
+        }
+
+    }
+
+}
@@ -0,0 +1,256 @@
+package team.unnamed.molang.optimizer;
+
+import team.unnamed.molang.ast.Expression;
+import team.unnamed.molang.ast.ExpressionTransformer;
+import team.unnamed.molang.ast.NegationExpression;
+import team.unnamed.molang.ast.ReturnExpression;
+import team.unnamed.molang.ast.TernaryConditionalExpression;
+import team.unnamed.molang.ast.WrappedExpression;
+import team.unnamed.molang.ast.binary.AccessExpression;
+import team.unnamed.molang.ast.binary.AssignExpression;
+import team.unnamed.molang.ast.binary.ConditionalExpression;
+import team.unnamed.molang.ast.binary.InfixExpression;
+import team.unnamed.molang.ast.composite.CallExpression;
+import team.unnamed.molang.ast.composite.InfixChainExpression;
+import team.unnamed.molang.ast.simple.DoubleExpression;
+import team.unnamed.molang.ast.simple.IdentifierExpression;
+import team.unnamed.molang.binding.MathBinding;
+import team.unnamed.molang.context.EvalContext;
+
+import javax.script.SimpleBindings;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Optimization pass executed between parsing and evaluation,
+ * it reduces the amount of work done in every evaluation:
+ *
+ * <ul>
+ *     <li>Constant subtrees are folded to a single
+ *     {@link DoubleExpression}, e.g. {@code (1 + 1) * 2}</li>
+ *     <li>Conditionals with a constant condition are replaced
+ *     by the taken branch, e.g. {@code true ? 10 : x}</li>
+ *     <li>{@link WrappedExpression}s are removed</li>
+ *     <li>Pure {@link MathBinding} properties and function calls
+ *     with constant arguments are evaluated, e.g. {@code math.pi}
+ *     or {@code math.cos(90)}</li>
+ *     <li>Scripts that are evaluated to a constant are reduced
+ *     to a single literal</li>
+ * </ul>
+ *
+ * <p>Folded expressions are evaluated using the same code used
+ * at evaluation time, so results are never changed. Note that
+ * {@link Expression#toSource()} may be different for optimized
+ * expressions</p>
+ */
+public final class ScriptOptimizer {
+
+    private final Map<String, Object> globalBindings;
+
+    /**
+     * Creates a new optimizer that assumes the given global bindings,
+     * the optimized scripts must be evaluated using them
+     *
+     * @param globalBindings The global bindings, e.g. "math"
+     */
+    public ScriptOptimizer(Map<String, Object> globalBindings) {
+        this.globalBindings = new HashMap<>(globalBindings);
+    }
+
+    /**
+     * Optimizes the given script expressions
+     *
+     * @param expressions The script expressions
+     * @return The optimized expressions, never empty
+     */
+    public List<Expression> optimize(List<Expression> expressions) {
+        // folded expressions are evaluated using a new context,
+        // so scripts can be optimized concurrently
+        EvalContext constantContext = new EvalContext(new SimpleBindings(globalBindings));
+        List<Expression> folded = new Folder(constantContext).transform(expressions);
+        List<Expression> optimized = new ArrayList<>(folded.size());
+
+        int last = folded.size() - 1;
+        for (int i = 0; i <= last; i++) {
+            Expression expression = folded.get(i);
+            if (expression instanceof ReturnExpression
+                    && ((ReturnExpression) expression).getValue() instanceof DoubleExpression) {
+                // constant return, next statements are never evaluated,
+                // and its value can be the result of the last statement
+                optimized.add(((ReturnExpression) expression).getValue());
+                break;
+            } else if (i != last && expression instanceof DoubleExpression) {
+                // constant statement whose result isn't used,
+                // it has no side effects
+                continue;
+            }
+            optimized.add(expression);
+        }
+
+        return optimized;
+    }
+
+    /**
+     * Determines whether the given {@code expression} evaluates to a
+     * pure {@link MathBinding} property, e.g. {@code math.cos}
+     */
+    private boolean isPureMathProperty(Expression expression) {
+        if (!(expression instanceof AccessExpression)) {
+            return false;
+        }
+        AccessExpression access = (AccessExpression) expression;
+        if (!(access.getObject() instanceof IdentifierExpression)) {
+            return false;
+        }
+        Object binding = globalBindings.get(((IdentifierExpression) access.getObject()).getIdentifier());
+        return binding instanceof MathBinding
+                && ((MathBinding) binding).isPure(access.getProperty());
+    }
+
+    private static boolean isConstant(Expression expression) {
+        return expression instanceof DoubleExpression;
+    }
+
+    private static boolean areConstant(List<Expression> expressions) {
+        for (Expression expression : expressions) {
+            if (!isConstant(expression)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Evaluates the given expression and wraps its result into
+     * a {@link DoubleExpression} if it's a number, returns the
+     * given {@code expression} otherwise
+     */
+    private static Expression fold(Expression expression, EvalContext constantContext) {
+        Object value;
+        try {
+            value = expression.eval(constantContext);
+        } catch (RuntimeException e) {
+            // e.g. invalid function arguments, keep the
+            // expression so it fails when evaluated
+            return expression;
+        }
+        if (value instanceof Number) {
+            return new DoubleExpression(((Number) value).doubleValue());
+        } else {
+            return expression;
+        }
+    }
+
+    private class Folder extends ExpressionTransformer {
+
+        private final EvalContext constantContext;
+
+        private Folder(EvalContext constantContext) {
+            this.constantContext = constantContext;
+        }
+
+        private Expression fold(Expression expression) {
+            return ScriptOptimizer.fold(expression, constantContext);
+        }
+
+        @Override
+        public Expression visitWrapped(WrappedExpression expression) {
+            return transform(expression.getExpression());
+        }
+
+        @Override
+        public Expression visitAssign(AssignExpression expression) {
+            // the assigned expression is kept as written, e.g.
+            // '(variable.x) = 1' doesn't assign anything
+            Expression value = transform(expression.getValue());
+            return value == expression.getValue()
+                    ? expression
+                    : new AssignExpression(expression.getVariable(), value);
+        }
+
+        @Override
+        public Expression visitNegation(NegationExpression expression) {
+            Expression result = super.visitNegation(expression);
+            NegationExpression negation = (NegationExpression) result;
+            return isConstant(negation.getExpression()) ? fold(negation) : negation;
+        }
+
+        @Override
+        public Expression visitInfix(InfixExpression expression) {
+            InfixExpression infix = (InfixExpression) super.visitInfix(expression);
+            return isConstant(infix.getLeft()) && isConstant(infix.getRight())
+                    ? fold(infix)
+                    : infix;
+        }
+
+        @Override
+        public Expression visitInfixChain(InfixChainExpression expression) {
+            InfixChainExpression chain = (InfixChainExpression) super.visitInfixChain(expression);
+            List<Expression> terms = chain.getTerms();
+            int constants = 0;
+            while (constants < terms.size() && isConstant(terms.get(constants))) {
+                constants++;
+            }
+            if (constants == terms.size()) {
+                return fold(chain);
+            } else if (constants < 2) {
+                return chain;
+            }
+
+            // the chain is evaluated from left to right, so
+            // its constant prefix can be folded
+            int[] codes = chain.getCodes();
+            Expression prefix = fold(new InfixChainExpression(
+                    terms.subList(0, constants),
+                    Arrays.copyOf(codes, constants - 1)
+            ));
+            List<Expression> folded = new ArrayList<>(terms.size() - constants + 1);
+            folded.add(prefix);
+            folded.addAll(terms.subList(constants, terms.size()));
+            return new InfixChainExpression(folded, Arrays.copyOfRange(codes, constants - 1, codes.length));
+        }
+
+        @Override
+        public Expression visitTernaryConditional(TernaryConditionalExpression expression) {
+            TernaryConditionalExpression ternary = (TernaryConditionalExpression) super.visitTernaryConditional(expression);
+            Expression conditional = ternary.getConditional();
+            if (isConstant(conditional)) {
+                return conditional.evalAsBoolean(constantContext)
+                        ? ternary.getTrueExpression()
+                        : ternary.getFalseExpression();
+            }
+            return ternary;
+        }
+
+        @Override
+        public Expression visitConditional(ConditionalExpression expression) {
+            ConditionalExpression conditional = (ConditionalExpression) super.visitConditional(expression);
+            Expression condition = conditional.getCondition();
+            if (isConstant(condition)) {
+                return condition.evalAsBoolean(constantContext)
+                        ? conditional.getPredicate()
+                        : new DoubleExpression(0);
+            }
+            return conditional;
+        }
+
+        @Override
+        public Expression visitAccess(AccessExpression expression) {
+            AccessExpression access = (AccessExpression) super.visitAccess(expression);
+            return isPureMathProperty(access) ? fold(access) : access;
+        }
+
+        @Override
+        public Expression visitCall(CallExpression expression) {
+            CallExpression call = (CallExpression) super.visitCall(expression);
+            return isPureMathProperty(call.getFunction()) && areConstant(call.getArguments())
+                    ? fold(call)
+                    : call;
+        }
+
+    }
+
+}
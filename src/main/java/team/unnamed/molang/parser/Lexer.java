@@ -0,0 +1,273 @@
+package team.unnamed.molang.parser;
+
+import team.unnamed.molang.ast.Tokens;
+import team.unnamed.molang.context.ParseContext;
+import team.unnamed.molang.context.ScriptCursor;
+
+/**
+ * Splits a script source in tokens, on demand, so the
+ * parser reads one token at a time. Tokens are stored as
+ * a kind code (the constants defined in this class) and the
+ * offsets of their characters, only identifiers, numbers
+ * and strings have a value
+ *
+ * <p>Identifiers are case-folded and interned by a
+ * {@link SymbolTable}, numbers are correctly rounded
+ * to the nearest double</p>
+ */
+final class Lexer {
+
+    //#region Token kinds
+    static final int END = 0;
+    static final int IDENTIFIER = 1;
+    static final int NUMBER = 2;
+    static final int STRING = 3;
+    static final int OPEN_PAREN = 4;
+    static final int CLOSE_PAREN = 5;
+    static final int OPEN_BRACE = 6;
+    static final int CLOSE_BRACE = 7;
+    static final int COMMA = 8;
+    static final int SEMICOLON = 9;
+    static final int DOT = 10;
+    static final int PLUS = 11;
+    static final int MINUS = 12;
+    static final int STAR = 13;
+    static final int SLASH = 14;
+    static final int AND = 15;
+    static final int OR = 16;
+    static final int LESS = 17;
+    static final int LESS_EQUAL = 18;
+    static final int GREATER = 19;
+    static final int GREATER_EQUAL = 20;
+    static final int ASSIGN = 21;
+    static final int QUESTION = 22;
+    static final int DOUBLE_QUESTION = 23;
+    static final int COLON = 24;
+    static final int EXCLAMATION = 25;
+    // a character that doesn't start any token
+    static final int UNKNOWN = 26;
+    //#endregion
+
+    // the largest significand and power of ten that are exact
+    // doubles, used by the fast path of the number scanner
+    private static final long MAX_EXACT_SIGNIFICAND = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20,
+            1e21, 1e22
+    };
+
+    private final ParseContext context;
+    private final SymbolTable symbols;
+
+    private int kind;
+    private int start;
+    private int end;
+    private String symbol;
+    private double number;
+
+    Lexer(CharSequence source, SymbolTable symbols) {
+        this.context = new ParseContext(source);
+        this.symbols = symbols;
+        context.next();
+    }
+
+    /**
+     * Reads the next token and returns its kind
+     */
+    int next() throws ParseException {
+        int current = context.skipWhitespace();
+        start = context.getOffset();
+        symbol = null;
+
+        if (current == -1) {
+            end = start;
+            return kind = END;
+        } else if (Tokens.isValidForIdentifier(current)) {
+            do {
+                current = context.next();
+            } while (Tokens.isValidIdentifierContinuation(current));
+            end = context.getOffset();
+            symbol = symbols.intern(context.getSource(), start, end);
+            return kind = IDENTIFIER;
+        } else if (isDigit(current)) {
+            number = scanNumber();
+            end = context.getOffset();
+            return kind = NUMBER;
+        } else if (current == Tokens.QUOTE) {
+            do {
+                current = context.next();
+            } while (current != Tokens.QUOTE && current != -1);
+
+            // it must be closed with 'QUOTE'
+            if (current == -1) {
+                throw new ParseException(
+                        "Found the end before the closing quote",
+                        context.getCursor()
+                );
+            }
+            symbol = context.substring(start + 1, context.getOffset());
+            context.next();
+            end = context.getOffset();
+            return kind = STRING;
+        }
+
+        int kind;
+        switch (current) {
+            case '(': kind = OPEN_PAREN; break;
+            case ')': kind = CLOSE_PAREN; break;
+            case '{': kind = OPEN_BRACE; break;
+            case '}': kind = CLOSE_BRACE; break;
+            case ',': kind = COMMA; break;
+            case ';': kind = SEMICOLON; break;
+            case '.': kind = DOT; break;
+            case '+': kind = PLUS; break;
+            case '-': kind = MINUS; break;
+            case '*': kind = STAR; break;
+            case '/': kind = SLASH; break;
+            case ':': kind = COLON; break;
+            case '=': kind = ASSIGN; break;
+            case '!': kind = EXCLAMATION; break;
+            case '&': kind = AND; break;
+            case '|': kind = OR; break;
+            case '<': kind = LESS; break;
+            case '>': kind = GREATER; break;
+            case '?': kind = QUESTION; break;
+            default:
+                // not consumed
+                end = start;
+                return this.kind = UNKNOWN;
+        }
+
+        int next = context.next();
+        switch (kind) {
+            case AND:
+                expect(next, Tokens.AMPERSAND);
+                context.next();
+                break;
+            case OR:
+                expect(next, Tokens.LINE);
+                context.next();
+                break;
+            case LESS:
+            case GREATER:
+                if (next == '=') {
+                    kind = kind == LESS ? LESS_EQUAL : GREATER_EQUAL;
+                    context.next();
+                }
+                break;
+            case QUESTION:
+                if (next == '?') {
+                    kind = DOUBLE_QUESTION;
+                    context.next();
+                }
+                break;
+        }
+        end = context.getOffset();
+        return this.kind = kind;
+    }
+
+    private void expect(int current, char expected) throws ParseException {
+        if (current != expected) {
+            throw new ParseException(
+                    "Unexpected token: '" + (char) current + "'. Expected: '" + expected + '\'',
+                    context.getCursor()
+            );
+        }
+    }
+
+    /**
+     * Scans a number literal, digits optionally followed by
+     * a point and more digits. The number is exactly computed
+     * when both its digits and its power of ten are exact
+     * doubles (Clinger's fast path), otherwise it's parsed
+     * by {@link Double#parseDouble}, correctly rounded too
+     */
+    private double scanNumber() throws ParseException {
+        int start = context.getOffset();
+        int current = context.getCurrent();
+        long significand = 0;
+        int fractionDigits = 0;
+        boolean fraction = false;
+        boolean exact = true;
+
+        while (true) {
+            if (isDigit(current)) {
+                if (significand <= (MAX_EXACT_SIGNIFICAND - 9) / 10) {
+                    significand = significand * 10 + (current - '0');
+                } else {
+                    exact = false;
+                }
+                if (fraction) {
+                    fractionDigits++;
+                }
+            } else if (current == Tokens.DOT) {
+                if (fraction) {
+                    throw new ParseException(
+                            "Numbers can't have multiple floating points!",
+                            context.getCursor()
+                    );
+                }
+                fraction = true;
+            } else {
+                break;
+            }
+            current = context.next();
+        }
+
+        if (exact && fractionDigits < POWERS_OF_TEN.length) {
+            return significand / POWERS_OF_TEN[fractionDigits];
+        } else {
+            return Double.parseDouble(context.substring(start, context.getOffset()));
+        }
+    }
+
+    private static boolean isDigit(int c) {
+        return '0' <= c && c <= '9';
+    }
+
+    /**
+     * Returns the kind of the current token
+     */
+    int getKind() {
+        return kind;
+    }
+
+    /**
+     * Returns the identifier or string value of the
+     * current token, identifiers are interned and
+     * in lower case
+     */
+    String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Returns the value of the current number token
+     */
+    double getNumber() {
+        return number;
+    }
+
+    /**
+     * Returns the source text of the current token, or the
+     * current character if it doesn't start any token
+     */
+    String getText() {
+        if (kind == END) {
+            return "<end>";
+        } else if (kind == UNKNOWN) {
+            return String.valueOf((char) context.getCurrent());
+        }
+        return context.substring(start, end);
+    }
+
+    /**
+     * Returns the cursor of the current token,
+     * computed from the start of the source
+     */
+    ScriptCursor getCursor() {
+        return context.getCursor(start);
+    }
+
+}
@@ -3,6 +3,8 @@ package team.unnamed.molang.parser;
 import team.unnamed.molang.ast.Expression;
 
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.util.List;
 
 /**
@@ -24,4 +26,43 @@ public interface MoLangParser {
      */
     List<Expression> parse(Reader reader) throws ParseException;
 
+    /**
+     * Parses the given {@code source} to a {@link List}
+     * of {@link Expression}, the characters are read by
+     * index, without copying them
+     *
+     * @throws ParseException If there are syntax
+     * errors in the script
+     */
+    List<Expression> parse(CharSequence source) throws ParseException;
+
+    /**
+     * Parses the given {@code source} characters
+     * to a {@link List} of {@link Expression}
+     *
+     * @throws ParseException If there are syntax
+     * errors in the script
+     * @see #parse(CharSequence)
+     */
+    default List<Expression> parse(char[] source) throws ParseException {
+        return parse(CharBuffer.wrap(source));
+    }
+
+    /**
+     * Parses the remaining UTF-8 encoded bytes of the given
+     * {@code source} (e.g. a memory-mapped file) to a
+     * {@link List} of {@link Expression}, the bytes are
+     * decoded while parsing, without copying them
+     *
+     * <strong>Note that the buffer position isn't
+     * modified</strong>
+     *
+     * @throws ParseException If there are syntax
+     * errors in the script
+     * @see #parse(CharSequence)
+     */
+    default List<Expression> parse(ByteBuffer source) throws ParseException {
+        return parse(new Utf8CharSequence(source));
+    }
+
 }
@@ -8,13 +8,16 @@ import team.unnamed.molang.ast.binary.AssignExpression;
 import team.unnamed.molang.ast.binary.NullCoalescingExpression;
 import team.unnamed.molang.ast.composite.CallExpression;
 import team.unnamed.molang.ast.composite.ExecutionScopeExpression;
+import team.unnamed.molang.ast.composite.InfixChainExpression;
 import team.unnamed.molang.ast.simple.DoubleExpression;
 import team.unnamed.molang.ast.simple.IdentifierExpression;
 import team.unnamed.molang.ast.simple.StringExpression;
-import team.unnamed.molang.context.ParseContext;
+import team.unnamed.molang.context.ScriptCursor;
 
+import java.io.IOException;
 import java.io.Reader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -22,352 +25,548 @@ import java.util.List;
  * it's Hephaestus-MoLang parser since some MoLang
  * characteristics may change
  *
- * <p>There are some contracts for the parse methods:
+ * <p>The source is split in tokens by a {@link Lexer}, there
+ * are some contracts for the parse methods:
  *
- * - After an invoke, the {@link ParseContext#getCurrent()} should
- *   return a non-whitespace new token that the next parse method can parse
+ * - After an invoke, the {@link Lexer#getKind()} should
+ *   return a new token that the next parse method can parse
  *
- * - They must assume that the {@link ParseContext#getCurrent()} will be
- *   a new non-whitespace token when they are called
+ * - They must assume that the {@link Lexer#getKind()} will be
+ *   a new token when they are called
  * </p>
  *
- * @see Tokens
+ * @see Lexer
  * @see Expression
  */
 public class StandardMoLangParser
         implements MoLangParser {
 
-    private void failUnexpectedToken(ParseContext context, char current, char expected)
-            throws ParseException {
-        throw new ParseException(
-                "Unexpected token: '" + current + "'. Expected: '" + expected + '\'',
-                context.getCursor()
-        );
+    private static final int READ_BUFFER_SIZE = 1024;
+
+    private final SymbolTable symbols;
+
+    /**
+     * Creates a new parser with its own symbol table
+     */
+    public StandardMoLangParser() {
+        this(new SymbolTable());
     }
 
-    private void assertToken(ParseContext context, char expected) throws ParseException {
-        int current;
-        if ((current = context.getCurrent()) != expected) {
-            // must be closed
-            failUnexpectedToken(context, (char) current, expected);
-        }
+    /**
+     * Creates a new parser that interns identifiers
+     * in the given (maybe shared) symbol table
+     *
+     * @param symbols The symbol table
+     */
+    public StandardMoLangParser(SymbolTable symbols) {
+        this.symbols = symbols;
     }
 
     /**
-     * Reads a 'word' or 'identifier' without any other
-     * checks, assumes that current token is valid for
-     * a word
+     * Returns the symbol table used
+     * by this parser, never null
      */
-    private String readWord(ParseContext context) throws ParseException {
-        StringBuilder builder = new StringBuilder();
-        int current = context.getCurrent();
-        do {
-            builder.append((char) current);
-        } while (Tokens.isValidIdentifierContinuation(current = context.next()));
-        // skip whitespace
-        context.skipWhitespace();
-        return builder.toString();
+    public SymbolTable getSymbols() {
+        return symbols;
     }
 
-    private Expression parseSingle(ParseContext context) throws ParseException {
-        int current = context.getCurrent();
-
-        //#region Expression inside parenthesis
-        if (current == '(') {
-            context.nextNoWhitespace();
-            // wrapped expression: (expression)
-            Expression expression = parse(context);
-            assertToken(context, ')');
-            // skip the closing parenthesis and
-            // following spaces
-            context.nextNoWhitespace();
-            return new WrappedExpression(expression);
-        }
-        //#endregion
-
-        //#region Execution scope
-        if (current == '{') {
-            context.nextNoWhitespace();
-
-            List<Expression> expressions = new ArrayList<>();
-            while (true) {
-                expressions.add(parse(context));
-                current = context.getCurrent();
-                if (current == '}') {
-                    // skip last '}' and next whitespace
-                    context.nextNoWhitespace();
-                    break;
-                } else if (current == -1) {
-                    // end reached but not closed yet huh?
-                    throw new ParseException(
-                            "Found the end before the execution scope closing token",
-                            context.getCursor()
-                    );
-                } else {
-                    assertToken(context, ';');
-                    // skip current semicolon and
-                    // following whitespace
-                    context.nextNoWhitespace();
-                }
-            }
+    //#region Operators
+    // Binary operator precedences, from the lowest to the highest,
+    // prefix operators ('-' and '!') bind tighter than all of them
+    // and postfix ones ('.' and calls) are part of the operands
+    private static final int RETURN = 0;
+    private static final int ASSIGNMENT = 1;
+    private static final int CONDITIONAL = 2;
+    private static final int NULL_COALESCING = 3;
+    private static final int OR = 4;
+    private static final int AND = 5;
+    private static final int COMPARISON = 6;
+    private static final int ADDITIVE = 7;
+    private static final int MULTIPLICATIVE = 8;
+    private static final int PREFIX = 9;
+    private static final int NONE = -1;
 
-            return new ExecutionScopeExpression(expressions);
+    /**
+     * The minimum amount of operands of a chain of left-associative
+     * operators (e.g. {@code a + b - c + ...}) to be parsed to a flat
+     * {@link InfixChainExpression}, or to a balanced tree for
+     * {@code &&} and {@code ||}, instead of a left-leaning tree, so
+     * the tree depth doesn't grow with the chain length. Results are
+     * the same either way
+     */
+    static final int CHAIN_THRESHOLD = 32;
+
+    private static int precedenceOf(int kind) {
+        switch (kind) {
+            case Lexer.ASSIGN:
+                return ASSIGNMENT;
+            case Lexer.QUESTION:
+                return CONDITIONAL;
+            case Lexer.DOUBLE_QUESTION:
+                return NULL_COALESCING;
+            case Lexer.OR:
+                return OR;
+            case Lexer.AND:
+                return AND;
+            case Lexer.LESS:
+            case Lexer.LESS_EQUAL:
+            case Lexer.GREATER:
+            case Lexer.GREATER_EQUAL:
+                return COMPARISON;
+            case Lexer.PLUS:
+            case Lexer.MINUS:
+                return ADDITIVE;
+            case Lexer.STAR:
+            case Lexer.SLASH:
+                return MULTIPLICATIVE;
+            default:
+                return NONE;
         }
-        //#endregion
-
-        //#region Identifier expression and keywords
-        if (Tokens.isValidForIdentifier(current)) {
-            String identifier = readWord(context);
-
-            switch (identifier) {
-                case "true":
-                    return new DoubleExpression(1D);
-                case "false":
-                    return new DoubleExpression(0F);
-                case "return":
-                    return new ReturnExpression(parse(context));
-                default:
-                    return new IdentifierExpression(identifier);
-            }
+    }
+
+    private static int infixCodeOf(int kind) {
+        switch (kind) {
+            case Lexer.OR: return InfixExpression.OR;
+            case Lexer.AND: return InfixExpression.AND;
+            case Lexer.LESS: return InfixExpression.LESS_THAN;
+            case Lexer.LESS_EQUAL: return InfixExpression.LESS_THAN_OR_EQUAL;
+            case Lexer.GREATER: return InfixExpression.GREATER_THAN;
+            case Lexer.GREATER_EQUAL: return InfixExpression.GREATER_THAN_OR_EQUAL;
+            case Lexer.PLUS: return InfixExpression.ADD;
+            case Lexer.MINUS: return InfixExpression.SUBTRACT;
+            case Lexer.STAR: return InfixExpression.MULTIPLY;
+            case Lexer.SLASH: return InfixExpression.DIVIDE;
+            default: throw new IllegalArgumentException("Not an infix operator: " + kind);
         }
-        //#endregion
+    }
 
-        //#region String literal expression
-        if (current == Tokens.QUOTE) {
-            StringBuilder builder = new StringBuilder();
-            while ((current = context.next()) != Tokens.QUOTE && current != -1) {
-                builder.append((char) current);
-            }
+    /**
+     * An operator waiting for its right operand in the
+     * operator stack, consecutive left-associative operators
+     * with the same precedence are stored as a single chain
+     */
+    private static final class Operator {
 
-            // it must be closed with 'QUOTE'
-            if (current == -1) {
-                throw new ParseException(
-                        "Found the end before the closing quote",
-                        context.getCursor()
-                );
-            }
+        private final int kind;
+        private final int precedence;
 
-            // skip the last quote and following whitespaces
-            context.nextNoWhitespace();
-            return new StringExpression(builder.toString());
-        }
-        //#endregion
+        // the infix codes of a chain
+        private int[] codes;
+        private int size;
 
-        //#region Float literal expression
-        if (Character.isDigit(current)) {
-            return DoubleExpression.parse(context, 1);
+        // the true expression of a ternary conditional
+        private Expression trueValue;
+
+        private Operator(int kind, int precedence) {
+            this.kind = kind;
+            this.precedence = precedence;
         }
-        //#endregion
-
-        //#region Negation
-        if (current == Tokens.HYPHEN) {
-            current = context.nextNoWhitespace();
-            if (Character.isDigit(current)) {
-                // if negated expression is numeral, make it
-                // negative instead of creating a negation expression
-                return DoubleExpression.parse(context, -1);
-            } else {
-                Expression expression = parseSingle(context);
-                return new NegationExpression(expression, Tokens.HYPHEN);
+
+        private void addCode(int code) {
+            if (codes == null) {
+                codes = new int[4];
+            } else if (size == codes.length) {
+                codes = Arrays.copyOf(codes, size * 2);
             }
-        } else if (current == Tokens.EXCLAMATION) {
-            context.nextNoWhitespace();
-            return new NegationExpression(parseSingle(context), Tokens.EXCLAMATION);
+            codes[size++] = code;
         }
-        //#endregion
 
-        return new DoubleExpression(0F);
     }
+    //#endregion
 
-    private Expression parseMultiplication(ParseContext context, Expression left)
-        throws ParseException {
-        int current = context.getCurrent();
-        if (current == '*') {
-            context.nextNoWhitespace();
-            Expression right = parseSingle(context);
-            return new InfixExpression(InfixExpression.MULTIPLY, left, right);
-        } else if (current == '/') {
-            context.nextNoWhitespace();
-            Expression right = parseSingle(context);
-            return new InfixExpression(InfixExpression.DIVIDE, left, right);
-        }
-        return left;
+    private void failUnexpectedToken(Lexer lexer, String expected)
+            throws ParseException {
+        throw new ParseException(
+                "Unexpected token: '" + lexer.getText() + "'. Expected: '" + expected + '\'',
+                lexer.getCursor()
+        );
     }
 
-    private Expression parseAddition(ParseContext context, Expression left)
-        throws ParseException {
-        int current = context.getCurrent();
-        if (current == '+') {
-            context.nextNoWhitespace();
-            Expression right = parse(context);
-            return new InfixExpression(InfixExpression.ADD, left, right);
-        } else if (current == '-') {
-            context.nextNoWhitespace();
-            Expression right = parse(context);
-            return new InfixExpression(InfixExpression.SUBTRACT, left, right);
+    private void assertToken(Lexer lexer, int expectedKind, String expected) throws ParseException {
+        if (lexer.getKind() != expectedKind) {
+            // must be closed
+            failUnexpectedToken(lexer, expected);
         }
-        // try fallback-ing to multiplication/division
-        return parseMultiplication(context, left);
     }
 
-    private Expression parse(ParseContext context, Expression left) throws ParseException {
-        int current = context.getCurrent();
-
-        //#region Function call expression
-        if (current == '(') {
-
-            List<Expression> arguments = new ArrayList<>();
-
-            // skip the initial parenthesis and
-            // following spaces
-            context.nextNoWhitespace();
-
-            // start reading the arguments
-            while (true) {
-                arguments.add(parse(context));
-                // update current character
-                current = context.getCurrent();
-                if (current == -1) {
-                    failUnexpectedToken(context, (char) -1, ')');
-                } else if (current == ')') {
-                    // skip closing parenthesis and
-                    // following whitespace
-                    context.nextNoWhitespace();
-                    break;
-                } else {
-                    assertToken(context, ',');
-                    // skip current comma and following whitespace
-                    context.nextNoWhitespace();
+    /**
+     * Parses a primary expression: a literal, an identifier,
+     * a parenthesized expression or an execution scope
+     */
+    private Expression parsePrimary(Lexer lexer) throws ParseException {
+        switch (lexer.getKind()) {
+            //#region Expression inside parenthesis
+            case Lexer.OPEN_PAREN: {
+                lexer.next();
+                // wrapped expression: (expression)
+                Expression expression = parseExpression(lexer);
+                assertToken(lexer, Lexer.CLOSE_PAREN, ")");
+                // skip the closing parenthesis
+                lexer.next();
+                return new WrappedExpression(expression);
+            }
+            //#endregion
+
+            //#region Execution scope
+            case Lexer.OPEN_BRACE: {
+                lexer.next();
+
+                List<Expression> expressions = new ArrayList<>();
+                while (true) {
+                    expressions.add(parseExpression(lexer));
+                    int current = lexer.getKind();
+                    if (current == Lexer.CLOSE_BRACE) {
+                        // skip last '}'
+                        lexer.next();
+                        break;
+                    } else if (current == Lexer.END) {
+                        // end reached but not closed yet huh?
+                        throw new ParseException(
+                                "Found the end before the execution scope closing token",
+                                lexer.getCursor()
+                        );
+                    } else {
+                        assertToken(lexer, Lexer.SEMICOLON, ";");
+                        // skip current semicolon
+                        lexer.next();
+                    }
+                }
+
+                return new ExecutionScopeExpression(expressions);
+            }
+            //#endregion
+
+            //#region Identifier expression and keywords
+            case Lexer.IDENTIFIER: {
+                String identifier = lexer.getSymbol();
+                lexer.next();
+
+                switch (identifier) {
+                    case "true":
+                        return new DoubleExpression(1D);
+                    case "false":
+                        return new DoubleExpression(0F);
+                    default:
+                        return new IdentifierExpression(identifier);
                 }
             }
+            //#endregion
+
+            //#region Literal expressions
+            case Lexer.STRING: {
+                String value = lexer.getSymbol();
+                lexer.next();
+                return new StringExpression(value);
+            }
+            case Lexer.NUMBER: {
+                double value = lexer.getNumber();
+                lexer.next();
+                return new DoubleExpression(value);
+            }
+            //#endregion
 
-            return new CallExpression(left, arguments);
+            default:
+                // missing operand
+                return new DoubleExpression(0F);
         }
-        //#endregion
+    }
 
-        //#region Logical Operators
-        if (current == Tokens.AMPERSAND) {
-            current = context.next();
+    /**
+     * Parses the postfix operators applied to the given
+     * expression: property accesses and function calls
+     */
+    private Expression parsePostfix(Lexer lexer, Expression expression) throws ParseException {
+        while (true) {
+            int current = lexer.getKind();
 
-            if (current != Tokens.AMPERSAND) {
-                failUnexpectedToken(context, (char) current, Tokens.AMPERSAND);
-                return null; // should never happen
+            //#region Dot access expression
+            if (current == Lexer.DOT) {
+                if (lexer.next() != Lexer.IDENTIFIER) {
+                    throw new ParseException(
+                            "Unexpected token; expected a valid field token",
+                            lexer.getCursor()
+                    );
+                }
+                String property = lexer.getSymbol();
+                lexer.next();
+                expression = new AccessExpression(expression, property);
+                continue;
             }
+            //#endregion
+
+            //#region Function call expression
+            if (current == Lexer.OPEN_PAREN) {
+                List<Expression> arguments = new ArrayList<>();
+
+                // skip the initial parenthesis
+                lexer.next();
+
+                // start reading the arguments
+                while (true) {
+                    arguments.add(parseExpression(lexer));
+                    // update current token
+                    current = lexer.getKind();
+                    if (current == Lexer.END) {
+                        failUnexpectedToken(lexer, ")");
+                    } else if (current == Lexer.CLOSE_PAREN) {
+                        // skip closing parenthesis
+                        lexer.next();
+                        break;
+                    } else {
+                        assertToken(lexer, Lexer.COMMA, ",");
+                        // skip current comma
+                        lexer.next();
+                    }
+                }
 
-            // skip second ampersand and next spaces
-            context.nextNoWhitespace();
-            return new InfixExpression(InfixExpression.AND, left, parse(context));
-        } else if (current == Tokens.LINE) {
-            current = context.next();
-
-            if (current != Tokens.LINE) {
-                failUnexpectedToken(context, (char) current, Tokens.LINE);
-                return null; // should never happen
+                expression = new CallExpression(expression, arguments);
+                continue;
             }
+            //#endregion
+
+            return expression;
+        }
+    }
+
+    /**
+     * Parses a complete expression using precedence climbing
+     * with explicit operand and operator stacks, the recursion
+     * depth only grows with the nesting of parenthesis, calls,
+     * execution scopes and ternary conditionals, never with
+     * the amount of operators
+     */
+    private Expression parseExpression(Lexer lexer) throws ParseException {
+        List<Expression> operands = new ArrayList<>();
+        List<Operator> operators = new ArrayList<>();
 
-            // skip second line and next spaces
-            context.nextNoWhitespace();
-            return new InfixExpression(InfixExpression.OR, left, parse(context));
-        } else if (current == '<') {
-            if (context.next() == '=') {
-                context.nextNoWhitespace();
-                return new InfixExpression(InfixExpression.LESS_THAN_OR_EQUAL, left, parse(context));
+        boolean expectOperand = true;
+        while (true) {
+            if (expectOperand) {
+                //#region Prefix operators
+                Expression operand = null;
+                while (operand == null) {
+                    int current = lexer.getKind();
+                    if (current == Lexer.MINUS) {
+                        if (lexer.next() == Lexer.NUMBER) {
+                            // if negated expression is numeral, make it
+                            // negative instead of creating a negation expression
+                            operand = new DoubleExpression(-lexer.getNumber());
+                            lexer.next();
+                        } else {
+                            operators.add(new Operator(Lexer.MINUS, PREFIX));
+                        }
+                    } else if (current == Lexer.EXCLAMATION) {
+                        lexer.next();
+                        operators.add(new Operator(Lexer.EXCLAMATION, PREFIX));
+                    } else if (current == Lexer.IDENTIFIER && lexer.getSymbol().equals("return")) {
+                        lexer.next();
+                        operators.add(new Operator(Lexer.IDENTIFIER, RETURN));
+                    } else {
+                        operand = parsePrimary(lexer);
+                    }
+                }
+                //#endregion
+                operands.add(parsePostfix(lexer, operand));
             }
 
-            context.skipWhitespace();
-            return new InfixExpression(InfixExpression.LESS_THAN, left, parse(context));
-        } else if (current == '>') {
-            if (context.next() == '=') {
-                context.nextNoWhitespace();
-                return new InfixExpression(InfixExpression.GREATER_THAN_OR_EQUAL, left, parse(context));
+            int kind = lexer.getKind();
+            int precedence = precedenceOf(kind);
+            if (precedence == NONE) {
+                break;
+            }
+            lexer.next();
+
+            if (kind == Lexer.ASSIGN) {
+                // binds to the previous operand and its right
+                // operand is the rest of the expression
+                operators.add(new Operator(kind, precedence));
+                expectOperand = true;
+                continue;
             }
 
-            context.skipWhitespace();
-            return new InfixExpression(InfixExpression.GREATER_THAN, left, parse(context));
-        }
-        //#endregion
-
-        //#region Dot access expression
-        if (current == Tokens.DOT) {
-            if (!Tokens.isValidForIdentifier(context.nextNoWhitespace())) {
-                throw new ParseException(
-                        "Unexpected token; expected a valid field token",
-                        context.getCursor()
-                );
+            // operators with the same precedence are reduced later,
+            // as chains, or never, if they're right-associative
+            boolean leftAssociative = precedence >= OR;
+            reduce(operands, operators, precedence + 1);
+            if (precedence == COMPARISON) {
+                reduce(operands, operators, precedence);
             }
-            return new AccessExpression(left, readWord(context).toLowerCase());
-        }
-        //#endregion
-
-        //#region Null Coalescing, Binary Conditional and Ternary Conditional expressions
-        if (current == '?') {
-            current = context.next();
-            if (current == '?') {
-                // then it's null-coalescing expression
-                // since there are two '?' together (??)
-                context.nextNoWhitespace();
-                return new NullCoalescingExpression(left, parse(context));
-            } else {
-                // then it's a ternary or binary expression, since
-                // there is only one '?' token
-                context.skipWhitespace();
-                Expression trueValue = parse(context);
 
-                if (context.getCurrent() == ':') {
+            //#region Null Coalescing, Binary Conditional and Ternary Conditional expressions
+            if (kind == Lexer.QUESTION) {
+                Expression trueValue = parseExpression(lexer);
+                if (lexer.getKind() == Lexer.COLON) {
                     // then it's a ternary expression, since there is
                     // a ':', indicating the next expression
-                    context.nextNoWhitespace();
-                    return new TernaryConditionalExpression(left, trueValue, parse(context));
+                    lexer.next();
+                    Operator ternary = new Operator(kind, precedence);
+                    ternary.trueValue = trueValue;
+                    operators.add(ternary);
+                    expectOperand = true;
                 } else {
-                    return new ConditionalExpression(left, trueValue);
+                    Expression condition = operands.remove(operands.size() - 1);
+                    operands.add(new ConditionalExpression(condition, trueValue));
+                    expectOperand = false;
                 }
+                continue;
             }
-        }
-        //#endregion
+            //#endregion
 
-        //#region Assignation Operators
-        if (current == Tokens.EQUAL) {
-            context.nextNoWhitespace();
-            return new AssignExpression(left, parse(context));
+            Operator top = operators.isEmpty() ? null : operators.get(operators.size() - 1);
+            if (leftAssociative && top != null && top.precedence == precedence) {
+                // continue the chain
+                top.addCode(infixCodeOf(kind));
+            } else {
+                Operator operator = new Operator(kind, precedence);
+                if (leftAssociative) {
+                    operator.addCode(infixCodeOf(kind));
+                }
+                operators.add(operator);
+            }
+            expectOperand = true;
         }
-        //#endregion
 
-        return parseAddition(context, left);
+        reduce(operands, operators, RETURN);
+        return operands.get(0);
     }
 
-    private Expression parse(ParseContext context) throws ParseException {
-        Expression expression = parseSingle(context);
-        while (true) {
-            Expression compositeExpr = parse(context, expression);
-            if (compositeExpr == expression) {
-                break;
+    /**
+     * Applies the operators at the top of the stack whose
+     * precedence is greater than or equal to the given
+     * {@code precedence} to their operands
+     */
+    private void reduce(List<Expression> operands, List<Operator> operators, int precedence) {
+        while (!operators.isEmpty()) {
+            Operator operator = operators.get(operators.size() - 1);
+            if (operator.precedence < precedence) {
+                return;
+            }
+            operators.remove(operators.size() - 1);
+
+            switch (operator.kind) {
+                case Lexer.MINUS:
+                    if (operator.precedence == PREFIX) {
+                        operands.add(new NegationExpression(pop(operands), Tokens.HYPHEN));
+                        continue;
+                    }
+                    break;
+                case Lexer.EXCLAMATION:
+                    operands.add(new NegationExpression(pop(operands), Tokens.EXCLAMATION));
+                    continue;
+                case Lexer.IDENTIFIER:
+                    operands.add(new ReturnExpression(pop(operands)));
+                    continue;
+                case Lexer.ASSIGN: {
+                    Expression value = pop(operands);
+                    operands.add(new AssignExpression(pop(operands), value));
+                    continue;
+                }
+                case Lexer.QUESTION: {
+                    Expression falseValue = pop(operands);
+                    operands.add(new TernaryConditionalExpression(
+                            pop(operands),
+                            operator.trueValue,
+                            falseValue
+                    ));
+                    continue;
+                }
+                case Lexer.DOUBLE_QUESTION: {
+                    Expression fallback = pop(operands);
+                    operands.add(new NullCoalescingExpression(pop(operands), fallback));
+                    continue;
+                }
+            }
+
+            //#region Infix expression chains
+            int count = operator.size + 1;
+            int from = operands.size() - count;
+            Expression[] terms = operands.subList(from, operands.size()).toArray(new Expression[0]);
+            operands.subList(from, operands.size()).clear();
+
+            if (count < CHAIN_THRESHOLD || operator.precedence == COMPARISON) {
+                // left-associative
+                Expression result = terms[0];
+                for (int i = 1; i < count; i++) {
+                    result = InfixExpression.create(operator.codes[i - 1], result, terms[i]);
+                }
+                operands.add(result);
+            } else if (operator.precedence == AND || operator.precedence == OR) {
+                operands.add(balance(terms, operator.codes[0], 0, count));
             } else {
-                expression = compositeExpr;
+                operands.add(new InfixChainExpression(
+                        Arrays.asList(terms),
+                        Arrays.copyOf(operator.codes, count - 1)
+                ));
             }
+            //#endregion
         }
-        return expression;
+    }
+
+    /**
+     * Builds a balanced tree for the chain of the given terms
+     * {@code [from, to)} joined by the given logical operator,
+     * {@code &&} and {@code ||} are associative and short-circuit
+     * from left to right, so the results and the evaluated terms
+     * are the same as the ones of a left-leaning tree
+     */
+    private static Expression balance(Expression[] terms, int code, int from, int to) {
+        if (to - from == 1) {
+            return terms[from];
+        }
+        int middle = (from + to) >>> 1;
+        return InfixExpression.create(
+                code,
+                balance(terms, code, from, middle),
+                balance(terms, code, middle, to)
+        );
+    }
+
+    private static Expression pop(List<Expression> operands) {
+        return operands.remove(operands.size() - 1);
     }
 
     @Override
     public List<Expression> parse(Reader reader) throws ParseException {
+        StringBuilder source = new StringBuilder();
+        char[] buffer = new char[READ_BUFFER_SIZE];
+        int read;
+        try {
+            while ((read = reader.read(buffer)) != -1) {
+                source.append(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            ScriptCursor cursor = new ScriptCursor();
+            for (int i = 0; i < source.length(); i++) {
+                cursor.add(source.charAt(i));
+            }
+            throw new ParseException(
+                    "Error while reading characters from stream",
+                    e,
+                    cursor
+            );
+        }
+        return parse(source);
+    }
+
+    @Override
+    public List<Expression> parse(CharSequence source) throws ParseException {
 
-        ParseContext context = new ParseContext(reader);
+        Lexer lexer = new Lexer(source, symbols);
         // initial next() call
-        context.nextNoWhitespace();
+        lexer.next();
 
         List<Expression> expressions = new ArrayList<>();
         int current;
         while (true) {
-            expressions.add(parse(context));
-            current = context.getCurrent();
-            if (current == -1) {
+            expressions.add(parseExpression(lexer));
+            current = lexer.getKind();
+            if (current == Lexer.END) {
                 // end reached, break
                 break;
             } else {
-                assertToken(context, ';');
-                // skip current semicolon and
-                // following whitespace
-                context.nextNoWhitespace();
+                assertToken(lexer, Lexer.SEMICOLON, ";");
+                // skip current semicolon
+                lexer.next();
             }
         }
 
@@ -0,0 +1,138 @@
+package team.unnamed.molang.parser;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Interns the case-folded (lower case) identifiers found
+ * by the parser, so every occurrence of an identifier is
+ * represented by the same {@link String} instance and is
+ * only allocated the first time it's found
+ *
+ * <p>Symbol tables are safe to share between threads,
+ * lookups take no locks, only the insertion of new
+ * symbols does. The amount of interned symbols is
+ * bounded, once the limit is reached, new identifiers
+ * are still folded but not interned</p>
+ */
+public final class SymbolTable {
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int MAX_SYMBOLS = 1 << 16;
+
+    // open addressing hash table with linear probing,
+    // always at most half full
+    private volatile AtomicReferenceArray<String> table
+            = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+    private int size;
+
+    /**
+     * Returns the interned, case-folded identifier formed
+     * by the characters of the given {@code source} from
+     * {@code start} (inclusive) to {@code end} (exclusive)
+     *
+     * <p>Identifiers are ASCII, only the ASCII upper case
+     * letters are folded</p>
+     */
+    public String intern(CharSequence source, int start, int end) {
+        int hash = hash(source, start, end);
+        AtomicReferenceArray<String> table = this.table;
+        int mask = table.length() - 1;
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            String symbol = table.get(i);
+            if (symbol == null) {
+                return add(source, start, end, hash);
+            } else if (matches(symbol, source, start, end)) {
+                return symbol;
+            }
+        }
+    }
+
+    /**
+     * Returns the amount of interned symbols
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private synchronized String add(CharSequence source, int start, int end, int hash) {
+        // the table may have changed since the lookup
+        AtomicReferenceArray<String> table = this.table;
+        int mask = table.length() - 1;
+        int index = hash & mask;
+        for (String symbol; (symbol = table.get(index)) != null; index = (index + 1) & mask) {
+            if (matches(symbol, source, start, end)) {
+                return symbol;
+            }
+        }
+
+        String symbol = fold(source, start, end);
+        if (size >= MAX_SYMBOLS) {
+            return symbol;
+        }
+
+        if ((size + 1) * 2 > table.length()) {
+            table = resize(table);
+            mask = table.length() - 1;
+            index = hash & mask;
+            while (table.get(index) != null) {
+                index = (index + 1) & mask;
+            }
+        }
+
+        table.set(index, symbol);
+        size++;
+        return symbol;
+    }
+
+    private AtomicReferenceArray<String> resize(AtomicReferenceArray<String> table) {
+        AtomicReferenceArray<String> resized = new AtomicReferenceArray<>(table.length() * 2);
+        int mask = resized.length() - 1;
+        for (int i = 0; i < table.length(); i++) {
+            String symbol = table.get(i);
+            if (symbol != null) {
+                int index = hash(symbol, 0, symbol.length()) & mask;
+                while (resized.get(index) != null) {
+                    index = (index + 1) & mask;
+                }
+                resized.set(index, symbol);
+            }
+        }
+        // published after it's filled
+        this.table = resized;
+        return resized;
+    }
+
+    private static int hash(CharSequence source, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + fold(source.charAt(i));
+        }
+        // spread the high bits, the table index uses the low ones
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean matches(String symbol, CharSequence source, int start, int end) {
+        if (symbol.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < symbol.length(); i++) {
+            if (symbol.charAt(i) != fold(source.charAt(start + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String fold(CharSequence source, int start, int end) {
+        char[] chars = new char[end - start];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = fold(source.charAt(start + i));
+        }
+        return new String(chars);
+    }
+
+    private static char fold(char c) {
+        return 'A' <= c && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+}
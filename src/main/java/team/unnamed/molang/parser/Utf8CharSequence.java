@@ -0,0 +1,211 @@
+package team.unnamed.molang.parser;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * {@link CharSequence} implementation that decodes the
+ * UTF-8 bytes of a {@link ByteBuffer} on demand, without
+ * copying them (i.e. memory-mapped files aren't loaded
+ * to the heap)
+ *
+ * <p>If the bytes are ASCII, every character is read by
+ * index. Otherwise, sequential reads, the ones done by the
+ * parser, are decoded incrementally, and other reads (e.g.
+ * re-reading a token) are decoded from the closest previous
+ * checkpoint, the byte position of every
+ * {@value #CHECKPOINT_INTERVAL}th character. Malformed input
+ * is replaced by U+FFFD, like {@link String} does</p>
+ */
+final class Utf8CharSequence implements CharSequence {
+
+    private static final char REPLACEMENT = '\uFFFD';
+
+    /**
+     * The amount of characters between checkpoints, non-sequential
+     * reads decode at most this amount of characters
+     */
+    static final int CHECKPOINT_INTERVAL = 64;
+
+    // minimum code point for every encoded length, smaller
+    // code points are overlong encodings
+    private static final int[] MIN_CODE_POINT = { 0, 0, 0x80, 0x800, 0x10000 };
+
+    private final ByteBuffer buffer;
+    private final int start;
+    private final int end;
+    private final boolean ascii;
+    private final int length;
+
+    // the byte position of every CHECKPOINT_INTERVAL-th character,
+    // and whether it's the low surrogate of a supplementary
+    // code point, null if ascii
+    private final int[] checkpointPositions;
+    private final boolean[] checkpointLowSurrogates;
+
+    // sequential decoding state
+    private int charIndex;
+    private int bytePosition;
+    private boolean lowSurrogate;
+    private int decodedLength;
+
+    /**
+     * Creates a char sequence for the remaining bytes
+     * of the given {@code buffer}, the buffer position
+     * and limit aren't modified
+     */
+    Utf8CharSequence(ByteBuffer buffer) {
+        this(buffer, buffer.position(), buffer.limit());
+    }
+
+    private Utf8CharSequence(ByteBuffer buffer, int start, int end) {
+        this.buffer = buffer;
+        this.start = start;
+        this.end = end;
+        this.bytePosition = start;
+
+        boolean ascii = true;
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) < 0) {
+                ascii = false;
+                break;
+            }
+        }
+        this.ascii = ascii;
+
+        if (ascii) {
+            this.length = end - start;
+            this.checkpointPositions = null;
+            this.checkpointLowSurrogates = null;
+        } else {
+            // there are at most as many characters as bytes
+            int[] positions = new int[(end - start) / CHECKPOINT_INTERVAL + 1];
+            boolean[] lowSurrogates = new boolean[positions.length];
+            int length = 0;
+            for (int position = start; position < end; position += decodedLength) {
+                int charCount = Character.charCount(decode(position));
+                for (int i = 0; i < charCount; i++) {
+                    if (length % CHECKPOINT_INTERVAL == 0) {
+                        positions[length / CHECKPOINT_INTERVAL] = position;
+                        lowSurrogates[length / CHECKPOINT_INTERVAL] = i == 1;
+                    }
+                    length++;
+                }
+            }
+            int checkpoints = (length + CHECKPOINT_INTERVAL - 1) / CHECKPOINT_INTERVAL;
+            this.length = length;
+            this.checkpointPositions = Arrays.copyOf(positions, checkpoints);
+            this.checkpointLowSurrogates = Arrays.copyOf(lowSurrogates, checkpoints);
+        }
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index: " + index + ", length: " + length);
+        }
+        if (ascii) {
+            return (char) buffer.get(start + index);
+        }
+
+        if (index < charIndex || index - charIndex >= CHECKPOINT_INTERVAL) {
+            // not sequential, decode from the closest checkpoint
+            int checkpoint = index / CHECKPOINT_INTERVAL;
+            charIndex = checkpoint * CHECKPOINT_INTERVAL;
+            bytePosition = checkpointPositions[checkpoint];
+            lowSurrogate = checkpointLowSurrogates[checkpoint];
+        }
+        while (charIndex < index) {
+            int codePoint = decode(bytePosition);
+            if (Character.isSupplementaryCodePoint(codePoint) && !lowSurrogate) {
+                lowSurrogate = true;
+            } else {
+                bytePosition += decodedLength;
+                lowSurrogate = false;
+            }
+            charIndex++;
+        }
+
+        int codePoint = decode(bytePosition);
+        if (Character.isSupplementaryCodePoint(codePoint)) {
+            return lowSurrogate
+                    ? Character.lowSurrogate(codePoint)
+                    : Character.highSurrogate(codePoint);
+        }
+        return (char) codePoint;
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || start > end || end > length) {
+            throw new IndexOutOfBoundsException("start: " + start + ", end: " + end + ", length: " + length);
+        }
+        StringBuilder builder = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            builder.append(charAt(i));
+        }
+        return builder;
+    }
+
+    /**
+     * Decodes the code point starting at the given byte
+     * {@code position}, its length in bytes is set to
+     * {@code decodedLength}
+     */
+    private int decode(int position) {
+        int first = buffer.get(position) & 0xFF;
+        if (first < 0x80) {
+            decodedLength = 1;
+            return first;
+        }
+
+        int byteCount;
+        int codePoint;
+        if ((first & 0xE0) == 0xC0) {
+            byteCount = 2;
+            codePoint = first & 0x1F;
+        } else if ((first & 0xF0) == 0xE0) {
+            byteCount = 3;
+            codePoint = first & 0x0F;
+        } else if ((first & 0xF8) == 0xF0) {
+            byteCount = 4;
+            codePoint = first & 0x07;
+        } else {
+            // unexpected continuation byte or invalid byte
+            decodedLength = 1;
+            return REPLACEMENT;
+        }
+
+        for (int i = 1; i < byteCount; i++) {
+            if (position + i >= end) {
+                decodedLength = i;
+                return REPLACEMENT;
+            }
+            int next = buffer.get(position + i) & 0xFF;
+            if ((next & 0xC0) != 0x80) {
+                decodedLength = i;
+                return REPLACEMENT;
+            }
+            codePoint = (codePoint << 6) | (next & 0x3F);
+        }
+
+        decodedLength = byteCount;
+        if (codePoint < MIN_CODE_POINT[byteCount]
+                || codePoint > Character.MAX_CODE_POINT
+                || Character.isSurrogate((char) codePoint) && codePoint <= 0xFFFF) {
+            return REPLACEMENT;
+        }
+        return codePoint;
+    }
+
+    @Override
+    public String toString() {
+        return subSequence(0, length).toString();
+    }
+
+}
@@ -3,6 +3,8 @@ package team.unnamed.molang;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import team.unnamed.molang.compiler.ScriptCompiler;
+
 import javax.script.ScriptException;
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -16,6 +18,11 @@ import java.io.InputStreamReader;
 public class CompareTest {
 
     private static final MoLangEngine ENGINE = MoLangEngine.createDefault();
+    private static final MoLangEngine UNOPTIMIZED_ENGINE = MoLangEngine.builder()
+            .withDefaultBindings()
+            .withoutOptimizations()
+            .build();
+    private static final ScriptCompiler COMPILER = new ScriptCompiler();
 
     /**
      * Compares this library results with MolangJS
@@ -24,7 +31,26 @@ public class CompareTest {
      */
     @Test
     public void compare_with_molangjs() throws IOException {
-        compare("expectations.txt", "tests.txt");
+        compare("expectations.txt", "tests.txt", ENGINE::eval);
+    }
+
+    /**
+     * Compares the results of the scripts evaluated
+     * without optimizations with MolangJS
+     */
+    @Test
+    public void compare_unoptimized_with_molangjs() throws IOException {
+        compare("expectations.txt", "tests.txt", UNOPTIMIZED_ENGINE::eval);
+    }
+
+    /**
+     * Compares the results of the scripts compiled to
+     * bytecode with MolangJS
+     */
+    @Test
+    public void compare_compiled_with_molangjs() throws IOException {
+        compare("expectations.txt", "tests.txt", expression ->
+                COMPILER.compile(UNOPTIMIZED_ENGINE.compile(expression)).evaluate());
     }
 
     //#region Helper code
@@ -51,7 +77,11 @@ public class CompareTest {
         return value;
     }
 
-    private static void compare(String expectationsName, String sourceName) throws IOException {
+    private static void compare(
+            String expectationsName,
+            String sourceName,
+            Evaluator evaluator
+    ) throws IOException {
         try (BufferedReader source = createResourceReader(sourceName)) {
             try (BufferedReader expectations = createResourceReader(expectationsName)) {
                 while (true) {
@@ -67,7 +97,7 @@ public class CompareTest {
 
                     // eval expression
                     try {
-                        Object result = ENGINE.eval(expression);
+                        Object result = evaluator.eval(expression);
                         Assertions.assertTrue(result instanceof Number, "Result is a number");
                         Assertions.assertEquals(expectedValue, ((Number) result).floatValue());
                     } catch (ScriptException e) {
@@ -77,6 +107,10 @@ public class CompareTest {
             }
         }
     }
+
+    private interface Evaluator {
+        Object eval(String expression) throws ScriptException;
+    }
     //#endregion
 
 }
@@ -0,0 +1,84 @@
+package team.unnamed.molang;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.script.ScriptException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Stress tests for evaluating the same scripts
+ * from multiple threads
+ */
+public class ConcurrencyTest {
+
+    private static final String SCRIPT = "temp.base = variable.id * 2;"
+            + "variable.count = (variable.count ?? 0) + 1;"
+            + "return math.clamp(temp.base + variable.count, 0, 1000000);";
+
+    private static final int ENTITIES_PER_THREAD = 64;
+    private static final int ITERATIONS = 2_000;
+
+    /**
+     * Evaluates the same script with multiple entity scopes
+     * per thread, the result must be the same as evaluating
+     * them in a single thread
+     */
+    @Test
+    public void test_concurrent_evaluation_is_correct() throws Exception {
+        MoLangEngine engine = MoLangEngine.createDefault();
+        Script script = engine.compile(SCRIPT);
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+        List<Callable<Long>> tasks = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            tasks.add(() -> evaluate(script, thread));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> results = executor.invokeAll(tasks);
+            for (int t = 0; t < threads; t++) {
+                Assertions.assertEquals(
+                        evaluate(script(), t),
+                        (long) results.get(t).get(),
+                        "Thread " + t + " result"
+                );
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static Script script() throws ScriptException {
+        return MoLangEngine.createDefault().compile(SCRIPT);
+    }
+
+    /**
+     * Evaluates the script for a set of entities using
+     * the given thread id, returns a checksum
+     */
+    private static long evaluate(Script script, int thread) {
+        MoLangEngine engine = script.getEngine();
+        EntityScope[] scopes = new EntityScope[ENTITIES_PER_THREAD];
+        for (int i = 0; i < scopes.length; i++) {
+            scopes[i] = engine.createScope();
+            scopes[i].getVariables().setProperty("id", thread * ENTITIES_PER_THREAD + i);
+        }
+
+        long checksum = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            for (EntityScope scope : scopes) {
+                checksum += (long) script.evalAsDouble(scope);
+            }
+        }
+        return checksum;
+    }
+
+}
@@ -0,0 +1,58 @@
+package team.unnamed.molang;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.script.ScriptException;
+
+public class ScriptCacheTest {
+
+    @Test
+    public void test_repeated_sources_are_not_parsed_again() throws ScriptException {
+        MoLangEngine engine = MoLangEngine.createDefault();
+        Script first = engine.compile("1 + 2");
+        Script second = engine.compile("1 + 2");
+
+        Assertions.assertSame(first, second);
+
+        ScriptCache.Stats stats = engine.getScriptCache().getStats();
+        Assertions.assertEquals(1, stats.getHits());
+        Assertions.assertEquals(1, stats.getMisses());
+    }
+
+    @Test
+    public void test_evicts_least_recently_used() throws ScriptException {
+        MoLangEngine engine = MoLangEngine.builder()
+                .withScriptCache(2, Long.MAX_VALUE)
+                .build();
+
+        engine.eval("1");
+        engine.eval("2");
+        engine.eval("1"); // "2" is now the eldest
+        engine.eval("3");
+
+        ScriptCache cache = engine.getScriptCache();
+        ScriptCache.Stats stats = cache.getStats();
+        Assertions.assertEquals(2, stats.getSize());
+        Assertions.assertEquals(1, stats.getEvictions());
+        Assertions.assertNotNull(cache.get("1"));
+        Assertions.assertNull(cache.get("2"));
+    }
+
+    @Test
+    public void test_bounded_by_weight() throws ScriptException {
+        long weight = ScriptCache.weigh("1 + 1");
+        MoLangEngine engine = MoLangEngine.builder()
+                .withScriptCache(100, weight * 2)
+                .build();
+
+        engine.eval("1 + 1");
+        engine.eval("1 + 2");
+        engine.eval("1 + 3");
+
+        ScriptCache.Stats stats = engine.getScriptCache().getStats();
+        Assertions.assertEquals(2, stats.getSize());
+        Assertions.assertEquals(weight * 2, stats.getWeight());
+    }
+
+}
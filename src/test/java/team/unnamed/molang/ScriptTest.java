@@ -0,0 +1,84 @@
+package team.unnamed.molang;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import team.unnamed.molang.compiler.ScriptCompiler;
+
+import javax.script.ScriptException;
+
+public class ScriptTest {
+
+    @Test
+    public void test_compiled_script_is_reusable() throws ScriptException {
+        MoLangEngine engine = MoLangEngine.createDefault();
+        Script script = engine.compile("variable.count = (variable.count ?? 0) + 1; return variable.count;");
+
+        for (int i = 1; i <= 5; i++) {
+            Object result = script.eval();
+            Assertions.assertEquals(i, ((Number) result).intValue());
+        }
+    }
+
+    @Test
+    public void test_temp_storage_is_cleared() throws ScriptException {
+        MoLangEngine engine = MoLangEngine.createDefault();
+        Script script = engine.compile("temp.x = (temp.x ?? 1) * 2; return temp.x;");
+
+        Assertions.assertEquals(2F, script.evalAsFloat());
+        Assertions.assertEquals(2F, script.evalAsFloat());
+    }
+
+    @Test
+    public void test_expressions_are_unmodifiable() throws ScriptException {
+        Script script = MoLangEngine.createDefault().compile("1 + 1");
+        Assertions.assertThrows(
+                UnsupportedOperationException.class,
+                () -> script.getExpressions().clear()
+        );
+    }
+
+    @Test
+    public void test_entity_scopes_are_independent() throws ScriptException {
+        MoLangEngine engine = MoLangEngine.createDefault();
+        Script script = engine.compile("variable.count = (variable.count ?? 0) + 1; return variable.count;");
+
+        EntityScope first = engine.createScope();
+        EntityScope second = engine.createScope();
+
+        script.eval(first);
+        script.eval(first);
+        Assertions.assertEquals(3D, script.evalAsDouble(first));
+        Assertions.assertEquals(1D, script.evalAsDouble(second));
+
+        // the default scope isn't affected
+        Assertions.assertNull(engine.getDefaultScope().getVariables().getProperty("count"));
+    }
+
+    @Test
+    public void test_logical_operators_short_circuit() throws ScriptException {
+        MoLangEngine engine = MoLangEngine.builder()
+                .withDefaultBindings()
+                .withoutOptimizations()
+                .build();
+        ScriptCompiler compiler = new ScriptCompiler();
+        String[] sources = {
+                "0 && (variable.x = 1); return variable.x ?? 5;",
+                "1 || (variable.x = 1); return variable.x ?? 5;",
+                "variable.y = 0; variable.y < 1 || (variable.y = 2); return variable.y;",
+        };
+        double[] expected = { 5, 5, 0 };
+
+        for (int i = 0; i < sources.length; i++) {
+            Script script = engine.compile(sources[i]);
+            Assertions.assertEquals(expected[i], script.evalAsDouble(engine.createScope()), sources[i]);
+            Assertions.assertEquals(expected[i], compiler.compile(script).evaluate(engine.createScope()), sources[i]);
+        }
+
+        // the right side is evaluated when needed
+        Script script = engine.compile("1 && (variable.x = 1); return variable.x ?? 5;");
+        Assertions.assertEquals(1D, script.evalAsDouble(engine.createScope()));
+        Assertions.assertEquals(1D, compiler.compile(script).evaluate(engine.createScope()));
+    }
+
+}
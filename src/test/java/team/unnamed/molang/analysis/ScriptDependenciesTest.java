@@ -0,0 +1,125 @@
+package team.unnamed.molang.analysis;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import team.unnamed.molang.EntityScope;
+import team.unnamed.molang.MoLangEngine;
+import team.unnamed.molang.Script;
+import team.unnamed.molang.binding.QueryFrame;
+import team.unnamed.molang.binding.QueryProviders;
+import team.unnamed.molang.parser.StandardMoLangParser;
+
+import javax.script.ScriptException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+public class ScriptDependenciesTest {
+
+    private static final MoLangEngine ENGINE = MoLangEngine.createDefault();
+
+    @Test
+    public void test_lists_inputs() throws IOException {
+        ScriptDependencies dependencies = ScriptDependencies.analyze(new StandardMoLangParser().parse(
+                "t.speed = q.speed * 2; return v.scale * (temp.speed > 1 ? query.is_moving : math.cos(variable.angle));"
+        ));
+        Assertions.assertEquals(new HashSet<>(Arrays.asList("speed", "is_moving")), dependencies.getQueries());
+        Assertions.assertEquals(new HashSet<>(Arrays.asList("scale", "angle")), dependencies.getVariables());
+        Assertions.assertEquals(Collections.emptySet(), dependencies.getRandomFunctions());
+        Assertions.assertFalse(dependencies.hasSideEffects());
+        Assertions.assertFalse(dependencies.hasUnknownInputs());
+        Assertions.assertTrue(dependencies.isCacheable());
+    }
+
+    @Test
+    public void test_is_conservative() throws ScriptException {
+        ScriptDependencies random = ScriptDependencies.analyze(ENGINE.compile("math.random(0, 1) + math.die_roll(1, 1, 6)"));
+        Assertions.assertEquals(new HashSet<>(Arrays.asList("random", "die_roll")), random.getRandomFunctions());
+        Assertions.assertFalse(random.isCacheable());
+
+        ScriptDependencies assignment = ScriptDependencies.analyze(ENGINE.compile("v.x = q.y"));
+        Assertions.assertTrue(assignment.hasSideEffects());
+        Assertions.assertEquals(Collections.singleton("y"), assignment.getQueries());
+        Assertions.assertFalse(assignment.isCacheable());
+
+        Assertions.assertTrue(ScriptDependencies.analyze(ENGINE.compile("q.print(1)")).hasSideEffects());
+        Assertions.assertTrue(ScriptDependencies.analyze(ENGINE.compile("v.x.y")).hasUnknownInputs());
+        Assertions.assertTrue(ScriptDependencies.analyze(ENGINE.compile("context.x")).hasUnknownInputs());
+        Assertions.assertFalse(ScriptDependencies.analyze(ENGINE.compile("math.sqrt(v.x)")).hasUnknownInputs());
+    }
+
+    @Test
+    public void test_skips_unchanged_evaluations() throws ScriptException {
+        QueryFrame frame = new QueryFrame();
+        Entity entity = new Entity();
+        QueryProviders<Entity> providers = QueryProviders.<Entity>builder()
+                .withProperty("speed", e -> e.speed)
+                .build();
+        MoLangEngine engine = MoLangEngine.builder()
+                .withDefaultBindings()
+                .withBinding("query", providers.bind(entity, frame))
+                .build();
+
+        Script script = engine.compile("v.scale * q.speed");
+        IncrementalEvaluator evaluator = new IncrementalEvaluator(script);
+        EntityScope scope = engine.createScope();
+        IncrementalEvaluator.State state = evaluator.createState(scope);
+
+        scope.getVariables().setProperty("scale", 2);
+        entity.speed = 3;
+        Assertions.assertEquals(6D, evaluator.evalAsDouble(state));
+        Assertions.assertEquals(6D, evaluator.evalAsDouble(state));
+
+        // changed inputs are detected
+        scope.getVariables().setProperty("scale", 3);
+        Assertions.assertEquals(9D, evaluator.evalAsDouble(state));
+        entity.speed = 1;
+        frame.advance();
+        Assertions.assertEquals(3D, evaluator.evalAsDouble(state));
+        Assertions.assertEquals(3D, evaluator.eval(state));
+        Assertions.assertEquals(3D, evaluator.eval(state));
+    }
+
+    @Test
+    public void test_detects_input_type_changes() throws ScriptException {
+        Script script = ENGINE.compile("v.x ?? 5");
+        IncrementalEvaluator evaluator = new IncrementalEvaluator(script);
+        EntityScope scope = ENGINE.createScope();
+        IncrementalEvaluator.State state = evaluator.createState(scope);
+
+        // unset inputs, zero, strings, booleans and numbers are different
+        Assertions.assertEquals(5D, evaluator.evalAsDouble(state));
+        scope.getVariables().setProperty("x", 0);
+        Assertions.assertEquals(0D, evaluator.evalAsDouble(state));
+        scope.getVariables().setProperty("x", "a");
+        Assertions.assertEquals("a", evaluator.eval(state));
+        scope.getVariables().setProperty("x", "b");
+        Assertions.assertEquals("b", evaluator.eval(state));
+        scope.getVariables().setProperty("x", true);
+        Assertions.assertEquals(true, evaluator.eval(state));
+        scope.getVariables().setProperty("x", 1);
+        Assertions.assertEquals(1D, evaluator.eval(state));
+        scope.getVariables().setProperty("x", -0D);
+        Assertions.assertEquals(-0D, evaluator.eval(state));
+    }
+
+    @Test
+    public void test_evaluates_uncacheable_scripts() throws ScriptException {
+        Script script = ENGINE.compile("v.count = (v.count ?? 0) + 1");
+        IncrementalEvaluator evaluator = new IncrementalEvaluator(script);
+        IncrementalEvaluator.State state = evaluator.createState(ENGINE.createScope());
+
+        Assertions.assertFalse(evaluator.getDependencies().isCacheable());
+        evaluator.evalAsDouble(state);
+        evaluator.evalAsDouble(state);
+        Assertions.assertEquals(3D, evaluator.evalAsDouble(state));
+    }
+
+    private static final class Entity {
+
+        private double speed;
+
+    }
+
+}
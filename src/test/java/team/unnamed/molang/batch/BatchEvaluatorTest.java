@@ -0,0 +1,150 @@
+package team.unnamed.molang.batch;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import team.unnamed.molang.MoLangEngine;
+import team.unnamed.molang.Script;
+import team.unnamed.molang.binding.Bind;
+import team.unnamed.molang.binding.ObjectBinding;
+import team.unnamed.molang.binding.StorageBinding;
+import team.unnamed.molang.context.EvalContext;
+
+import javax.script.Bindings;
+import javax.script.ScriptException;
+import javax.script.SimpleBindings;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class BatchEvaluatorTest {
+
+    // not a multiple of the chunk size
+    private static final int SIZE = 1000;
+
+    private static final String[] SCRIPTS = {
+            // kernels
+            "query.a * 2 + query.b",
+            "query.a / query.b",
+            "-query.a > query.b || !(query.b <= 0.5)",
+            "query.a > 0 && query.b ? query.a : query.b",
+            "query.b ? 5",
+            "math.sin(query.a * 90) + math.clamp(query.b, 0.2, 0.8) + math.pi",
+            "temp.x = query.a - 1; temp.y = temp.x * temp.x; return temp.y > 4 ? temp.y : -temp.x;",
+            "variable.speed = variable.speed + query.a; variable.speed / 2",
+            "return query.a; query.b",
+            "variable.speed ?? 10",
+            longChain(),
+            "query.a > 0.5 || (variable.speed = 0); variable.speed",
+            "query.a > 0.5 && (temp.x = query.b); return temp.x ?? 3;",
+            // interpreted expressions
+            "query.missing ?? query.a",
+            "query.a > 0.5 ? query.missing ?? 3 : query.b",
+            "temp.x = query.missing ?? 2; temp.x * query.a",
+            // interpreted scripts
+            "temp.y ?? query.a",
+            "variable.unknown = query.a; variable.unknown * 3",
+            "query.a > 0.5 ? { temp.x = 1; }; return temp.x ?? 7;",
+            "'text'",
+    };
+
+    // parsed to a chain expression, not to nested infix expressions
+    private static String longChain() {
+        StringBuilder source = new StringBuilder("query.a");
+        for (int i = 0; i < 40; i++) {
+            source.append(i % 3 == 0 ? " - query.b" : i % 3 == 1 ? " + query.a" : " + 0.5");
+        }
+        return source.toString();
+    }
+
+    @Test
+    public void test_batch_results_equal_interpreter() throws ScriptException {
+        for (String source : SCRIPTS) {
+            for (boolean optimize : new boolean[] { true, false }) {
+                MoLangEngine.Builder builder = MoLangEngine.builder().withDefaultBindings();
+                if (!optimize) {
+                    builder.withoutOptimizations();
+                }
+                Script script = builder.build().compile(source);
+
+                Random random = new Random(source.hashCode());
+                double[] a = column(random);
+                double[] b = column(random);
+                double[] speed = column(random);
+                double[] expectedSpeed = speed.clone();
+
+                double[] expected = new double[SIZE];
+                for (int row = 0; row < SIZE; row++) {
+                    expected[row] = evaluate(script, a[row], b[row], expectedSpeed, row);
+                }
+
+                Batch batch = new Batch(SIZE)
+                        .withQuery("a", a)
+                        .withQuery("b", b)
+                        .withVariable("speed", speed);
+                double[] actual = new BatchEvaluator(script).evaluate(batch);
+
+                Assertions.assertArrayEquals(expected, actual, "Results of: " + source);
+                Assertions.assertArrayEquals(expectedSpeed, speed, "Variables of: " + source);
+            }
+        }
+    }
+
+    @Test
+    public void test_evaluates_row_ranges() throws ScriptException {
+        Script script = MoLangEngine.createDefault().compile("query.a + 1");
+        double[] a = { 1, 2, 3, 4 };
+        double[] output = new double[4];
+
+        new BatchEvaluator(script).evaluate(new Batch(4).withQuery("a", a), 1, 3, output);
+        Assertions.assertArrayEquals(new double[] { 0, 3, 4, 0 }, output);
+    }
+
+    @Test
+    public void test_columns_must_fit_batch() {
+        Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> new Batch(4).withQuery("a", new double[3])
+        );
+    }
+
+    private static double[] column(Random random) {
+        double[] column = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            // some zeros to test divisions and booleans
+            column[i] = random.nextInt(4) == 0 ? 0 : random.nextDouble() * 4 - 2;
+        }
+        return column;
+    }
+
+    /**
+     * Evaluates the script for a single entity using the interpreter
+     */
+    private static double evaluate(Script script, double a, double b, double[] speed, int row) {
+        Map<String, Object> queries = new HashMap<>();
+        queries.put("a", a);
+        queries.put("b", b);
+
+        StorageBinding variables = new StorageBinding();
+        variables.setProperty("speed", speed[row]);
+
+        Bindings bindings = new SimpleBindings();
+        bindings.put("math", Bind.MATH_BINDING);
+        bindings.put("query", new ObjectBinding() {
+            @Override
+            public Object getProperty(String name) {
+                return queries.get(name);
+            }
+
+            @Override
+            public void setProperty(String name, Object value) {
+            }
+        });
+        bindings.put("variable", variables);
+        bindings.put("temp", new StorageBinding());
+
+        double result = script.evalAsDouble(new EvalContext(bindings));
+        speed[row] = ((Number) variables.getProperty("speed")).doubleValue();
+        return result;
+    }
+
+}
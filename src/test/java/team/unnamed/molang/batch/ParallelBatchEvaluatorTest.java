@@ -0,0 +1,73 @@
+package team.unnamed.molang.batch;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import team.unnamed.molang.MoLangEngine;
+import team.unnamed.molang.Script;
+
+import javax.script.ScriptException;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelBatchEvaluatorTest {
+
+    private static final int SIZE = 10_000;
+
+    private static final String[] SCRIPTS = {
+            "temp.x = query.a * 2; variable.speed = variable.speed + temp.x; math.cos(variable.speed)",
+            // interpreted row by row
+            "query.a > 0 ? { variable.speed = variable.speed * 2; }; return variable.speed;",
+    };
+
+    @Test
+    public void test_results_equal_single_threaded() throws ScriptException {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            for (String source : SCRIPTS) {
+                Script script = MoLangEngine.createDefault().compile(source);
+                check(script, new ParallelBatchEvaluator(script, pool, 100));
+                check(script, new ParallelBatchEvaluator(script, executor, 1000));
+                check(script, new ParallelBatchEvaluator(script));
+            }
+        } finally {
+            pool.shutdown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void test_task_size_is_cache_line_multiple() throws ScriptException {
+        Script script = MoLangEngine.createDefault().compile("1");
+        Assertions.assertEquals(104, new ParallelBatchEvaluator(script, ForkJoinPool.commonPool(), 100).getTaskSize());
+        Assertions.assertEquals(8, new ParallelBatchEvaluator(script, ForkJoinPool.commonPool(), 1).getTaskSize());
+        Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> new ParallelBatchEvaluator(script, ForkJoinPool.commonPool(), 0)
+        );
+    }
+
+    private static void check(Script script, ParallelBatchEvaluator evaluator) {
+        Random random = new Random(0);
+        double[] a = new double[SIZE];
+        double[] speed = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            a[i] = random.nextDouble() * 2 - 1;
+            speed[i] = random.nextDouble();
+        }
+        double[] parallelSpeed = speed.clone();
+
+        double[] expected = new BatchEvaluator(script).evaluate(new Batch(SIZE)
+                .withQuery("a", a)
+                .withVariable("speed", speed));
+        double[] actual = evaluator.evaluate(new Batch(SIZE)
+                .withQuery("a", a)
+                .withVariable("speed", parallelSpeed));
+
+        Assertions.assertArrayEquals(expected, actual);
+        Assertions.assertArrayEquals(speed, parallelSpeed);
+    }
+
+}
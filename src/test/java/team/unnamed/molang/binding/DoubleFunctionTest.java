@@ -0,0 +1,72 @@
+package team.unnamed.molang.binding;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import team.unnamed.molang.ast.Expression;
+import team.unnamed.molang.ast.composite.CallExpression;
+import team.unnamed.molang.ast.simple.DoubleExpression;
+import team.unnamed.molang.ast.simple.IdentifierExpression;
+import team.unnamed.molang.context.EvalContext;
+
+import javax.script.SimpleBindings;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class DoubleFunctionTest {
+
+    @Test
+    public void test_boxed_call_converts_arguments() {
+        DoubleFunction2 subtract = (a, b) -> a - b;
+
+        Assertions.assertEquals(2.5D, subtract.call(5, 2.5F));
+        Assertions.assertEquals(0D, subtract.call(true, 1));
+        // missing and non-numeric arguments are zero
+        Assertions.assertEquals(5D, subtract.call(5));
+        Assertions.assertEquals(-1D, subtract.call("text", 1));
+
+        DoubleFunctionN sum = arguments -> Arrays.stream(arguments).sum();
+        Assertions.assertEquals(6D, sum.call(1, 2, 3));
+    }
+
+    @Test
+    public void test_call_expression_does_not_box() {
+        DoubleFunction1 twice = new DoubleFunction1() {
+            @Override
+            public double apply(double a) {
+                return a * 2;
+            }
+
+            @Override
+            public Object call(Object... arguments) {
+                throw new AssertionError("Boxed call");
+            }
+        };
+
+        SimpleBindings bindings = new SimpleBindings();
+        bindings.put("twice", twice);
+        EvalContext context = new EvalContext(bindings);
+
+        Expression call = new CallExpression(
+                new IdentifierExpression("twice"),
+                Collections.singletonList(new DoubleExpression(4))
+        );
+        Assertions.assertEquals(8D, call.evalAsDouble(context));
+        Assertions.assertEquals(8D, call.eval(context));
+    }
+
+    @Test
+    public void test_different_arity_uses_boxed_call() {
+        DoubleFunction1 negate = a -> -a;
+
+        SimpleBindings bindings = new SimpleBindings();
+        bindings.put("negate", negate);
+        EvalContext context = new EvalContext(bindings);
+
+        Expression call = new CallExpression(
+                new IdentifierExpression("negate"),
+                Arrays.asList(new DoubleExpression(4), new DoubleExpression(5))
+        );
+        Assertions.assertEquals(-4D, call.evalAsDouble(context));
+    }
+
+}
@@ -0,0 +1,112 @@
+package team.unnamed.molang.binding;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import team.unnamed.molang.MoLangEngine;
+import team.unnamed.molang.Script;
+import team.unnamed.molang.ast.composite.MathIntrinsics;
+
+import javax.script.ScriptException;
+import java.util.Random;
+
+/**
+ * Checks the accuracy of the {@link FastMath} approximations
+ * against the standard functions, error reports are left to
+ * the FastMath benchmark
+ */
+public class FastMathTest {
+
+    private static final int SAMPLES = 1_000_000;
+
+    @Test
+    public void test_trigonometry_accuracy() {
+        Random random = new Random(0);
+        double sin = 0;
+        double cos = 0;
+        double atan = 0;
+        double atan2 = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            double degrees = (random.nextDouble() * 2 - 1) * 3600;
+            sin = Math.max(sin, Math.abs(FastMath.sin(degrees) - MathBinding.sin(degrees)));
+            cos = Math.max(cos, Math.abs(FastMath.cos(degrees) - MathBinding.cos(degrees)));
+
+            // from 1E-4 to 1E4
+            double value = (random.nextDouble() * 2 - 1) * Math.pow(10, random.nextInt(9) - 4);
+            atan = Math.max(atan, Math.abs(FastMath.atan(value) - MathBinding.atan(value)));
+
+            double y = (random.nextDouble() * 2 - 1) * 100;
+            double x = (random.nextDouble() * 2 - 1) * 100;
+            atan2 = Math.max(atan2, Math.abs(FastMath.atan2(y, x) - MathBinding.atan2(y, x)));
+        }
+
+        assertError("sin", sin, 3E-7);
+        assertError("cos", cos, 3E-7);
+        assertError("atan", atan, 5E-6);
+        assertError("atan2", atan2, 5E-6);
+    }
+
+    @Test
+    public void test_exp_and_pow_accuracy() {
+        Random random = new Random(0);
+        double exp = 0;
+        double pow = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            double power = (random.nextDouble() * 2 - 1) * 700;
+            exp = Math.max(exp, Math.abs(FastMath.exp(power) / Math.exp(power) - 1));
+
+            double base = random.nextDouble() * 1000;
+            double exponent = (random.nextDouble() * 2 - 1) * 10;
+            double error = Math.abs(FastMath.pow(base, exponent) / Math.pow(base, exponent) - 1);
+            pow = Math.max(pow, error / (1 + Math.abs(exponent)));
+        }
+
+        assertError("exp (relative)", exp, 1.2E-7);
+        assertError("pow (relative, over 1 + |exponent|)", pow, 1.2E-7);
+    }
+
+    @Test
+    public void test_special_values() {
+        Assertions.assertTrue(Double.isNaN(FastMath.sin(Double.NaN)));
+        Assertions.assertTrue(Double.isNaN(FastMath.cos(Double.POSITIVE_INFINITY)));
+        Assertions.assertEquals(MathBinding.sin(1E10), FastMath.sin(1E10));
+        Assertions.assertEquals(1D, FastMath.sin(90));
+        Assertions.assertEquals(1D, FastMath.cos(0));
+        Assertions.assertEquals(-1D, FastMath.cos(-180));
+
+        Assertions.assertEquals(90D, FastMath.atan(Double.POSITIVE_INFINITY));
+        Assertions.assertEquals(-0D, FastMath.atan(-0D));
+        Assertions.assertEquals(180D, FastMath.atan2(0, -1));
+        Assertions.assertEquals(-90D, FastMath.atan2(-5, 0));
+        Assertions.assertEquals(MathBinding.atan2(0, 0), FastMath.atan2(0, 0));
+
+        Assertions.assertEquals(Double.POSITIVE_INFINITY, FastMath.exp(1000));
+        Assertions.assertEquals(0D, FastMath.exp(-1000));
+        Assertions.assertEquals(1D, FastMath.exp(-1E-17));
+        Assertions.assertEquals(Math.pow(-2, 3), FastMath.pow(-2, 3));
+        Assertions.assertEquals(Math.pow(0, 0.5), FastMath.pow(0, 0.5));
+        Assertions.assertEquals(6.25D, FastMath.pow(2.5, 2));
+        Assertions.assertTrue(Double.isNaN(FastMath.pow(1, Double.POSITIVE_INFINITY)));
+    }
+
+    @Test
+    public void test_fast_math_engine() throws ScriptException {
+        MoLangEngine engine = MoLangEngine.builder()
+                .withFastMath()
+                .withDefaultBindings()
+                .withoutOptimizations()
+                .build();
+        Script script = engine.compile("math.sin(variable.x)");
+        Assertions.assertTrue(script.getExpressions().get(0) instanceof MathIntrinsics.FastSin);
+
+        engine.getDefaultScope().getVariables().setProperty("x", 30);
+        Assertions.assertEquals(FastMath.sin(30), script.evalAsDouble());
+        Assertions.assertEquals(FastMath.pow(3, 0.5), engine.compile("math.pow(3, 0.5)").evalAsDouble());
+        Assertions.assertEquals(Math.sqrt(3), engine.compile("math.sqrt(3)").evalAsDouble());
+    }
+
+    private static void assertError(String function, double error, double bound) {
+        Assertions.assertTrue(error <= bound, "FastMath." + function
+                + ": max error " + error + " exceeds " + bound);
+    }
+
+}
@@ -0,0 +1,134 @@
+package team.unnamed.molang.binding;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import team.unnamed.molang.MoLangEngine;
+import team.unnamed.molang.Script;
+
+import javax.script.ScriptException;
+
+public class GeneratedBindingTest {
+
+    @Test
+    public void test_generated_binding_reads_properties() {
+        Entity entity = new Entity();
+        GeneratedBindingTest_EntityBinding binding = new GeneratedBindingTest_EntityBinding(entity);
+
+        Assertions.assertSame(entity, binding.getTarget());
+        Assertions.assertEquals(0D, binding.getProperty("anim_time"));
+        entity.animTime = 1.5;
+        Assertions.assertEquals(1.5D, binding.getProperty("anim_time"));
+        Assertions.assertEquals(20D, binding.getProperty("health"));
+        Assertions.assertEquals(true, binding.getProperty("is_alive"));
+        Assertions.assertEquals("steve", binding.getProperty("name"));
+        Assertions.assertEquals(3D, binding.getProperty("level"));
+        Assertions.assertNull(binding.getProperty("unknown"));
+        Assertions.assertNull(binding.getPropertyHandle("unknown"));
+
+        // handles are shared by the bindings of the class
+        PropertyHandle handle = binding.getPropertyHandle("is_alive");
+        Assertions.assertSame(handle, new GeneratedBindingTest_EntityBinding(new Entity()).getPropertyHandle("is_alive"));
+        Assertions.assertEquals(1D, handle.getDouble(binding));
+        Assertions.assertEquals(0D, binding.getPropertyHandle("name").getDouble(binding));
+    }
+
+    @Test
+    public void test_evaluates_generated_binding() throws ScriptException {
+        Entity entity = new Entity();
+        entity.animTime = 2;
+        MoLangEngine engine = MoLangEngine.builder()
+                .withDefaultBindings()
+                .withBinding("query", new GeneratedBindingTest_EntityBinding(entity))
+                .build();
+
+        Script script = engine.compile("q.is_alive ? q.anim_time * q.health + q.distance(3, 4) : 0");
+        Assertions.assertEquals(45D, script.evalAsDouble());
+        entity.animTime = 3;
+        Assertions.assertEquals(65D, script.evalAsDouble());
+        Assertions.assertEquals(5D, engine.compile("q.lerp(0, 10, 0.5)").evalAsDouble());
+    }
+
+    @Test
+    public void test_names_are_case_insensitive() throws ScriptException {
+        Entity entity = new Entity();
+        MoLangEngine engine = MoLangEngine.builder()
+                .withDefaultBindings()
+                .withBinding("query", new GeneratedBindingTest_EntityBinding(entity))
+                .build();
+
+        Assertions.assertEquals(1D, engine.compile("q.isMoving").evalAsDouble());
+        Assertions.assertEquals(1D, engine.compile("q.ismoving").evalAsDouble());
+
+        // 'getSpeed' is overridden by 'getspeed', names are compared in lowercase
+        Assertions.assertEquals(2D, engine.compile("q.getSpeed").evalAsDouble());
+    }
+
+    public static class Base {
+
+        @MoLangProperty
+        public long level() {
+            return 3;
+        }
+
+        @MoLangProperty
+        public int health() {
+            return 10;
+        }
+
+        @MoLangProperty
+        public double getSpeed() {
+            return 1;
+        }
+
+    }
+
+    @MoLangBinding
+    public static class Entity extends Base {
+
+        private double animTime;
+
+        @MoLangProperty("anim_time")
+        public double getAnimTime() {
+            return animTime;
+        }
+
+        // overrides the superclass property
+        @Override
+        @MoLangProperty
+        public int health() {
+            return 20;
+        }
+
+        @MoLangProperty("is_alive")
+        public boolean isAlive() {
+            return true;
+        }
+
+        @MoLangProperty("isMoving")
+        public boolean moving() {
+            return true;
+        }
+
+        @MoLangProperty("getspeed")
+        public double speed() {
+            return 2;
+        }
+
+        @MoLangProperty("name")
+        String getName() {
+            return "steve";
+        }
+
+        @MoLangProperty
+        public double distance(double x, double y) {
+            return Math.sqrt(x * x + y * y);
+        }
+
+        @MoLangProperty
+        public float lerp(double from, double to, double t) {
+            return (float) (from + (to - from) * t);
+        }
+
+    }
+
+}
@@ -0,0 +1,116 @@
+package team.unnamed.molang.binding;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import team.unnamed.molang.MoLangEngine;
+import team.unnamed.molang.Script;
+
+import javax.script.ScriptException;
+
+public class MemoizedQueryBindingTest {
+
+    private static final QueryProviders<Entity> PROVIDERS = QueryProviders.<Entity>builder()
+            .withProperty("speed", Entity::computeSpeed)
+            .withFlag("is_moving", entity -> entity.computeSpeed() > 0)
+            .build();
+
+    @Test
+    public void test_computes_once_per_frame() {
+        QueryFrame frame = new QueryFrame();
+        Entity entity = new Entity();
+        MemoizedQueryBinding<Entity> query = PROVIDERS.bind(entity, frame);
+
+        entity.speed = 2;
+        Assertions.assertEquals(2D, query.getProperty("speed"));
+        Assertions.assertEquals(1D, query.getProperty("is_moving"));
+        Assertions.assertEquals(2, entity.computations);
+
+        // memoized until the next frame
+        entity.speed = 0;
+        Assertions.assertEquals(2D, query.getProperty("speed"));
+        Assertions.assertEquals(1D, query.getProperty("is_moving"));
+        Assertions.assertEquals(2, entity.computations);
+
+        frame.advance();
+        Assertions.assertEquals(0D, query.getProperty("speed"));
+        Assertions.assertEquals(0D, query.getProperty("is_moving"));
+        Assertions.assertEquals(4, entity.computations);
+
+        entity.speed = 5;
+        query.invalidate();
+        Assertions.assertEquals(5D, query.getDouble(PROVIDERS.indexOf("speed")));
+        Assertions.assertNull(query.getProperty("unknown"));
+        Assertions.assertNull(query.getPropertyHandle("unknown"));
+    }
+
+    @Test
+    public void test_entities_memoize_their_own_values() {
+        QueryFrame frame = new QueryFrame();
+        Entity first = new Entity();
+        Entity second = new Entity();
+        first.speed = 1;
+        second.speed = 2;
+        MemoizedQueryBinding<Entity> firstQuery = PROVIDERS.bind(first, frame);
+        MemoizedQueryBinding<Entity> secondQuery = PROVIDERS.bind(second, frame);
+
+        PropertyHandle handle = firstQuery.getPropertyHandle("speed");
+        Assertions.assertSame(handle, secondQuery.getPropertyHandle("speed"));
+        Assertions.assertEquals(1D, handle.getDouble(firstQuery));
+        Assertions.assertEquals(2D, handle.getDouble(secondQuery));
+    }
+
+    @Test
+    public void test_scripts_read_memoized_values() throws ScriptException {
+        QueryFrame frame = new QueryFrame();
+        Entity entity = new Entity();
+        entity.speed = 3;
+        MoLangEngine engine = MoLangEngine.builder()
+                .withDefaultBindings()
+                .withBinding("query", PROVIDERS.bind(entity, frame))
+                .build();
+
+        Script script = engine.compile("q.is_moving ? q.speed * q.speed + q.speed : 0");
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals(12D, script.evalAsDouble());
+        }
+        Assertions.assertEquals(2, entity.computations);
+
+        frame.advance();
+        entity.speed = 1;
+        Assertions.assertEquals(2D, script.evalAsDouble());
+        Assertions.assertEquals(4, entity.computations);
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> QueryProviders.<Entity>builder()
+                .withProperty("speed", Entity::computeSpeed)
+                .withProperty("speed", Entity::computeSpeed));
+    }
+
+    @Test
+    public void test_names_are_case_insensitive() throws ScriptException {
+        Entity entity = new Entity();
+        entity.speed = 2;
+        QueryProviders<Entity> providers = QueryProviders.<Entity>builder()
+                .withFlag("isMoving", e -> e.computeSpeed() > 0)
+                .build();
+        MoLangEngine engine = MoLangEngine.builder()
+                .withDefaultBindings()
+                .withBinding("query", providers.bind(entity, new QueryFrame()))
+                .build();
+
+        Assertions.assertEquals(1D, engine.compile("q.isMoving").evalAsDouble());
+        Assertions.assertEquals(0, providers.indexOf("ismoving"));
+    }
+
+    private static final class Entity {
+
+        private double speed;
+        private int computations;
+
+        private double computeSpeed() {
+            computations++;
+            return speed;
+        }
+
+    }
+
+}
@@ -0,0 +1,169 @@
+package team.unnamed.molang.binding;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import team.unnamed.molang.MoLangEngine;
+import team.unnamed.molang.Script;
+
+import javax.script.ScriptException;
+import java.lang.invoke.MethodHandles;
+import java.util.Arrays;
+import java.util.HashSet;
+
+public class ObjectBinderTest {
+
+    @Test
+    public void test_binds_annotated_methods() {
+        Entity entity = new Entity();
+        PropertyBinding binding = ObjectBinder.of(Entity.class).bind(entity);
+
+        Assertions.assertEquals(
+                new HashSet<>(Arrays.asList("anim_time", "health", "is_alive", "name", "distance", "lerp")),
+                ObjectBinder.of(Entity.class).getPropertyNames()
+        );
+        Assertions.assertEquals(0D, binding.getProperty("anim_time"));
+        entity.animTime = 1.5;
+        Assertions.assertEquals(1.5D, binding.getProperty("anim_time"));
+        Assertions.assertEquals(20D, binding.getProperty("health"));
+        Assertions.assertEquals(true, binding.getProperty("is_alive"));
+        Assertions.assertEquals("steve", binding.getProperty("name"));
+        Assertions.assertNull(binding.getProperty("unknown"));
+
+        // handles read numbers without boxing
+        Assertions.assertEquals(1D, binding.getPropertyHandle("is_alive").getDouble(binding));
+        Assertions.assertEquals(1.5D, binding.getPropertyHandle("anim_time").getDouble(binding));
+
+        // the same binder is used for the class
+        Assertions.assertSame(ObjectBinder.of(Entity.class), ObjectBinder.of(Entity.class));
+        Assertions.assertSame(
+                binding.getHandleKey(),
+                ObjectBinder.of(Entity.class).bind(new Entity()).getHandleKey()
+        );
+    }
+
+    @Test
+    public void test_evaluates_bound_properties() throws ScriptException {
+        Entity entity = new Entity();
+        entity.animTime = 2;
+        MoLangEngine engine = MoLangEngine.builder()
+                .withDefaultBindings()
+                .withBinding("query", ObjectBinder.of(Entity.class).bind(entity))
+                .build();
+
+        Script script = engine.compile("q.is_alive ? q.anim_time * q.health + q.distance(3, 4) : 0");
+        Assertions.assertEquals(45D, script.evalAsDouble());
+        entity.animTime = 3;
+        Assertions.assertEquals(65D, script.evalAsDouble());
+        Assertions.assertEquals(5D, engine.compile("q.lerp(0, 10, 0.5)").evalAsDouble());
+    }
+
+    @Test
+    public void test_names_are_case_insensitive() throws ScriptException {
+        Assertions.assertEquals(
+                new HashSet<>(Arrays.asList("getanimtime", "ismoving")),
+                ObjectBinder.of(CamelCase.class).getPropertyNames()
+        );
+
+        MoLangEngine engine = MoLangEngine.builder()
+                .withDefaultBindings()
+                .withBinding("query", ObjectBinder.of(CamelCase.class).bind(new CamelCase()))
+                .build();
+        Assertions.assertEquals(2.5D, engine.compile("q.getAnimTime").evalAsDouble());
+        Assertions.assertEquals(2.5D, engine.compile("q.getanimtime").evalAsDouble());
+        Assertions.assertEquals(1D, engine.compile("q.isMoving").evalAsDouble());
+        Assertions.assertEquals(1D, engine.compile("q.ISMOVING").evalAsDouble());
+    }
+
+    @Test
+    public void test_binds_non_public_classes_with_lookup() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ObjectBinder.of(Hidden.class));
+
+        ObjectBinder<Hidden> binder = ObjectBinder.of(Hidden.class, Hidden.lookup());
+        Assertions.assertEquals(7D, binder.bind(new Hidden()).getProperty("value"));
+    }
+
+    @Test
+    public void test_rejects_unsupported_methods() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ObjectBinder.of(Unsupported.class));
+    }
+
+    public static class Entity {
+
+        private double animTime;
+
+        @MoLangProperty("anim_time")
+        public double getAnimTime() {
+            return animTime;
+        }
+
+        @MoLangProperty
+        public int health() {
+            return 20;
+        }
+
+        @MoLangProperty("is_alive")
+        public boolean isAlive() {
+            return true;
+        }
+
+        @MoLangProperty("name")
+        public String getName() {
+            return "steve";
+        }
+
+        @MoLangProperty
+        public double distance(double x, double y) {
+            return Math.sqrt(x * x + y * y);
+        }
+
+        @MoLangProperty
+        public float lerp(double from, double to, double t) {
+            return (float) (from + (to - from) * t);
+        }
+
+        // not annotated
+        public double ignored() {
+            return 0;
+        }
+
+    }
+
+    public static class CamelCase {
+
+        @MoLangProperty
+        public double getAnimTime() {
+            return 2.5;
+        }
+
+        @MoLangProperty("isMoving")
+        public boolean moving() {
+            return true;
+        }
+
+    }
+
+    private static class Hidden {
+
+        // before Java 11, nested classes can't access
+        // the private members of each other
+        private static MethodHandles.Lookup lookup() {
+            return MethodHandles.lookup();
+        }
+
+        @MoLangProperty
+        private long value() {
+            return 7;
+        }
+
+    }
+
+    public static class Unsupported {
+
+        @MoLangProperty
+        public double function(String argument) {
+            return 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,137 @@
+package team.unnamed.molang.binding;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import team.unnamed.molang.ast.binary.AccessExpression;
+import team.unnamed.molang.ast.simple.IdentifierExpression;
+import team.unnamed.molang.context.EvalContext;
+
+import javax.script.SimpleBindings;
+
+public class PropertyBindingTest {
+
+    @Test
+    public void test_handles_are_resolved_once_per_key() {
+        AccessExpression access = new AccessExpression(new IdentifierExpression("object"), "x");
+        CountingBinding binding = new CountingBinding();
+        EvalContext context = contextOf(binding);
+
+        for (int i = 0; i < 10; i++) {
+            binding.value = i;
+            Assertions.assertEquals((double) i, access.eval(context));
+        }
+        access.setValue(context, 42D);
+        Assertions.assertEquals(42D, binding.value);
+        Assertions.assertEquals(1, binding.resolved);
+        Assertions.assertEquals(0, binding.lookups);
+    }
+
+    @Test
+    public void test_storages_share_handles_by_layout() {
+        AccessExpression access = new AccessExpression(new IdentifierExpression("object"), "x");
+
+        // polymorphic site, some storages share a layout
+        StorageBinding[] storages = new StorageBinding[6];
+        for (int i = 0; i < storages.length; i++) {
+            storages[i] = i % 2 == 0 || i == 1
+                    ? new StorageBinding()
+                    : new StorageBinding(storages[i - 2].getLayout());
+            storages[i].setProperty("x", i);
+        }
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < storages.length; i++) {
+                Assertions.assertEquals((double) i, access.evalAsDouble(contextOf(storages[i])));
+            }
+        }
+
+        access.setValue(contextOf(storages[3]), 7D);
+        Assertions.assertEquals(7D, storages[3].getProperty("x"));
+        Assertions.assertEquals(1D, storages[1].getProperty("x"));
+    }
+
+    @Test
+    public void test_megamorphic_sites_use_names() {
+        AccessExpression access = new AccessExpression(new IdentifierExpression("object"), "x");
+        CountingBinding[] bindings = new CountingBinding[16];
+        for (int i = 0; i < bindings.length; i++) {
+            bindings[i] = new CountingBinding();
+            bindings[i].value = i;
+        }
+
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < bindings.length; i++) {
+                Assertions.assertEquals((double) i, access.eval(contextOf(bindings[i])));
+            }
+        }
+
+        // handles stop being resolved once the site is megamorphic
+        int resolved = 0;
+        for (CountingBinding binding : bindings) {
+            resolved += binding.resolved;
+        }
+        Assertions.assertTrue(resolved < bindings.length);
+        Assertions.assertTrue(bindings[bindings.length - 1].lookups > 0);
+    }
+
+    @Test
+    public void test_standard_bindings_have_handles() {
+        MathBinding math = new MathBinding();
+        Assertions.assertEquals(math.getProperty("pi"), math.getPropertyHandle("pi").get(math));
+        Assertions.assertSame(math.getProperty("cos"), math.getPropertyHandle("cos").get(math));
+
+        QueryBinding query = new QueryBinding();
+        Assertions.assertSame(query.getProperty("print"), query.getPropertyHandle("print").get(query));
+
+        // subclasses may override the properties
+        MathBinding custom = new MathBinding() {
+            @Override
+            public Object getProperty(String name) {
+                return 1;
+            }
+        };
+        Assertions.assertNull(custom.getPropertyHandle("pi"));
+    }
+
+    private static EvalContext contextOf(Object binding) {
+        SimpleBindings bindings = new SimpleBindings();
+        bindings.put("object", binding);
+        return new EvalContext(bindings);
+    }
+
+    private static final class CountingBinding implements PropertyBinding {
+
+        private double value;
+        private int resolved;
+        private int lookups;
+
+        @Override
+        public Object getProperty(String name) {
+            lookups++;
+            return value;
+        }
+
+        @Override
+        public void setProperty(String name, Object value) {
+            lookups++;
+            this.value = (Double) value;
+        }
+
+        @Override
+        public PropertyHandle getPropertyHandle(String name) {
+            resolved++;
+            return new PropertyHandle() {
+                @Override
+                public Object get(ObjectBinding binding) {
+                    return ((CountingBinding) binding).value;
+                }
+
+                @Override
+                public void set(ObjectBinding binding, Object value) {
+                    ((CountingBinding) binding).value = (Double) value;
+                }
+            };
+        }
+
+    }
+
+}
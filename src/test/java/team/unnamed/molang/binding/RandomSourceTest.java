@@ -0,0 +1,70 @@
+package team.unnamed.molang.binding;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import team.unnamed.molang.EntityScope;
+import team.unnamed.molang.MoLangEngine;
+import team.unnamed.molang.Script;
+
+import javax.script.ScriptException;
+import java.util.SplittableRandom;
+
+public class RandomSourceTest {
+
+    private static final int SAMPLES = 10_000;
+
+    @Test
+    public void test_random_ranges() {
+        boolean low = false;
+        boolean high = false;
+        for (int i = 0; i < SAMPLES; i++) {
+            double random = MathBinding.random(2, 4);
+            Assertions.assertTrue(random >= 2 && random < 4);
+
+            double integer = MathBinding.randomInteger(1, 3);
+            Assertions.assertTrue(integer == 1 || integer == 2 || integer == 3);
+            low |= integer == 1;
+            high |= integer == 3;
+
+            double roll = MathBinding.dieRollInteger(3, 1, 6);
+            Assertions.assertTrue(roll >= 3 && roll <= 18 && roll == Math.floor(roll));
+            double floatRoll = MathBinding.dieRoll(2, 0, 1);
+            Assertions.assertTrue(floatRoll >= 0 && floatRoll < 2);
+        }
+        // both bounds are inclusive
+        Assertions.assertTrue(low && high);
+        Assertions.assertEquals(5D, MathBinding.randomInteger(5, 5));
+        Assertions.assertEquals(0D, MathBinding.dieRoll(0, 1, 6));
+    }
+
+    @Test
+    public void test_seeded_scopes_replay() throws ScriptException {
+        MoLangEngine engine = MoLangEngine.createDefault();
+        Script script = engine.compile(
+                "math.random(0, 1) + math.random_integer(0, 100) "
+                        + "+ math.die_roll(2, 0, 1) + math.die_roll_integer(2, 1, 6)"
+        );
+
+        EntityScope scope = engine.createScope(42);
+        double[] first = new double[10];
+        for (int i = 0; i < first.length; i++) {
+            first[i] = script.evalAsDouble(scope);
+        }
+
+        scope.setSeed(42);
+        EntityScope other = engine.createScope(42);
+        for (double expected : first) {
+            Assertions.assertEquals(expected, script.evalAsDouble(scope));
+            Assertions.assertEquals(expected, script.evalAsDouble(other));
+        }
+    }
+
+    @Test
+    public void test_thread_stream_is_restored() throws ScriptException {
+        MoLangEngine engine = MoLangEngine.createDefault();
+        SplittableRandom threadRandom = RandomSource.current();
+        engine.compile("math.random(0, 1)").eval(engine.createScope(1));
+        Assertions.assertSame(threadRandom, RandomSource.current());
+    }
+
+}
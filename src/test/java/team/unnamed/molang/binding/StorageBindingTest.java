@@ -0,0 +1,92 @@
+package team.unnamed.molang.binding;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class StorageBindingTest {
+
+    @Test
+    public void test_names_and_slots_are_equivalent() {
+        StorageLayout layout = new StorageLayout();
+        StorageBinding storage = new StorageBinding(layout);
+        int slot = layout.slotOf("x");
+
+        storage.setProperty("x", 5);
+        Assertions.assertEquals(5D, storage.getDouble(slot));
+
+        storage.setDouble(slot, 3);
+        Assertions.assertEquals(3D, storage.getProperty("x"));
+        Assertions.assertEquals(slot, layout.slotOf("x"));
+    }
+
+    @Test
+    public void test_stores_non_numeric_values() {
+        StorageBinding storage = new StorageBinding();
+        storage.setProperty("name", "steve");
+
+        Assertions.assertEquals("steve", storage.getProperty("name"));
+        Assertions.assertEquals(0D, storage.getDouble(storage.getLayout().find("name")));
+    }
+
+    @Test
+    public void test_clear_unsets_values() {
+        StorageBinding storage = new StorageBinding();
+        storage.setProperty("x", 1);
+        storage.clear();
+
+        Assertions.assertNull(storage.getProperty("x"));
+        Assertions.assertNull(storage.getProperty("unknown"));
+    }
+
+    @Test
+    public void test_storages_share_layouts() {
+        StorageLayout layout = new StorageLayout();
+        StorageBinding first = new StorageBinding(layout);
+        StorageBinding second = new StorageBinding(layout);
+
+        first.setProperty("a", 1);
+        second.setProperty("b", 2);
+
+        Assertions.assertNull(first.getProperty("b"));
+        Assertions.assertEquals(2D, second.getProperty("b"));
+        Assertions.assertEquals(2, layout.size());
+    }
+
+    @Test
+    public void test_read_only_storage() {
+        StorageBinding storage = new StorageBinding(false);
+        storage.setProperty("x", 1);
+        Assertions.assertNull(storage.getProperty("x"));
+    }
+
+    @Test
+    public void test_reads_do_not_create_slots() {
+        StorageLayout layout = new StorageLayout();
+        StorageBinding storage = new StorageBinding(layout);
+
+        PropertyHandle handle = storage.getPropertyHandle("missing");
+        Assertions.assertNull(storage.getProperty("missing"));
+        Assertions.assertNull(handle.get(storage));
+        Assertions.assertEquals(0, layout.size());
+
+        handle.set(storage, 4);
+        Assertions.assertEquals(1, layout.size());
+        Assertions.assertEquals(4D, storage.getProperty("missing"));
+        Assertions.assertEquals(4D, handle.getDouble(storage));
+    }
+
+    @Test
+    public void test_storages_only_allocate_used_slots() {
+        StorageLayout layout = new StorageLayout();
+        for (int i = 0; i < 1000; i++) {
+            layout.slotOf("name" + i);
+        }
+
+        StorageBinding storage = new StorageBinding(layout);
+        storage.setProperty("name0", 1);
+        storage.setProperty("name1", 2);
+        Assertions.assertTrue(storage.capacity() < 10, "capacity: " + storage.capacity());
+        Assertions.assertNull(storage.getProperty("name999"));
+    }
+
+}
@@ -0,0 +1,179 @@
+package team.unnamed.molang.linker;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import team.unnamed.molang.EntityScope;
+import team.unnamed.molang.MoLangEngine;
+import team.unnamed.molang.Script;
+import team.unnamed.molang.ast.Expression;
+import team.unnamed.molang.ast.binary.AssignExpression;
+import team.unnamed.molang.ast.binary.StorageAccessExpression;
+import team.unnamed.molang.ast.composite.CallExpression;
+import team.unnamed.molang.ast.composite.MathIntrinsics;
+import team.unnamed.molang.ast.simple.RootIdentifierExpression;
+import team.unnamed.molang.binding.DoubleFunction1;
+import team.unnamed.molang.binding.MathBinding;
+import team.unnamed.molang.binding.ObjectBinding;
+import team.unnamed.molang.binding.StorageBinding;
+import team.unnamed.molang.binding.StorageLayout;
+import team.unnamed.molang.context.EvalContext;
+import team.unnamed.molang.context.RootLayout;
+import team.unnamed.molang.parser.StandardMoLangParser;
+
+import javax.script.ScriptException;
+import javax.script.SimpleBindings;
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.List;
+
+public class ScriptLinkerTest {
+
+    private static final MoLangEngine ENGINE = MoLangEngine.createDefault();
+
+    // constant calls aren't folded, so they are evaluated
+    private static final MoLangEngine UNOPTIMIZED_ENGINE = MoLangEngine.builder()
+            .withDefaultBindings()
+            .withoutOptimizations()
+            .build();
+
+    @Test
+    public void test_links_storage_accesses() throws ScriptException {
+        AssignExpression assign = (AssignExpression) ENGINE.compile("variable.x = temp.y")
+                .getExpressions()
+                .get(0);
+        Assertions.assertTrue(assign.getVariable() instanceof StorageAccessExpression);
+        Assertions.assertTrue(assign.getValue() instanceof StorageAccessExpression);
+    }
+
+    @Test
+    public void test_links_math_intrinsics() throws ScriptException {
+        Expression cos = ENGINE.compile("math.cos(variable.x)").getExpressions().get(0);
+        Assertions.assertTrue(cos instanceof MathIntrinsics.Cos);
+        Assertions.assertTrue(((CallExpression) cos).getArguments().get(0) instanceof StorageAccessExpression);
+
+        Expression clamp = ENGINE.compile("math.clamp(variable.x, 0, math.abs(variable.y))").getExpressions().get(0);
+        Assertions.assertTrue(clamp instanceof MathIntrinsics.Clamp);
+        Assertions.assertTrue(((CallExpression) clamp).getArguments().get(2) instanceof MathIntrinsics.Abs);
+
+        // different arity, evaluated like the function does
+        Script sin = ENGINE.compile("math.sin(90, 1)");
+        Assertions.assertFalse(sin.getExpressions().get(0) instanceof MathIntrinsics.Intrinsic);
+        Assertions.assertEquals(1D, sin.evalAsDouble(), 1E-9);
+    }
+
+    @Test
+    public void test_intrinsics_results() throws ScriptException {
+        String source = "math.lerprotate(10, 380, 0.5) + math.atan2(1, 2) + math.mod(7, 3)"
+                + " + math.round(2.5) + math.pow(2, 3) + math.ln(4) + math.sin(30)";
+        double expected = MathBinding.lerpRotate(10, 380, 0.5) + MathBinding.atan2(1, 2) + 1
+                + 3 + 8 + Math.log(4) + Math.sin(Math.toRadians(30));
+        Assertions.assertEquals(expected, UNOPTIMIZED_ENGINE.compile(source).evalAsDouble(), 1E-9);
+    }
+
+    @Test
+    public void test_rebound_math_is_used() throws ScriptException {
+        Script script = UNOPTIMIZED_ENGINE.compile("math.cos(0)");
+        Assertions.assertTrue(script.getExpressions().get(0) instanceof MathIntrinsics.Cos);
+
+        ObjectBinding math = new ObjectBinding() {
+            @Override
+            public Object getProperty(String name) {
+                return (DoubleFunction1) a -> 42;
+            }
+
+            @Override
+            public void setProperty(String name, Object value) {
+            }
+        };
+        SimpleBindings bindings = new SimpleBindings();
+        bindings.put("math", math);
+
+        Assertions.assertEquals(42D, script.evalAsDouble(new EvalContext(bindings)));
+        Assertions.assertEquals(42D, script.eval(new EvalContext(bindings)));
+        Assertions.assertEquals(1D, script.evalAsDouble());
+    }
+
+    @Test
+    public void test_math_subclasses_are_not_linked() throws Exception {
+        MathBinding custom = new MathBinding() {
+            @Override
+            public Object getProperty(String name) {
+                return (DoubleFunction1) a -> 42;
+            }
+        };
+        ScriptLinker linker = new ScriptLinker(
+                new StorageLayout(),
+                new StorageLayout(),
+                Collections.singletonMap("math", custom)
+        );
+        List<Expression> expressions = linker.link(
+                new StandardMoLangParser().parse(new StringReader("math.cos(0)"))
+        );
+        Assertions.assertFalse(expressions.get(0) instanceof MathIntrinsics.Intrinsic);
+
+        SimpleBindings bindings = new SimpleBindings();
+        bindings.put("math", custom);
+        bindings.put("temp", new StorageBinding());
+        Assertions.assertEquals(42D, expressions.get(0).evalAsDouble(new EvalContext(bindings)));
+    }
+
+    @Test
+    public void test_links_root_identifiers() throws ScriptException {
+        MoLangEngine engine = MoLangEngine.builder()
+                .withDefaultBindings()
+                .withBinding("query", constantBinding(5))
+                .withBinding("context", constantBinding(2))
+                .withBinding("custom", constantBinding(3))
+                .build();
+
+        AssignExpression assign = (AssignExpression) engine.compile("v.x = q.y")
+                .getExpressions()
+                .get(0);
+        Assertions.assertTrue(assign.getVariable() instanceof StorageAccessExpression);
+        Expression object = ((StorageAccessExpression) assign.getVariable()).getObject();
+        Assertions.assertTrue(object instanceof RootIdentifierExpression);
+        Assertions.assertEquals("variable", ((RootIdentifierExpression) object).getIdentifier());
+        Assertions.assertEquals(RootLayout.VARIABLE, ((RootIdentifierExpression) object).getIndex());
+
+        EntityScope scope = engine.createScope();
+        Assertions.assertEquals(
+                5D + 2 + 3 + 4,
+                engine.compile("v.x = 4; t.y = v.x; q.a + c.b + custom.c + temp.y").evalAsDouble(scope)
+        );
+        Assertions.assertEquals(4D, engine.compile("variable.x").evalAsDouble(scope));
+    }
+
+    @Test
+    public void test_root_identifiers_fall_back_to_names() throws ScriptException {
+        Script script = ENGINE.compile("q.x + c.y");
+        Assertions.assertEquals(0D, script.evalAsDouble());
+
+        // contexts without a root layout look up the canonical names
+        SimpleBindings bindings = new SimpleBindings();
+        bindings.put("query", constantBinding(1));
+        bindings.put("context", constantBinding(2));
+        Assertions.assertEquals(3D, script.evalAsDouble(new EvalContext(bindings)));
+
+        // contexts of another layout too
+        RootLayout layout = new RootLayout(Collections.singleton("other"));
+        Object[] values = layout.createValues(Collections.emptyMap());
+        values[RootLayout.QUERY] = constantBinding(4);
+        values[RootLayout.CONTEXT] = constantBinding(2);
+        values[layout.indexOf("other")] = constantBinding(8);
+        Assertions.assertEquals(6D, script.evalAsDouble(new EvalContext(layout, values)));
+    }
+
+    private static ObjectBinding constantBinding(double value) {
+        return new ObjectBinding() {
+            @Override
+            public Object getProperty(String name) {
+                return value;
+            }
+
+            @Override
+            public void setProperty(String name, Object value) {
+            }
+        };
+    }
+
+}
@@ -0,0 +1,100 @@
+package team.unnamed.molang.optimizer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import team.unnamed.molang.MoLangEngine;
+import team.unnamed.molang.ast.Expression;
+import team.unnamed.molang.ast.binary.InfixExpression;
+import team.unnamed.molang.ast.composite.InfixChainExpression;
+import team.unnamed.molang.ast.simple.DoubleExpression;
+
+import javax.script.ScriptException;
+import java.util.List;
+
+public class ScriptOptimizerTest {
+
+    private static final MoLangEngine ENGINE = MoLangEngine.createDefault();
+
+    private static List<Expression> optimize(String script) throws ScriptException {
+        return ENGINE.compile(script).getExpressions();
+    }
+
+    private static void assertConstant(double expected, String script) throws ScriptException {
+        List<Expression> expressions = optimize(script);
+        Assertions.assertEquals(1, expressions.size());
+        Assertions.assertEquals(new DoubleExpression(expected), expressions.get(0));
+    }
+
+    @Test
+    public void test_folds_constant_subtrees() throws ScriptException {
+        assertConstant(4, "(1 + 1) * 2");
+        assertConstant(-6, "-(2 * 3)");
+        assertConstant(0, "!(3 < 4)");
+        assertConstant(Math.PI * 2 / 360, "math.pi * 2 / 360");
+    }
+
+    @Test
+    public void test_folds_constant_conditions() throws ScriptException {
+        assertConstant(10, "true ? 10 : query.x");
+        assertConstant(0, "false ? query.x");
+        Assertions.assertEquals("query.x", optimize("false ? 10 : query.x").get(0).toSource());
+    }
+
+    @Test
+    public void test_folds_pure_math_functions() throws ScriptException {
+        assertConstant(9, "math.pow(math.clamp(500, 0, 3), 2)");
+        assertConstant(Math.sqrt(2), "math.sqrt(1 + 1)");
+    }
+
+    @Test
+    public void test_keeps_impure_functions() throws ScriptException {
+        List<Expression> expressions = optimize("math.die_roll(1, 0, 1)");
+        Assertions.assertFalse(expressions.get(0) instanceof DoubleExpression);
+    }
+
+    @Test
+    public void test_folds_partially_constant_expressions() throws ScriptException {
+        Expression expression = optimize("query.x * (1 + 1)").get(0);
+        Assertions.assertTrue(expression instanceof InfixExpression);
+        Assertions.assertEquals(new DoubleExpression(2), ((InfixExpression) expression).getRight());
+    }
+
+    @Test
+    public void test_folds_constant_chain_prefixes() throws ScriptException {
+        StringBuilder source = new StringBuilder("1 + 2");
+        for (int i = 0; i < 40; i++) {
+            source.append(" + query.x");
+        }
+        Expression expression = optimize(source.toString()).get(0);
+        Assertions.assertTrue(expression instanceof InfixChainExpression);
+        Assertions.assertEquals(new DoubleExpression(3), ((InfixChainExpression) expression).getTerms().get(0));
+        Assertions.assertEquals(41, ((InfixChainExpression) expression).getTerms().size());
+    }
+
+    @Test
+    public void test_reduces_constant_scripts() throws ScriptException {
+        assertConstant(5, "1; 2 * 2; return 5; query.x");
+        Assertions.assertEquals(2, optimize("temp.x = 1; return temp.x").size());
+    }
+
+    @Test
+    public void test_keeps_assignment_targets() throws ScriptException {
+        MoLangEngine unoptimized = MoLangEngine.builder()
+                .withDefaultBindings()
+                .withoutOptimizations()
+                .build();
+        String[] sources = {
+                "(variable.y) = 5; return variable.y ?? 2;",
+                "(1 ? variable.z : 2) = 5; return variable.z ?? 2;",
+                "variable.w = (1 + 1); return variable.w;",
+        };
+        for (String source : sources) {
+            Assertions.assertEquals(
+                    unoptimized.compile(source).evalAsDouble(unoptimized.createScope()),
+                    ENGINE.compile(source).evalAsDouble(ENGINE.createScope()),
+                    source
+            );
+        }
+    }
+
+}
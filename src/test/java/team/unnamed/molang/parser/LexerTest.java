@@ -0,0 +1,91 @@
+package team.unnamed.molang.parser;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import team.unnamed.molang.ast.Expression;
+import team.unnamed.molang.ast.binary.AccessExpression;
+import team.unnamed.molang.ast.simple.DoubleExpression;
+import team.unnamed.molang.ast.simple.IdentifierExpression;
+
+import java.util.Random;
+
+public class LexerTest {
+
+    @Test
+    public void test_token_kinds() throws ParseException {
+        Lexer lexer = new Lexer("Query.x <= 2.5 ?? 'a b' && !c", new SymbolTable());
+        int[] expected = {
+                Lexer.IDENTIFIER, Lexer.DOT, Lexer.IDENTIFIER, Lexer.LESS_EQUAL,
+                Lexer.NUMBER, Lexer.DOUBLE_QUESTION, Lexer.STRING, Lexer.AND,
+                Lexer.EXCLAMATION, Lexer.IDENTIFIER, Lexer.END
+        };
+        for (int kind : expected) {
+            Assertions.assertEquals(kind, lexer.next());
+        }
+
+        lexer = new Lexer("Query.x", new SymbolTable());
+        lexer.next();
+        Assertions.assertEquals("query", lexer.getSymbol());
+    }
+
+    @Test
+    public void test_numbers_are_correctly_rounded() throws ParseException {
+        assertNumber("0.1");
+        assertNumber("2.5");
+        assertNumber("1.");
+        assertNumber("000123.4500");
+        assertNumber("9007199254740993");
+        assertNumber("0.30000000000000004441");
+        assertNumber("123456789012345678901234567890.5");
+
+        Random random = new Random(0);
+        for (int i = 0; i < 10_000; i++) {
+            StringBuilder number = new StringBuilder();
+            number.append(random.nextInt(100_000));
+            number.append('.');
+            int decimals = random.nextInt(25);
+            for (int j = 0; j < decimals; j++) {
+                number.append(random.nextInt(10));
+            }
+            assertNumber(number.toString());
+        }
+    }
+
+    @Test
+    public void test_identifiers_are_interned() throws ParseException {
+        SymbolTable symbols = new SymbolTable();
+        StandardMoLangParser parser = new StandardMoLangParser(symbols);
+        Expression first = parser.parse("Variable.Speed").get(0);
+        Expression second = parser.parse(new StringBuilder("variable.SPEED")).get(0);
+
+        Assertions.assertEquals(first.toString(), second.toString());
+        Assertions.assertSame(
+                ((AccessExpression) first).getProperty(),
+                ((AccessExpression) second).getProperty()
+        );
+        Assertions.assertSame(
+                ((IdentifierExpression) ((AccessExpression) first).getObject()).getIdentifier(),
+                ((IdentifierExpression) ((AccessExpression) second).getObject()).getIdentifier()
+        );
+        Assertions.assertEquals(2, symbols.size());
+
+        // the table grows
+        for (int i = 0; i < 1000; i++) {
+            parser.parse("v.x" + i);
+        }
+        // "v" and x0..x999
+        Assertions.assertEquals(1003, symbols.size());
+        Assertions.assertSame(symbols.intern("x500", 0, 4), symbols.intern("X500", 0, 4));
+    }
+
+    private static void assertNumber(String source) throws ParseException {
+        Lexer lexer = new Lexer(source, new SymbolTable());
+        Assertions.assertEquals(Lexer.NUMBER, lexer.next());
+        Assertions.assertEquals(Double.parseDouble(source), lexer.getNumber(), source);
+        Assertions.assertEquals(
+                new DoubleExpression(-Double.parseDouble(source)),
+                new StandardMoLangParser().parse("-" + source).get(0)
+        );
+    }
+
+}
@@ -0,0 +1,102 @@
+package team.unnamed.molang.parser;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import team.unnamed.molang.ast.Expression;
+import team.unnamed.molang.ast.simple.StringExpression;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class ParserInputTest {
+
+    private static final String SOURCE = "temp.x = query.anim_time * 2.5;\n"
+            + "temp.name = 'h\u00e9llo \ud83d\ude00 w\u00f6rld';\n"
+            + "return math.sin(temp.x) + (variable.y ?? 1)";
+
+    private final MoLangParser parser = new StandardMoLangParser();
+
+    @Test
+    public void test_inputs_are_equivalent() throws ParseException {
+        String expected = parser.parse(new StringReader(SOURCE)).toString();
+        byte[] bytes = SOURCE.getBytes(StandardCharsets.UTF_8);
+
+        Assertions.assertEquals(expected, parser.parse(SOURCE).toString());
+        Assertions.assertEquals(expected, parser.parse(new StringBuilder(SOURCE)).toString());
+        Assertions.assertEquals(expected, parser.parse(SOURCE.toCharArray()).toString());
+        Assertions.assertEquals(expected, parser.parse(ByteBuffer.wrap(bytes)).toString());
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length + 4);
+        direct.position(4);
+        direct.put(bytes);
+        direct.position(4);
+        Assertions.assertEquals(expected, parser.parse(direct).toString());
+        // the buffer position isn't modified
+        Assertions.assertEquals(4, direct.position());
+    }
+
+    @Test
+    public void test_utf8_string_literals() throws ParseException {
+        List<Expression> expressions = parser.parse(ByteBuffer.wrap(
+                "'\u00f1\ud83d\ude00'".getBytes(StandardCharsets.UTF_8)
+        ));
+        Assertions.assertEquals("\u00f1\ud83d\ude00", ((StringExpression) expressions.get(0)).getValue());
+
+        // malformed input is replaced
+        expressions = parser.parse(ByteBuffer.wrap(new byte[] { '\'', (byte) 0xC3, '\'' }));
+        Assertions.assertEquals("\ufffd", ((StringExpression) expressions.get(0)).getValue());
+    }
+
+    @Test
+    public void test_random_access_utf8() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            builder.append(i % 3 == 0 ? "\u00e9" : i % 7 == 0 ? "\ud83d\ude00" : "a");
+        }
+        String expected = builder.toString();
+        CharSequence sequence = new Utf8CharSequence(ByteBuffer.wrap(expected.getBytes(StandardCharsets.UTF_8)));
+
+        Assertions.assertEquals(expected.length(), sequence.length());
+        for (int i = expected.length() - 1; i >= 0; i -= 5) {
+            Assertions.assertEquals(expected.charAt(i), sequence.charAt(i), "index: " + i);
+        }
+        Assertions.assertEquals(expected, sequence.toString());
+    }
+
+    @Test
+    public void test_large_utf8_input() throws ParseException {
+        StringBuilder source = new StringBuilder("temp.name = '\u00e9';\n");
+        for (int i = 0; i < 20_000; i++) {
+            source.append("temp.x").append(i).append(" = query.anim_time * ").append(i).append(";\n");
+        }
+        byte[] bytes = source.toString().getBytes(StandardCharsets.UTF_8);
+
+        // quadratic decoding takes minutes
+        long start = System.nanoTime();
+        List<Expression> expressions = parser.parse(ByteBuffer.wrap(bytes));
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        Assertions.assertEquals(parser.parse(source).toString(), expressions.toString());
+        Assertions.assertTrue(millis < 5_000, "took " + millis + " ms");
+    }
+
+    @Test
+    public void test_error_location() {
+        ParseException exception = Assertions.assertThrows(
+                ParseException.class,
+                () -> parser.parse("1;\n'ab")
+        );
+        Assertions.assertEquals(2, exception.getCursor().getLine());
+        Assertions.assertEquals(4, exception.getCursor().getColumn());
+
+        exception = Assertions.assertThrows(
+                ParseException.class,
+                () -> parser.parse(ByteBuffer.wrap("'\u00e9';\n\n  q.a.?".getBytes(StandardCharsets.UTF_8)))
+        );
+        Assertions.assertEquals(3, exception.getCursor().getLine());
+        Assertions.assertEquals(8, exception.getCursor().getColumn());
+    }
+
+}
@@ -0,0 +1,188 @@
+package team.unnamed.molang.parser;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import team.unnamed.molang.MoLangEngine;
+import team.unnamed.molang.Script;
+import team.unnamed.molang.ast.Expression;
+import team.unnamed.molang.ast.binary.AndExpression;
+import team.unnamed.molang.ast.binary.DivideExpression;
+import team.unnamed.molang.ast.binary.GreaterThanExpression;
+import team.unnamed.molang.ast.binary.InfixExpression;
+import team.unnamed.molang.ast.binary.LessThanOrEqualExpression;
+import team.unnamed.molang.ast.composite.InfixChainExpression;
+import team.unnamed.molang.compiler.ScriptCompiler;
+
+import javax.script.ScriptException;
+
+public class StandardMoLangParserTest {
+
+    private static final MoLangEngine ENGINE = MoLangEngine.builder()
+            .withDefaultBindings()
+            .withoutOptimizations()
+            .build();
+
+    private final MoLangParser parser = new StandardMoLangParser();
+
+    @Test
+    public void test_precedence() throws ScriptException {
+        assertResult(14, "2 + 3 * 4");
+        assertResult(20, "(2 + 3) * 4");
+        assertResult(26, "2 * 3 + 4 * 5");
+        assertResult(1, "1 + 2 > 2 && 4 / 2 <= 2");
+        assertResult(-6, "-2 * 3");
+        assertResult(4, "!(3 < 2) * 4");
+        assertResult(10, "true ? 10 : 20 + 100");
+        assertResult(3, "0 ? 1 : 0 ? 2 : 3");
+        assertResult(5, "0 || 0 ? 4 : 5");
+
+        // property accesses bind tighter than operators
+        ENGINE.getDefaultScope().getVariables().setProperty("x", 3);
+        assertResult(6, "2 * variable.x");
+        assertResult(-9, "-variable.x * 3");
+        assertResult(0, "!variable.x");
+    }
+
+    @Test
+    public void test_associativity() throws ScriptException {
+        assertResult(3, "10 - 4 - 3");
+        assertResult(2, "16 / 4 / 2");
+        assertResult(11, "10 - 4 + 5");
+        assertResult(1, "2 < 3 < 4");
+        assertResult(4, "temp.a = temp.b = 4; return temp.a");
+        assertResult(7, "temp.x = 0 ? 1 : 7; return temp.x");
+        assertResult(2, "temp.x = 1; 0 ? temp.x = 5 : temp.x = 2; return temp.x");
+        assertResult(9, "return 4 + 5");
+    }
+
+    @Test
+    public void test_long_chains_are_shallow() throws ParseException, ScriptException {
+        int terms = 10_000;
+        StringBuilder source = new StringBuilder("0");
+        StringBuilder products = new StringBuilder("1");
+        long expected = 0;
+        for (int i = 1; i < terms; i++) {
+            boolean subtract = i % 3 == 0;
+            source.append(subtract ? " - " : " + ").append(i);
+            expected += subtract ? -i : i;
+            products.append(i % 2 == 0 ? " * " : " / ").append(i % 7 + 1);
+        }
+
+        Expression expression = parser.parse(source).get(0);
+        Assertions.assertTrue(depth(expression) <= 20, "depth: " + depth(expression));
+        Assertions.assertEquals(expected, ENGINE.compile(source.toString()).evalAsDouble());
+
+        double quotient = 1;
+        for (int i = 1; i < terms; i++) {
+            quotient = i % 2 == 0 ? quotient * (i % 7 + 1) : quotient / (i % 7 + 1);
+        }
+        Assertions.assertEquals(quotient, ENGINE.compile(products.toString()).evalAsDouble(), Math.abs(quotient) * 1E-12);
+
+        StringBuilder conditions = new StringBuilder("1");
+        for (int i = 1; i < terms; i++) {
+            conditions.append(" && ").append(i);
+        }
+        Assertions.assertTrue(depth(parser.parse(conditions).get(0)) <= 20);
+        Assertions.assertEquals(1D, ENGINE.compile(conditions.toString()).evalAsDouble());
+    }
+
+    @Test
+    public void test_long_chains_are_left_associative() throws ScriptException {
+        // regrouping would overflow 'v.a * v.a' to infinity
+        for (int operands : new int[] { 8, 64 }) {
+            StringBuilder quotients = new StringBuilder("v.x = math.pow(10, 300); v.a = math.pow(10, 200); return v.x");
+            StringBuilder sums = new StringBuilder("v.x = math.pow(10, 300); return v.x");
+            double quotient = 1E300;
+            double sum = 1E300;
+            for (int i = 1; i < operands; i++) {
+                boolean one = i < operands - 2;
+                quotients.append(one ? " / 1" : " / v.a");
+                quotient /= one ? 1 : 1E200;
+                sums.append(i % 2 == 0 ? " - v.x" : " + v.x").append(" + 1");
+                sum = i % 2 == 0 ? sum - 1E300 : sum + 1E300;
+                sum += 1;
+            }
+            String[] sources = { quotients.toString(), sums.toString() };
+            double[] expected = { quotient, sum };
+            for (int i = 0; i < sources.length; i++) {
+                Script script = ENGINE.compile(sources[i]);
+                Assertions.assertEquals(expected[i], script.evalAsDouble(), sources[i]);
+                Assertions.assertEquals(expected[i], new ScriptCompiler().compile(script).evaluate(), sources[i]);
+            }
+        }
+    }
+
+    @Test
+    public void test_long_chains_are_numeric() throws ParseException, ScriptException {
+        StringBuilder chain = new StringBuilder("v.x");
+        for (int i = 1; i < 64; i++) {
+            chain.append(" + 1");
+        }
+        Expression expression = parser.parse(chain).get(0);
+        Assertions.assertTrue(expression instanceof InfixChainExpression);
+        Assertions.assertTrue(Expression.isNumeric(expression));
+        Assertions.assertTrue(Expression.isNumeric(parser.parse("(" + chain + ")").get(0)));
+
+        // assigned without boxing
+        String source = "v.x = 1; v.y = " + chain + "; return v.y";
+        Script script = ENGINE.compile(source);
+        Assertions.assertEquals(64D, script.evalAsDouble());
+        Assertions.assertEquals(64D, new ScriptCompiler().compile(script).evaluate());
+    }
+
+    @Test
+    public void test_short_chains_are_left_associative() throws ParseException {
+        Expression expression = parser.parse("1 + 2 + 3").get(0);
+        Assertions.assertEquals(
+                "Add(Add(Double(1.0), Double(2.0)), Double(3.0))",
+                expression.toString()
+        );
+    }
+
+    @Test
+    public void test_operators_create_specific_nodes() throws ParseException {
+        Expression expression = parser.parse("query.a > 1 && query.b / 2 <= 3").get(0);
+        Assertions.assertTrue(expression instanceof AndExpression);
+
+        AndExpression and = (AndExpression) expression;
+        Assertions.assertTrue(and.getLeft() instanceof GreaterThanExpression);
+        Assertions.assertTrue(and.getRight() instanceof LessThanOrEqualExpression);
+        Assertions.assertTrue(((InfixExpression) and.getRight()).getLeft() instanceof DivideExpression);
+        Assertions.assertEquals(InfixExpression.AND, and.getCode());
+        Assertions.assertEquals("query.a > 1.0 && query.b / 2.0 <= 3.0", expression.toSource());
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> InfixExpression.create(-1, and, and));
+    }
+
+    @Test
+    public void test_deep_nesting() throws ScriptException {
+        StringBuilder source = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            source.append("(1 + ");
+        }
+        source.append('1');
+        for (int i = 0; i < 500; i++) {
+            source.append(')');
+        }
+        assertResult(501, source.toString());
+    }
+
+    private static int depth(Expression expression) {
+        if (expression instanceof InfixExpression) {
+            InfixExpression infix = (InfixExpression) expression;
+            return 1 + Math.max(depth(infix.getLeft()), depth(infix.getRight()));
+        } else if (expression instanceof InfixChainExpression) {
+            int depth = 0;
+            for (Expression term : ((InfixChainExpression) expression).getTerms()) {
+                depth = Math.max(depth, depth(term));
+            }
+            return 1 + depth;
+        }
+        return 1;
+    }
+
+    private static void assertResult(double expected, String source) throws ScriptException {
+        Assertions.assertEquals(expected, ENGINE.compile(source).evalAsDouble(), source);
+    }
+
+}